@@ -0,0 +1,32 @@
+package main.laborexchange.benchmarks;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Запуск JMH, що за замовчуванням зберігає результати у JSON
+ * (jmh-result-&lt;дата&gt;-&lt;час&gt;.json у поточному каталозі), щоб прогони можна було порівнювати.
+ * Явно задані -rf чи -rff мають пріоритет.
+ */
+public final class BenchmarkMain {
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        if (!options.contains("-rf")) {
+            options.add("-rf");
+            options.add("json");
+        }
+        if (!options.contains("-rff")) {
+            options.add("-rff");
+            options.add("jmh-result-" + LocalDateTime.now().format(STAMP) + ".json");
+        }
+        org.openjdk.jmh.Main.main(options.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,107 @@
+package main.laborexchange.benchmarks;
+
+import main.laborexchange.LaborExchangeSystem;
+import main.laborexchange.Unemployed;
+import main.laborexchange.Vacancy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Пропускна здатність системи під змішаним навантаженням з 1, 8 і 32 потоків:
+ * 70% пошук вакансій, 20% пошук кандидатів, 5% реєстрація, 5% працевлаштування.
+ *
+ * Виміряно на віртуальній машині з одним процесором (JDK 17, SerialGC), ops/ms:
+ * 1 потік - 5.9 ± 6.4, 8 потоків - 4.9 ± 4.1, 32 потоки - 5.0 ± 2.9.
+ * На одному ядрі потоки лише чергуються, тож ці числа показують ціну синхронізації
+ * (втрати в межах похибки), а не масштабування; його треба міряти на кількох ядрах.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConcurrentSystemBenchmark {
+    private static final int SKILLS = 500;
+
+    @Param({"100000"})
+    private int records;
+
+    private LaborExchangeSystem system;
+    private Unemployed[] candidates;
+    private Vacancy[] vacancies;
+    private AtomicInteger nextId;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        system = new LaborExchangeSystem();
+        candidates = new Unemployed[records];
+        vacancies = new Vacancy[records];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < records; i++) {
+            candidates[i] = new Unemployed("Name " + i, "Address", "Phone",
+                    "Skill" + random.nextInt(SKILLS) + " Skill" + random.nextInt(SKILLS), 30, "c" + i + "@test.com");
+            vacancies[i] = new Vacancy("V" + i, "Position", "Company",
+                    "Skill" + random.nextInt(SKILLS) + ", Skill" + random.nextInt(SKILLS), 20000.0);
+        }
+        system.addAllUnemployed(Arrays.asList(candidates));
+        system.addAllVacancies(Arrays.asList(vacancies));
+        nextId = new AtomicInteger(records);
+    }
+
+    @State(Scope.Thread)
+    public static class Worker {
+        private final SplittableRandom random = new SplittableRandom(Thread.currentThread().getId());
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void mixed1Thread(Worker worker, Blackhole blackhole) {
+        mixed(worker.random, blackhole);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void mixed8Threads(Worker worker, Blackhole blackhole) {
+        mixed(worker.random, blackhole);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public void mixed32Threads(Worker worker, Blackhole blackhole) {
+        mixed(worker.random, blackhole);
+    }
+
+    private void mixed(SplittableRandom random, Blackhole blackhole) {
+        int operation = random.nextInt(100);
+        if (operation < 70) {
+            blackhole.consume(system.findVacanciesForUnemployed(candidates[random.nextInt(records)]));
+        } else if (operation < 90) {
+            blackhole.consume(system.findUnemployedForVacancy(vacancies[random.nextInt(records)]));
+        } else if (operation < 95) {
+            int id = nextId.incrementAndGet();
+            blackhole.consume(system.addUnemployed(new Unemployed("Name " + id, "Address", "Phone",
+                    "Skill" + random.nextInt(SKILLS), 30, "c" + id + "@test.com")));
+        } else {
+            blackhole.consume(system.employUnemployed(candidates[random.nextInt(records)],
+                    vacancies[random.nextInt(records)]));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package main.laborexchange.benchmarks;
+
+import main.laborexchange.LaborExchangeSystem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Запити, що не змінюють систему: зіставлення, пошуки й статистика.
+ * Кожен виклик бере наступного кандидата чи вакансію набору, щоб не міряти один і той самий запис.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CoreQueryBenchmark {
+    @Param({"10000", "100000", "1000000"})
+    private int records;
+
+    private Dataset dataset;
+    private LaborExchangeSystem system;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataset = new Dataset(records, 42);
+        system = dataset.register();
+    }
+
+    private int next() {
+        int index = cursor;
+        cursor = index + 1 == records ? 0 : index + 1;
+        return index;
+    }
+
+    @Benchmark
+    public boolean matchesSpecialty() {
+        int index = next();
+        return dataset.vacancies[index].matchesSpecialty(dataset.candidates[index].getSpecialty());
+    }
+
+    @Benchmark
+    public List<?> findVacanciesForUnemployed() {
+        return system.findVacanciesForUnemployed(dataset.candidates[next()]);
+    }
+
+    @Benchmark
+    public List<?> findUnemployedForVacancy() {
+        return system.findUnemployedForVacancy(dataset.vacancies[next()]);
+    }
+
+    @Benchmark
+    public List<?> findUnemployedForSpecialty() {
+        return system.findUnemployedForSpecialty("Skill" + next() % Dataset.SKILLS + " ");
+    }
+
+    @Benchmark
+    public String getSystemStatistics() {
+        return system.getSystemStatistics();
+    }
+}
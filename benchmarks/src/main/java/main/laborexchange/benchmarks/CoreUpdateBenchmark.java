@@ -0,0 +1,127 @@
+package main.laborexchange.benchmarks;
+
+import main.laborexchange.LaborExchangeSystem;
+import main.laborexchange.Manager;
+import main.laborexchange.Report;
+import main.laborexchange.Unemployed;
+import main.laborexchange.Vacancy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Операції, що змінюють систему: реєстрація, працевлаштування й звіти.
+ * Система будується заново перед кожною ітерацією, тож записи, додані
+ * попередньою ітерацією, не впливають на наступну. Час включає створення нових записів.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CoreUpdateBenchmark {
+    private static final int BATCH = 100;
+
+    @Param({"10000", "100000", "1000000"})
+    private int records;
+
+    private Dataset dataset;
+    private LaborExchangeSystem system;
+    private SplittableRandom random;
+    private long nextId;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        dataset = new Dataset(records, 42);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        if (system != null) {
+            // Закрита система відписується від записів, тож набір можна використати знову
+            system.close();
+            dataset.reset();
+        }
+        system = dataset.register();
+        random = new SplittableRandom(7);
+        nextId = records;
+    }
+
+    @Benchmark
+    public boolean addUnemployed() {
+        return system.addUnemployed(Dataset.unemployed(random, "n" + nextId++));
+    }
+
+    @Benchmark
+    public boolean addVacancy() {
+        return system.addVacancy(Dataset.vacancy(random, "N" + nextId++));
+    }
+
+    @Benchmark
+    public LaborExchangeSystem addAllUnemployed() {
+        List<Unemployed> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            batch.add(Dataset.unemployed(random, "n" + nextId++));
+        }
+        system.addAllUnemployed(batch);
+        return system;
+    }
+
+    @Benchmark
+    public LaborExchangeSystem addAllVacancies() {
+        List<Vacancy> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            batch.add(Dataset.vacancy(random, "N" + nextId++));
+        }
+        system.addAllVacancies(batch);
+        return system;
+    }
+
+    @Benchmark
+    public boolean addManager() {
+        return system.addManager(new Manager("Manager", "M" + nextId++));
+    }
+
+    @Benchmark
+    public boolean addReport() {
+        return system.addReport(new Report("R" + nextId++));
+    }
+
+    /**
+     * Працевлаштування з поверненням пари у вихідний стан, щоб кожен виклик
+     * проходив повний шлях, а не відмову для вже зайнятих записів
+     */
+    @Benchmark
+    public boolean employUnemployed() {
+        int index = cursor;
+        cursor = index + 1 == records ? 0 : index + 1;
+        Unemployed unemployed = dataset.candidates[index];
+        Vacancy vacancy = dataset.vacancies[index];
+        boolean employed = system.employUnemployed(unemployed, vacancy);
+        unemployed.setEmployed(false);
+        vacancy.setActive(true);
+        return employed;
+    }
+
+    @Benchmark
+    public Report generateMonthlyReport() {
+        return system.generateMonthlyReport("MONTHLY_" + nextId++);
+    }
+}
@@ -0,0 +1,74 @@
+package main.laborexchange.benchmarks;
+
+import main.laborexchange.LaborExchangeSystem;
+import main.laborexchange.Unemployed;
+import main.laborexchange.Vacancy;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Детермінований набір записів для бенчмарків основних операцій.
+ * Спеціальності й вимоги складаються з SKILLS навичок, половина кандидатів -
+ * "developer", тож є і вузькі, і широкі запити. Вакансія з номером i вимагає
+ * першу навичку кандидата i, тож пари з однаковим номером завжди підходять одна одній.
+ */
+final class Dataset {
+    static final int SKILLS = 500;
+
+    final Unemployed[] candidates;
+    final Vacancy[] vacancies;
+
+    Dataset(int records, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        candidates = new Unemployed[records];
+        vacancies = new Vacancy[records];
+        for (int i = 0; i < records; i++) {
+            int skill = random.nextInt(SKILLS);
+            candidates[i] = new Unemployed("Name " + i, "Address", "Phone",
+                    "Skill" + skill + " Skill" + random.nextInt(SKILLS) + role(random),
+                    20 + random.nextInt(40), "c" + i + "@test.com");
+            vacancies[i] = new Vacancy("V" + i, "Position", "Company",
+                    "Skill" + skill + ", Skill" + random.nextInt(SKILLS), 5000.0 + random.nextInt(60000));
+        }
+    }
+
+    /**
+     * Система з усіма записами набору; кожен десятий кандидат уже працевлаштований
+     */
+    LaborExchangeSystem register() {
+        LaborExchangeSystem system = new LaborExchangeSystem();
+        system.addAllUnemployed(Arrays.asList(candidates));
+        system.addAllVacancies(Arrays.asList(vacancies));
+        for (int i = 0; i < candidates.length; i += 10) {
+            system.employUnemployed(candidates[i], vacancies[i]);
+        }
+        return system;
+    }
+
+    /**
+     * Повертає записи до початкового стану: усі кандидати вільні, усі вакансії відкриті
+     */
+    void reset() {
+        for (int i = 0; i < candidates.length; i++) {
+            candidates[i].setEmployed(false);
+            vacancies[i].setActive(true);
+        }
+    }
+
+    static Unemployed unemployed(SplittableRandom random, String key) {
+        return new Unemployed("Name " + key, "Address", "Phone",
+                "Skill" + random.nextInt(SKILLS) + " Skill" + random.nextInt(SKILLS) + role(random),
+                20 + random.nextInt(40), key + "@test.com");
+    }
+
+    private static String role(SplittableRandom random) {
+        return random.nextBoolean() ? " Developer" : " Analyst";
+    }
+
+    static Vacancy vacancy(SplittableRandom random, String id) {
+        return new Vacancy(id, "Position", "Company",
+                "Skill" + random.nextInt(SKILLS) + ", Skill" + random.nextInt(SKILLS),
+                5000.0 + random.nextInt(60000));
+    }
+}
@@ -0,0 +1,114 @@
+package main.laborexchange.benchmarks;
+
+import main.laborexchange.LaborExchangeSystem;
+import main.laborexchange.Unemployed;
+import main.laborexchange.UnemployedStore;
+import main.laborexchange.Vacancy;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Вимірює зайняту купу для згенерованого набору записів: спершу самих записів,
+ * потім (з ключем --system) разом з індексами системи, куди їх зареєстровано.
+ * З ключем --packed порівнює безробітних-об'єктів з тими самими записами в UnemployedStore.
+ * Рядки створюються заново для кожного запису, як після розбору вхідного файлу,
+ * тож повтори спеціальностей, компаній і вимог потрапляють у купу окремими об'єктами.
+ *
+ * Запуск: java -Xmx5g -cp target/benchmarks.jar main.laborexchange.benchmarks.HeapFootprint [записів] [--system]
+ */
+public class HeapFootprint {
+    private static final String[] LEVELS = {"Junior", "Middle", "Senior", "Lead"};
+    private static final String[] SKILLS = {"Java", "Python", "JavaScript", "Go", "Kotlin", "C#", "PHP", "Ruby",
+            "SQL", "DevOps", "QA", "Data", "Frontend", "Backend", "Android", "iOS"};
+    private static final String[] ROLES = {"Developer", "Engineer", "Tester", "Analyst"};
+    private static final String[] CITIES = {"Київ", "Львів", "Харків", "Одеса", "Дніпро"};
+    private static final String[] COMPANIES = {"SoftServe", "EPAM", "GlobalLogic", "Luxoft", "Ciklum",
+            "Intellias", "DataArt", "N-iX", "Sigma", "ELEKS"};
+    private static final String[] TOOLS = {"Git", "Docker", "Kubernetes", "Spring", "React", "PostgreSQL",
+            "AWS", "Linux", "REST", "Kafka"};
+
+    public static void main(String[] args) {
+        int records = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        boolean withSystem = args.length > 1 && args[1].equals("--system");
+        if (args.length > 1 && args[1].equals("--packed")) {
+            measurePacked(records);
+            return;
+        }
+        long baseline = usedHeap();
+
+        SplittableRandom random = new SplittableRandom(42);
+        List<Unemployed> unemployed = new ArrayList<>(records / 2);
+        List<Vacancy> vacancies = new ArrayList<>(records - records / 2);
+        for (int i = 0; i < records / 2; i++) {
+            unemployed.add(unemployed(random, i));
+        }
+        for (int i = records / 2; i < records; i++) {
+            String requirements = pick(random, SKILLS) + ", " + pick(random, TOOLS) + ", " + pick(random, TOOLS)
+                    + ", англійська від B1";
+            vacancies.add(new Vacancy("V" + i, specialty(random), pick(random, COMPANIES) + " Ukraine",
+                    requirements, 10000.0 + random.nextInt(60000)));
+        }
+        report("Записи", usedHeap() - baseline, records);
+        if (withSystem) {
+            LaborExchangeSystem system = new LaborExchangeSystem();
+            system.addAllUnemployed(unemployed);
+            system.addAllVacancies(vacancies);
+            report("Записи з індексами системи", usedHeap() - baseline, records);
+            System.out.printf("Безробітних: %d, вакансій: %d%n", system.getTotalUnemployed(), system.getTotalVacancies());
+        }
+        // Списки мають дожити до останнього вимірювання
+        System.out.printf("Згенеровано: %d + %d%n", unemployed.size(), vacancies.size());
+    }
+
+    private static void measurePacked(int records) {
+        long baseline = usedHeap();
+        SplittableRandom random = new SplittableRandom(42);
+        List<Unemployed> unemployed = new ArrayList<>(records);
+        for (int i = 0; i < records; i++) {
+            unemployed.add(unemployed(random, i));
+        }
+        report("Об'єкти Unemployed", usedHeap() - baseline, records);
+        unemployed = null;
+
+        baseline = usedHeap();
+        random = new SplittableRandom(42);
+        UnemployedStore store = new UnemployedStore();
+        for (int i = 0; i < records; i++) {
+            store.add(unemployed(random, i));
+        }
+        store.trimToSize();
+        report("UnemployedStore", usedHeap() - baseline, records);
+        System.out.printf("Масиви сховища: %.0f байт на запис, записів: %d%n",
+                (double) store.getFootprintBytes() / records, store.size());
+    }
+
+    private static Unemployed unemployed(SplittableRandom random, int i) {
+        return new Unemployed("Кандидат " + i, pick(random, CITIES) + ", вул. Центральна",
+                "050" + (1_000_000 + i), specialty(random), 20 + random.nextInt(40), "c" + i + "@test.com");
+    }
+
+    private static void report(String what, long used, int records) {
+        System.out.printf("%s: %.1f МБ, %.0f байт на запис%n", what, used / 1048576.0, (double) used / records);
+    }
+
+    private static String specialty(SplittableRandom random) {
+        return pick(random, LEVELS) + " " + pick(random, SKILLS) + " " + pick(random, ROLES);
+    }
+
+    // new String - щоб кожен запис мав власну копію, як після читання з файлу
+    private static String pick(SplittableRandom random, String[] values) {
+        return new String(values[random.nextInt(values.length)]);
+    }
+
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
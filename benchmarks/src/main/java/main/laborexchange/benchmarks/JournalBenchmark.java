@@ -0,0 +1,81 @@
+package main.laborexchange.benchmarks;
+
+import main.laborexchange.Journal;
+import main.laborexchange.LaborExchangeSystem;
+import main.laborexchange.Vacancy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Реєстрацій вакансій за секунду з журналом: синхронізація з диском на кожен запис
+ * проти групової синхронізації, з 1 і 16 потоків. Після кожної ітерації
+ * друкується, скільки записів припало на одну синхронізацію.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JournalBenchmark {
+
+    @Param({"EVERY_WRITE", "GROUP_COMMIT"})
+    private Journal.SyncMode syncMode;
+
+    private Path directory;
+    private LaborExchangeSystem system;
+    private AtomicInteger nextId;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("journal-benchmark");
+        system = LaborExchangeSystem.open(directory.resolve("exchange.journal"), syncMode, Clock.systemUTC());
+        nextId = new AtomicInteger();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        long syncs = system.getJournal().getSyncCount();
+        System.out.printf("%n%s: %d records, %d syncs, %.1f records per sync%n",
+                syncMode, nextId.get(), syncs, syncs == 0 ? 0.0 : (double) nextId.get() / syncs);
+        system.close();
+        Files.deleteIfExists(directory.resolve("exchange.journal"));
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean addVacancy1Thread() {
+        return addVacancy();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean addVacancy16Threads() {
+        return addVacancy();
+    }
+
+    private boolean addVacancy() {
+        int id = nextId.incrementAndGet();
+        return system.addVacancy(new Vacancy("V" + id, "Java Developer", "Company", "Java, Spring", 20000.0));
+    }
+}
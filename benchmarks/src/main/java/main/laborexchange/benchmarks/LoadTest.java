@@ -0,0 +1,300 @@
+package main.laborexchange.benchmarks;
+
+import main.laborexchange.ImportResult;
+import main.laborexchange.LaborExchangeSystem;
+import main.laborexchange.Manager;
+import main.laborexchange.Unemployed;
+import main.laborexchange.Vacancy;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Навантажувальний тест системи в масштабі: завантажує набір SyntheticData (згенерований
+ * у пам'яті або прочитаний з каталогу), потім з кількох потоків виконує суміш реєстрацій,
+ * пошуків і працевлаштувань і друкує пропускну здатність та перцентилі затримки
+ * для кожного типу операції.
+ *
+ * java -Xmx4g -cp target/benchmarks.jar main.laborexchange.benchmarks.LoadTest
+ *     [--unemployed 1000000] [--vacancies 500000] [--managers 100] [--operations 200000]
+ *     [--threads N] [--seed 42] [--data каталог] [--mix FIND_VACANCIES=50,EMPLOY=20,...]
+ */
+public final class LoadTest {
+    /** Тип операції та її частка в суміші за замовчуванням, у відсотках */
+    enum Operation {
+        REGISTER_UNEMPLOYED(10),
+        REGISTER_VACANCY(5),
+        FIND_VACANCIES(40),
+        FIND_UNEMPLOYED(20),
+        FIND_BY_SPECIALTY(15),
+        EMPLOY(10);
+
+        final int defaultWeight;
+
+        Operation(int defaultWeight) {
+            this.defaultWeight = defaultWeight;
+        }
+    }
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final LaborExchangeSystem system;
+    private final List<Unemployed> candidates;
+    private final List<Vacancy> vacancies;
+    private final Map<Operation, Integer> mix;
+    private final long seed;
+
+    private LoadTest(LaborExchangeSystem system, List<Unemployed> candidates, List<Vacancy> vacancies,
+                     Map<Operation, Integer> mix, long seed) {
+        this.system = system;
+        this.candidates = candidates;
+        this.vacancies = vacancies;
+        this.mix = mix;
+        this.seed = seed;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int unemployedCount = Integer.parseInt(options.getOrDefault("unemployed", "1000000"));
+        int vacancyCount = Integer.parseInt(options.getOrDefault("vacancies", "500000"));
+        int managerCount = Integer.parseInt(options.getOrDefault("managers", "100"));
+        int operations = Integer.parseInt(options.getOrDefault("operations", "200000"));
+        int threads = Integer.parseInt(options.getOrDefault("threads",
+                Integer.toString(Runtime.getRuntime().availableProcessors())));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        Map<Operation, Integer> mix = parseMix(options.get("mix"));
+
+        long start = System.nanoTime();
+        List<Unemployed> candidates;
+        List<Vacancy> vacancies;
+        List<Manager> managers;
+        if (options.containsKey("data")) {
+            candidates = SyntheticData.readUnemployed(Paths.get(options.get("data")));
+            vacancies = SyntheticData.readVacancies(Paths.get(options.get("data")));
+            managers = SyntheticData.readManagers(Paths.get(options.get("data")));
+        } else {
+            SyntheticData data = new SyntheticData(seed);
+            candidates = data.unemployed(unemployedCount);
+            vacancies = data.vacancies(vacancyCount);
+            managers = data.managers(managerCount);
+        }
+        System.out.printf("Набір: %d безробітних, %d вакансій, %d менеджерів (%.1f с)%n",
+                candidates.size(), vacancies.size(), managers.size(), seconds(start));
+
+        start = System.nanoTime();
+        LaborExchangeSystem system = new LaborExchangeSystem();
+        List<ImportResult> results = system.addAllUnemployed(candidates);
+        system.addAllVacancies(vacancies);
+        for (int i = 0; i < managers.size(); i++) {
+            Manager manager = managers.get(i);
+            // Кожен менеджер веде невелику частину кандидатів
+            for (int j = i; j < candidates.size() && j < i + 100 * managers.size(); j += managers.size()) {
+                manager.registerUnemployed(candidates.get(j));
+            }
+            system.addManager(manager);
+        }
+        System.out.printf("Завантаження: %.1f с; безробітних прийнято %d, невалідних %d, дублікатів %d%n",
+                seconds(start), count(results, ImportResult.ACCEPTED), count(results, ImportResult.INVALID),
+                count(results, ImportResult.DUPLICATE));
+
+        new LoadTest(system, candidates, vacancies, mix, seed).run(operations, threads);
+        System.out.println(system.getSystemStatistics());
+    }
+
+    private void run(int operations, int threads) throws Exception {
+        Worker[] workers = new Worker[threads];
+        for (int t = 0; t < threads; t++) {
+            int share = operations / threads + (t < operations % threads ? 1 : 0);
+            workers[t] = new Worker(t, share);
+        }
+        System.out.printf("Навантаження: %d операцій у %d потоках, суміш %s%n", operations, threads, mix);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Worker worker : workers) {
+            futures.add(executor.submit(() -> {
+                ready.countDown();
+                go.await();
+                worker.run();
+                return null;
+            }));
+        }
+        ready.await();
+        long start = System.nanoTime();
+        go.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+
+        System.out.printf("Загалом: %.0f операцій/с за %.1f с%n", operations * 1e9 / elapsed, elapsed / 1e9);
+        System.out.printf("%-20s %9s %10s %10s %10s %10s %10s %10s%n",
+                "операція", "кількість", "оп/с", "p50 мкс", "p90 мкс", "p99 мкс", "p99.9 мкс", "max мкс");
+        for (Operation operation : Operation.values()) {
+            long[] latencies = merge(workers, operation);
+            if (latencies.length == 0) {
+                continue;
+            }
+            Arrays.sort(latencies);
+            StringBuilder line = new StringBuilder(String.format("%-20s %9d %10.0f",
+                    operation, latencies.length, latencies.length * 1e9 / elapsed));
+            for (double percentile : PERCENTILES) {
+                line.append(String.format(" %10.1f", percentile(latencies, percentile) / 1e3));
+            }
+            line.append(String.format(" %10.1f", latencies[latencies.length - 1] / 1e3));
+            System.out.println(line);
+        }
+    }
+
+    /**
+     * Потік навантаження. План операцій і нові записи для реєстрації готуються
+     * заздалегідь, тож у виміряну затримку потрапляє лише виклик системи.
+     */
+    private final class Worker {
+        private final Operation[] plan;
+        private final Random random;
+        private final String[] queries;
+        private final List<Unemployed> newCandidates = new ArrayList<>();
+        private final List<Vacancy> newVacancies = new ArrayList<>();
+        private final Map<Operation, long[]> latencies = new EnumMap<>(Operation.class);
+        private final Map<Operation, Integer> counts = new EnumMap<>(Operation.class);
+
+        Worker(int index, int operations) {
+            random = new Random(seed * 31 + index);
+            SyntheticData data = new SyntheticData(seed * 31 + index, "load" + index + "-");
+            plan = new Operation[operations];
+            queries = new String[operations];
+            int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+            for (int i = 0; i < operations; i++) {
+                plan[i] = choose(random.nextInt(total));
+                if (plan[i] == Operation.REGISTER_UNEMPLOYED) {
+                    newCandidates.add(data.nextUnemployed());
+                } else if (plan[i] == Operation.REGISTER_VACANCY) {
+                    newVacancies.add(data.nextVacancy());
+                } else if (plan[i] == Operation.FIND_BY_SPECIALTY) {
+                    queries[i] = data.nextSpecialtyQuery();
+                }
+                counts.merge(plan[i], 1, Integer::sum);
+            }
+            for (Map.Entry<Operation, Integer> entry : counts.entrySet()) {
+                latencies.put(entry.getKey(), new long[entry.getValue()]);
+            }
+            counts.clear();
+        }
+
+        private Operation choose(int ticket) {
+            for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+                ticket -= entry.getValue();
+                if (ticket < 0) {
+                    return entry.getKey();
+                }
+            }
+            throw new IllegalStateException("Порожня суміш операцій");
+        }
+
+        void run() {
+            int registeredCandidates = 0;
+            int registeredVacancies = 0;
+            for (int i = 0; i < plan.length; i++) {
+                Operation operation = plan[i];
+                Unemployed candidate = candidates.get(random.nextInt(candidates.size()));
+                Vacancy vacancy = vacancies.get(random.nextInt(vacancies.size()));
+                long start = System.nanoTime();
+                switch (operation) {
+                    case REGISTER_UNEMPLOYED:
+                        system.addUnemployed(newCandidates.get(registeredCandidates++));
+                        break;
+                    case REGISTER_VACANCY:
+                        system.addVacancy(newVacancies.get(registeredVacancies++));
+                        break;
+                    case FIND_VACANCIES:
+                        system.findVacanciesForUnemployed(candidate);
+                        break;
+                    case FIND_UNEMPLOYED:
+                        system.findUnemployedForVacancy(vacancy);
+                        break;
+                    case FIND_BY_SPECIALTY:
+                        system.findUnemployedForSpecialty(queries[i]);
+                        break;
+                    case EMPLOY:
+                        // Перша відповідна відкрита вакансія, як зробив би менеджер
+                        Optional<Vacancy> match = system.streamVacanciesForUnemployed(candidate).findFirst();
+                        match.ifPresent(v -> system.employUnemployed(candidate, v));
+                        break;
+                    default:
+                        throw new IllegalStateException(operation.toString());
+                }
+                long elapsed = System.nanoTime() - start;
+                int count = counts.merge(operation, 1, Integer::sum);
+                latencies.get(operation)[count - 1] = elapsed;
+            }
+        }
+    }
+
+    private static long[] merge(Worker[] workers, Operation operation) {
+        long[] merged = new long[0];
+        for (Worker worker : workers) {
+            long[] latencies = worker.latencies.get(operation);
+            if (latencies != null) {
+                int offset = merged.length;
+                merged = Arrays.copyOf(merged, offset + latencies.length);
+                System.arraycopy(latencies, 0, merged, offset, latencies.length);
+            }
+        }
+        return merged;
+    }
+
+    // Метод найближчого рангу
+    private static long percentile(long[] sorted, double percentile) {
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)];
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 == args.length) {
+                throw new IllegalArgumentException("Очікувалось --параметр значення: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+
+    private static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        if (value == null) {
+            for (Operation operation : Operation.values()) {
+                mix.put(operation, operation.defaultWeight);
+            }
+            return mix;
+        }
+        for (String part : value.split(",")) {
+            String[] pair = part.split("=");
+            mix.put(Operation.valueOf(pair[0].trim().toUpperCase()), Integer.parseInt(pair[1].trim()));
+        }
+        return mix;
+    }
+
+    private static long count(List<ImportResult> results, ImportResult result) {
+        return results.stream().filter(r -> r == result).count();
+    }
+
+    private static double seconds(long start) {
+        return (System.nanoTime() - start) / 1e9;
+    }
+}
@@ -0,0 +1,105 @@
+package main.laborexchange.benchmarks;
+
+import main.laborexchange.LaborExchangeSystem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ціна вбудованих вимірювань операцій: ті самі виклики з вимкненим (off)
+ * і ввімкненим (on) вимірюванням. Обрано найкоротші операції - відмови
+ * працевлаштування й повторної реєстрації та пошук з кількома збігами, -
+ * на них додаткові наносекунди помітні найбільше.
+ *
+ * Ціну вимкненого вимірювання видно лише порівнянням зі збіркою бібліотеки без
+ * вимірювань (none): операції не обгорнуті metrics.start/record, а методу
+ * setMetricsEnabled немає. Її класи ставляться в classpath перед benchmarks.jar:
+ *
+ *   java -cp baseline-classes:target/benchmarks.jar org.openjdk.jmh.Main MetricsOverhead -p metrics=none
+ *
+ * Значення none перевіряє, що завантажено саме таку збірку, а off і on - що ні.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+    private static final int RECORDS = 10_000;
+
+    @Param({"off", "on"})
+    private String metrics;
+
+    private Dataset dataset;
+    private LaborExchangeSystem system;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataset = new Dataset(RECORDS, 42);
+        system = dataset.register();
+        // Половина кандидатів уже працевлаштована - їм відмовляють до будь-якої зміни стану
+        for (int i = 0; i < RECORDS; i += 2) {
+            system.employUnemployed(dataset.candidates[i], dataset.vacancies[i]);
+        }
+        setMetricsEnabled(system, metrics);
+    }
+
+    // Через рефлексію, щоб той самий клас запускався й зі збіркою без вимірювань
+    private static void setMetricsEnabled(LaborExchangeSystem system, String metrics) {
+        Method method;
+        try {
+            method = LaborExchangeSystem.class.getMethod("setMetricsEnabled", boolean.class);
+        } catch (NoSuchMethodException e) {
+            method = null;
+        }
+        if (metrics.equals("none") != (method == null)) {
+            throw new IllegalStateException(metrics.equals("none")
+                    ? "Для none потрібна збірка без вимірювань першою в classpath"
+                    : "Завантажено збірку без вимірювань");
+        }
+        if (method != null) {
+            try {
+                method.invoke(system, metrics.equals("on"));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private int next() {
+        int index = cursor;
+        cursor = index + 2 >= RECORDS ? 0 : index + 2;
+        return index;
+    }
+
+    @Benchmark
+    public boolean employRejected() {
+        int index = next();
+        return system.employUnemployed(dataset.candidates[index], dataset.vacancies[index + 1]);
+    }
+
+    @Benchmark
+    public boolean addDuplicate() {
+        return system.addUnemployed(dataset.candidates[next()]);
+    }
+
+    @Benchmark
+    public List<?> findVacanciesForUnemployed() {
+        return system.findVacanciesForUnemployed(dataset.candidates[next() + 1]);
+    }
+}
@@ -0,0 +1,91 @@
+package main.laborexchange.benchmarks;
+
+import main.laborexchange.LaborExchangeSystem;
+import main.laborexchange.Vacancy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Фільтри вакансій за зарплатою й активністю: стовпчикове сховище системи
+ * проти потоку об'єктів Vacancy
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SalaryFilterBenchmark {
+    private static final double MIN_SALARY = 20000.0;
+    private static final double MAX_SALARY = 40000.0;
+
+    @Param({"1000000"})
+    private int records;
+
+    private LaborExchangeSystem system;
+    private List<Vacancy> vacancies;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        Vacancy[] array = new Vacancy[records];
+        for (int i = 0; i < records; i++) {
+            array[i] = new Vacancy("V" + i, "Position", "Company", "Skill" + random.nextInt(500),
+                    5000.0 + random.nextInt(60000));
+            array[i].setActive(random.nextInt(4) != 0);
+        }
+        vacancies = Arrays.asList(array);
+        system = new LaborExchangeSystem();
+        system.addAllVacancies(vacancies);
+    }
+
+    @Benchmark
+    public int countInRangeColumns() {
+        return system.countActiveVacanciesInSalaryRange(MIN_SALARY, MAX_SALARY);
+    }
+
+    @Benchmark
+    public long countInRangeObjects() {
+        return vacancies.stream()
+                .filter(v -> v.isActive() && v.getSalary() >= MIN_SALARY && v.getSalary() <= MAX_SALARY)
+                .count();
+    }
+
+    @Benchmark
+    public List<Vacancy> highSalaryColumns() {
+        return system.getHighSalaryVacancies();
+    }
+
+    @Benchmark
+    public List<Vacancy> highSalaryObjects() {
+        return vacancies.stream()
+                .filter(v -> v.isActive() && v.isHighSalary())
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public double averageSalaryColumns() {
+        return system.getAverageActiveSalary();
+    }
+
+    @Benchmark
+    public double averageSalaryObjects() {
+        return vacancies.stream().filter(Vacancy::isActive).mapToDouble(Vacancy::getSalary).average().orElse(0.0);
+    }
+}
@@ -0,0 +1,306 @@
+package main.laborexchange.benchmarks;
+
+import main.laborexchange.Manager;
+import main.laborexchange.Unemployed;
+import main.laborexchange.Vacancy;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Детермінований генератор правдоподібних даних біржі праці: той самий seed
+ * завжди дає ту саму послідовність записів.
+ *
+ * Професії й компанії розподілені за Ципфом (кілька дуже поширених, довгий хвіст рідкісних),
+ * вимоги вакансій складаються з кількох ключових слів українською й англійською,
+ * вік - нормальний навколо 36 років, зарплата - логнормальна залежно від рівня.
+ * Приблизно 1% безробітних мають невалідний email і 0,5% повторюють чужий,
+ * щоб пакетна реєстрація проходила всі свої гілки.
+ *
+ * Запис у файли: java -cp target/benchmarks.jar main.laborexchange.benchmarks.SyntheticData
+ * &lt;каталог&gt; &lt;безробітних&gt; &lt;вакансій&gt; &lt;менеджерів&gt; [seed]
+ */
+public final class SyntheticData {
+    static final String UNEMPLOYED_FILE = "unemployed.tsv";
+    static final String VACANCIES_FILE = "vacancies.tsv";
+    static final String MANAGERS_FILE = "managers.tsv";
+
+    /** Професія: назва (вона ж спеціальність) і вимоги; перша вимога містить ключове слово назви */
+    private static final String[][] PROFESSIONS = {
+            {"Java Developer", "Java", "Spring", "SQL", "Hibernate", "Maven", "Kafka"},
+            {"Python Developer", "Python", "Django", "SQL", "Pandas", "FastAPI"},
+            {"Frontend Developer", "Frontend", "JavaScript", "React", "TypeScript", "CSS", "HTML"},
+            {"Бухгалтер", "бухгалтер", "облік", "1С", "податкова звітність", "Excel"},
+            {"Продавець", "продавець", "каса", "консультування клієнтів", "мерчандайзинг"},
+            {"Водій", "водій", "посвідчення категорії C", "логістика", "вантажоперевезення"},
+            {"QA Engineer", "QA Engineer", "Selenium", "тестування", "Postman", "Jira"},
+            {"Менеджер з продажу", "менеджер з продажу", "CRM", "переговори", "B2B"},
+            {"Кухар", "кухар", "кухня", "HACCP", "заготівля"},
+            {"DevOps Engineer", "DevOps", "Docker", "Kubernetes", "AWS", "Linux", "Terraform"},
+            {"Data Analyst", "Data Analyst", "SQL", "Python", "Power BI", "аналітика", "Excel"},
+            {"Медсестра", "медсестра", "догляд за пацієнтами", "ін'єкції", "медична документація"},
+            {"Вчитель математики", "вчитель", "математика", "педагогіка", "НУШ"},
+            {"Електрик", "електрик", "електромонтаж", "допуск з електробезпеки"},
+            {"Android Developer", "Android", "Kotlin", "Java", "Jetpack"},
+            {"HR Manager", "HR Manager", "рекрутинг", "адаптація персоналу", "кадровий облік"},
+            {"Юрист", "юрист", "договірна робота", "судова практика", "корпоративне право"},
+            {"Зварювальник", "зварювальник", "напівавтомат", "аргонне зварювання"},
+            {"Project Manager", "Project Manager", "Agile", "Scrum", "Jira", "управління проєктами"},
+            {"Оператор call-центру", "оператор", "call-центр", "обробка дзвінків", "CRM"},
+            {"C++ Developer", "C++", "STL", "Qt", "Linux", "алгоритми"},
+            {"Node.js Developer", "Node.js", "JavaScript", "MongoDB", "REST"},
+            {"Логіст", "логіст", "логістика", "ЗЕД", "митне оформлення"},
+            {"Дизайнер", "дизайнер", "Figma", "UI/UX", "Photoshop"},
+    };
+    private static final String[] LEVELS = {"Junior", "Middle", "Senior", "Провідний", "Старший"};
+    private static final String[] COMMON_REQUIREMENTS = {"англійська B1", "англійська B2",
+            "досвід від 2 років", "досвід від 5 років", "teamwork", "відповідальність", "remote"};
+    private static final String[] FIRST_NAMES = {"Олександр", "Олена", "Андрій", "Ірина", "Сергій", "Наталія",
+            "Дмитро", "Оксана", "Максим", "Тетяна", "Іван", "Юлія", "Василь", "Марія", "Петро", "Анна"};
+    private static final String[] LAST_NAMES = {"Шевченко", "Коваленко", "Бондаренко", "Ткаченко", "Кравченко",
+            "Олійник", "Шевчук", "Поліщук", "Бойко", "Мельник", "Савченко", "Руденко", "Мороз", "Лисенко"};
+    private static final String[] CITIES = {"Київ", "Львів", "Харків", "Одеса", "Дніпро", "Запоріжжя",
+            "Вінниця", "Полтава", "Чернігів", "Ужгород", "Луцьк", "Суми"};
+    private static final String[] STREETS = {"вул. Шевченка", "вул. Франка", "просп. Перемоги",
+            "вул. Грушевського", "вул. Соборна", "вул. Садова"};
+    private static final String[] COMPANY_ROOTS = {"Софт", "Агро", "Буд", "Мед", "Транс", "Енерго", "Фуд",
+            "Тех", "Логістик", "Фарм", "Дата", "Сервіс", "Тріо", "Альфа", "Нова"};
+    private static final String[] COMPANY_FORMS = {"ТОВ \"%s\"", "%s Ukraine", "ПП \"%s\"", "%s Group", "%s LLC"};
+    private static final int COMPANIES = 5000;
+    private static final double INVALID_SHARE = 0.01;
+    private static final double DUPLICATE_SHARE = 0.005;
+
+    private final Random random;
+    private final String keyPrefix;
+    private final double[] professionWeights;
+    private final double[] companyWeights;
+    private final double[] cityWeights;
+    private long unemployedCount;
+    private long vacancyCount;
+    private long managerCount;
+
+    public SyntheticData(long seed) {
+        this(seed, "");
+    }
+
+    /**
+     * keyPrefix додається до email і номерів вакансій, щоб записи кількох генераторів не збігались
+     */
+    public SyntheticData(long seed, String keyPrefix) {
+        this.random = new Random(seed);
+        this.keyPrefix = keyPrefix;
+        this.professionWeights = zipf(PROFESSIONS.length, 1.1);
+        this.companyWeights = zipf(COMPANIES, 1.0);
+        this.cityWeights = zipf(CITIES.length, 1.0);
+    }
+
+    public Unemployed nextUnemployed() {
+        long index = unemployedCount++;
+        String[] profession = PROFESSIONS[pick(professionWeights)];
+        String specialty = random.nextInt(3) == 0
+                ? LEVELS[random.nextInt(LEVELS.length)] + " " + profession[0] : profession[0];
+        String email;
+        double kind = random.nextDouble();
+        if (kind < INVALID_SHARE) {
+            email = keyPrefix + "user" + index + ".mail.test";
+        } else if (kind < INVALID_SHARE + DUPLICATE_SHARE && index > 0) {
+            email = keyPrefix + "user" + random.nextInt((int) Math.min(index, Integer.MAX_VALUE)) + "@mail.test";
+        } else {
+            email = keyPrefix + "user" + index + "@mail.test";
+        }
+        return new Unemployed(
+                LAST_NAMES[random.nextInt(LAST_NAMES.length)] + " " + FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+                CITIES[pick(cityWeights)] + ", " + STREETS[random.nextInt(STREETS.length)] + ", " + (1 + random.nextInt(150)),
+                "+38050" + String.format("%07d", index % 10_000_000),
+                specialty, age(), email);
+    }
+
+    public Vacancy nextVacancy() {
+        long index = vacancyCount++;
+        String[] profession = PROFESSIONS[pick(professionWeights)];
+        int levelIndex = random.nextInt(LEVELS.length);
+        // Перше ключове слово професії є завжди, решта - випадкова підмножина
+        List<String> requirements = new ArrayList<>();
+        requirements.add(profession[1]);
+        for (int i = 2; i < profession.length; i++) {
+            if (random.nextInt(2) == 0) {
+                requirements.add(profession[i]);
+            }
+        }
+        if (random.nextInt(2) == 0) {
+            requirements.add(COMMON_REQUIREMENTS[random.nextInt(COMMON_REQUIREMENTS.length)]);
+        }
+        return new Vacancy(keyPrefix + "V" + index, LEVELS[levelIndex] + " " + profession[0], company(pick(companyWeights)),
+                String.join(", ", requirements), salary(levelIndex));
+    }
+
+    public Manager nextManager() {
+        long index = managerCount++;
+        return new Manager("Менеджер " + FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                + LAST_NAMES[random.nextInt(LAST_NAMES.length)], keyPrefix + String.format("M%05d", index));
+    }
+
+    public List<Unemployed> unemployed(int count) {
+        List<Unemployed> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(nextUnemployed());
+        }
+        return result;
+    }
+
+    public List<Vacancy> vacancies(int count) {
+        List<Vacancy> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(nextVacancy());
+        }
+        return result;
+    }
+
+    public List<Manager> managers(int count) {
+        List<Manager> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(nextManager());
+        }
+        return result;
+    }
+
+    /**
+     * Спеціальність, поширена серед згенерованих записів, - для пошукових запитів
+     */
+    public String nextSpecialtyQuery() {
+        String title = PROFESSIONS[pick(professionWeights)][0];
+        String[] words = title.split(" ");
+        return words[random.nextInt(words.length)];
+    }
+
+    private int age() {
+        int age = (int) Math.round(36 + random.nextGaussian() * 11);
+        return Math.max(18, Math.min(65, age));
+    }
+
+    // Логнормальна зарплата, медіана росте з рівнем; округлена до 500 грн
+    private double salary(int levelIndex) {
+        double median = 15000 * (1 + 0.5 * levelIndex);
+        double salary = median * Math.exp(random.nextGaussian() * 0.45);
+        return Math.max(8000, Math.round(salary / 500) * 500.0);
+    }
+
+    private String company(int index) {
+        String root = COMPANY_ROOTS[index % COMPANY_ROOTS.length]
+                + COMPANY_ROOTS[index / COMPANY_ROOTS.length % COMPANY_ROOTS.length].toLowerCase();
+        String name = index < COMPANY_ROOTS.length * COMPANY_ROOTS.length ? root : root + " " + index;
+        return String.format(COMPANY_FORMS[index % COMPANY_FORMS.length], name);
+    }
+
+    // Накопичені ймовірності розподілу Ципфа з показником exponent
+    private static double[] zipf(int size, double exponent) {
+        double[] cumulative = new double[size];
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += 1.0 / Math.pow(i + 1, exponent);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < size; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+
+    private int pick(double[] cumulative) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+
+    /**
+     * Записує набір у каталог трьома файлами з полями через табуляцію
+     */
+    public static void write(Path directory, int unemployed, int vacancies, int managers, long seed) throws IOException {
+        Files.createDirectories(directory);
+        SyntheticData data = new SyntheticData(seed);
+        try (BufferedWriter out = Files.newBufferedWriter(directory.resolve(UNEMPLOYED_FILE), StandardCharsets.UTF_8)) {
+            for (int i = 0; i < unemployed; i++) {
+                Unemployed u = data.nextUnemployed();
+                writeLine(out, u.getFullName(), u.getAddress(), u.getPhone(), u.getSpecialty(),
+                        Integer.toString(u.getAge()), u.getEmail());
+            }
+        }
+        try (BufferedWriter out = Files.newBufferedWriter(directory.resolve(VACANCIES_FILE), StandardCharsets.UTF_8)) {
+            for (int i = 0; i < vacancies; i++) {
+                Vacancy v = data.nextVacancy();
+                writeLine(out, v.getId(), v.getPosition(), v.getCompany(), v.getRequirements(),
+                        Double.toString(v.getSalary()));
+            }
+        }
+        try (BufferedWriter out = Files.newBufferedWriter(directory.resolve(MANAGERS_FILE), StandardCharsets.UTF_8)) {
+            for (int i = 0; i < managers; i++) {
+                Manager m = data.nextManager();
+                writeLine(out, m.getName(), m.getEmployeeId());
+            }
+        }
+    }
+
+    public static List<Unemployed> readUnemployed(Path directory) throws IOException {
+        List<Unemployed> result = new ArrayList<>();
+        for (String[] f : readLines(directory.resolve(UNEMPLOYED_FILE), 6)) {
+            result.add(new Unemployed(f[0], f[1], f[2], f[3], Integer.parseInt(f[4]), f[5]));
+        }
+        return result;
+    }
+
+    public static List<Vacancy> readVacancies(Path directory) throws IOException {
+        List<Vacancy> result = new ArrayList<>();
+        for (String[] f : readLines(directory.resolve(VACANCIES_FILE), 5)) {
+            result.add(new Vacancy(f[0], f[1], f[2], f[3], Double.parseDouble(f[4])));
+        }
+        return result;
+    }
+
+    public static List<Manager> readManagers(Path directory) throws IOException {
+        List<Manager> result = new ArrayList<>();
+        for (String[] f : readLines(directory.resolve(MANAGERS_FILE), 2)) {
+            result.add(new Manager(f[0], f[1]));
+        }
+        return result;
+    }
+
+    private static void writeLine(BufferedWriter out, String... fields) throws IOException {
+        // Згенеровані поля не містять табуляцій і переносів рядка
+        out.write(String.join("\t", fields));
+        out.newLine();
+    }
+
+    private static List<String[]> readLines(Path file, int fields) throws IOException {
+        List<String[]> lines = new ArrayList<>();
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] values = line.split("\t", -1);
+                if (values.length != fields) {
+                    throw new IOException("Очікувалось " + fields + " полів у " + file + ": " + line);
+                }
+                lines.add(values);
+            }
+        }
+        return lines;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4) {
+            System.err.println("Використання: SyntheticData <каталог> <безробітних> <вакансій> <менеджерів> [seed]");
+            System.exit(1);
+        }
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 42;
+        long start = System.nanoTime();
+        write(Paths.get(args[0]), Integer.parseInt(args[1]), Integer.parseInt(args[2]), Integer.parseInt(args[3]), seed);
+        System.out.printf("Набір записано в %s за %.1f с%n", args[0], (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,145 @@
+package main.laborexchange;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Реєстр записів, що лише доповнюється. Додавання синхронізовані між собою,
+ * а читання за позицією не блокуються: елемент записується до того, як
+ * оновлюється volatile розмір, тож кожна видима позиція вже заповнена.
+ *
+ * Реєстр, відновлений зі знімка, починається з записів, які ще не завантажені:
+ * кожен з них завантажується при першому зверненні до його позиції. Якщо два
+ * потоки завантажують один запис одночасно, в реєстрі лишається той, що записаний першим.
+ */
+final class AppendOnlyList<T> {
+    private static final int CHUNK_BITS = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final VarHandle ITEMS = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    private volatile Object[][] chunks;
+    private volatile int size;
+    // Завантажує записи перших позицій, відновлених зі знімка (null - таких немає)
+    private final IntFunction<? extends T> loader;
+
+    AppendOnlyList() {
+        this.chunks = new Object[1][];
+        this.loader = null;
+    }
+
+    /**
+     * Реєстр з count записів, що завантажуються loader при першому зверненні до позиції
+     */
+    AppendOnlyList(int count, IntFunction<? extends T> loader) {
+        this.loader = Objects.requireNonNull(loader);
+        Object[][] reserved = new Object[Math.max(1, (count + CHUNK_MASK) >>> CHUNK_BITS)][];
+        for (int chunk = 0; chunk << CHUNK_BITS < count; chunk++) {
+            reserved[chunk] = new Object[CHUNK_SIZE];
+        }
+        this.chunks = reserved;
+        this.size = count;
+    }
+
+    /**
+     * Додає запис і повертає його позицію
+     */
+    synchronized int add(T item) {
+        int position = size;
+        store(position, item);
+        size = position + 1;
+        return position;
+    }
+
+    /**
+     * Додає записи одним кроком і повертає позицію першого з них
+     */
+    synchronized int addAll(List<? extends T> items) {
+        int first = size;
+        for (int i = 0; i < items.size(); i++) {
+            store(first + i, items.get(i));
+        }
+        size = first + items.size();
+        return first;
+    }
+
+    @SuppressWarnings("unchecked")
+    T get(int position) {
+        Object[] chunk = chunks[position >>> CHUNK_BITS];
+        Object item = ITEMS.getAcquire(chunk, position & CHUNK_MASK);
+        return (T) (item != null ? item : load(chunk, position));
+    }
+
+    /**
+     * Запис на позиції, якщо він уже завантажений, інакше null
+     */
+    @SuppressWarnings("unchecked")
+    T getIfLoaded(int position) {
+        return (T) ITEMS.getAcquire(chunks[position >>> CHUNK_BITS], position & CHUNK_MASK);
+    }
+
+    private Object load(Object[] chunk, int position) {
+        Object loaded = loader.apply(position);
+        Object winner = ITEMS.compareAndExchange(chunk, position & CHUNK_MASK, null, loaded);
+        return winner != null ? winner : loaded;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Потік записів, видимих на момент виклику, у порядку додавання
+     */
+    Stream<T> stream() {
+        return IntStream.range(0, size).mapToObj(this::get);
+    }
+
+    /**
+     * Незмінний список записів, видимих на момент виклику
+     */
+    List<T> snapshot() {
+        return new Snapshot(size);
+    }
+
+    // RandomAccess дає паралельним потокам рівномірний поділ за індексами
+    private final class Snapshot extends AbstractList<T> implements RandomAccess {
+        private final int count;
+
+        Snapshot(int count) {
+            this.count = count;
+        }
+
+        @Override
+        public T get(int index) {
+            Objects.checkIndex(index, count);
+            return AppendOnlyList.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+    }
+
+    private void store(int position, T item) {
+        int chunk = position >>> CHUNK_BITS;
+        Object[][] current = chunks;
+        if (chunk == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+        }
+        if (current[chunk] == null) {
+            current[chunk] = new Object[CHUNK_SIZE];
+        }
+        current[chunk][position & CHUNK_MASK] = item;
+        chunks = current;
+    }
+}
@@ -0,0 +1,48 @@
+package main.laborexchange;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Результат масового працевлаштування за максимальним паросполученням
+ */
+public class AssignmentResult {
+    private final Map<Unemployed, Vacancy> assignments;
+    private final int greedyPlacements;
+    private final int candidateCount;
+    private final int vacancyCount;
+    private final long edgeCount;
+    private final long elapsedNanos;
+
+    AssignmentResult(Map<Unemployed, Vacancy> assignments, int greedyPlacements, int candidateCount,
+                     int vacancyCount, long edgeCount, long elapsedNanos) {
+        this.assignments = Collections.unmodifiableMap(assignments);
+        this.greedyPlacements = greedyPlacements;
+        this.candidateCount = candidateCount;
+        this.vacancyCount = vacancyCount;
+        this.edgeCount = edgeCount;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    // Геттери
+    public Map<Unemployed, Vacancy> getAssignments() { return assignments; }
+    public int getPlacements() { return assignments.size(); }
+    public int getGreedyPlacements() { return greedyPlacements; }
+    public int getCandidateCount() { return candidateCount; }
+    public int getVacancyCount() { return vacancyCount; }
+    public long getEdgeCount() { return edgeCount; }
+    public long getElapsedNanos() { return elapsedNanos; }
+
+    /**
+     * Скільки працевлаштувань додало паросполучення порівняно з жадібним підходом
+     */
+    public int getGainOverGreedy() {
+        return assignments.size() - greedyPlacements;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AssignmentResult{placements=%d, greedy=%d, candidates=%d, vacancies=%d, edges=%d, time=%.1f ms}",
+                assignments.size(), greedyPlacements, candidateCount, vacancyCount, edgeCount, elapsedNanos / 1e6);
+    }
+}
@@ -0,0 +1,68 @@
+package main.laborexchange;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.ToIntFunction;
+
+/**
+ * Кількість зареєстрованих записів за ключем (email безробітного чи id вакансії)
+ * для перевірки дублікатів. Кожна зміна одного ключа атомарна в межах його комірки
+ * ConcurrentHashMap, тож з двох одночасних реєстрацій того самого ключа пройде одна.
+ *
+ * Система, відновлена зі знімка, бере початкові кількості з таблиці знімка й тримає
+ * в пам'яті лише зміни після відновлення.
+ */
+final class CountedKeys {
+    // Кількість ключа на момент відновлення
+    private final ToIntFunction<String> base;
+    // Зміна кількості після відновлення; нульових змін тут немає
+    private final ConcurrentMap<String, Integer> changes = new ConcurrentHashMap<>();
+
+    CountedKeys() {
+        this(key -> 0);
+    }
+
+    CountedKeys(ToIntFunction<String> base) {
+        this.base = base;
+    }
+
+    /**
+     * Займає ключ, якого ще не має жоден запис; повертає false, якщо він уже зайнятий
+     */
+    boolean claim(String key) {
+        int initial = base.applyAsInt(key);
+        if (initial == 0) {
+            // Без записів зі знімка кількість не буває від'ємною, тож зміна - це вся кількість
+            return changes.putIfAbsent(key, 1) == null;
+        }
+        boolean[] claimed = new boolean[1];
+        changes.compute(key, (k, change) -> {
+            int current = change != null ? change : 0;
+            if (initial + current > 0) {
+                return change;
+            }
+            claimed[0] = true;
+            return nonZero(current + 1);
+        });
+        return claimed[0];
+    }
+
+    void increment(String key) {
+        changes.merge(key, 1, (a, b) -> nonZero(a + b));
+    }
+
+    /**
+     * Зменшує кількість ключа, якщо вона ще не нульова
+     */
+    void decrement(String key) {
+        int initial = base.applyAsInt(key);
+        changes.compute(key, (k, change) -> {
+            int current = change != null ? change : 0;
+            return initial + current > 0 ? nonZero(current - 1) : change;
+        });
+    }
+
+    private static Integer nonZero(int change) {
+        return change != 0 ? change : null;
+    }
+}
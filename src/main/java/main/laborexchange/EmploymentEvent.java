@@ -0,0 +1,50 @@
+package main.laborexchange;
+
+import java.time.Instant;
+
+/**
+ * Подія працевлаштування безробітного або закриття вакансії з часом, коли її зафіксувала система
+ */
+public final class EmploymentEvent {
+
+    public enum Type {
+        EMPLOYED,
+        VACANCY_CLOSED
+    }
+
+    private final Type type;
+    private final long timestamp;
+    // Порядковий номер розрізняє події з однаковим часом
+    private final long sequence;
+    private final Unemployed unemployed;
+    private final Vacancy vacancy;
+
+    EmploymentEvent(Type type, long timestamp, long sequence, Unemployed unemployed, Vacancy vacancy) {
+        this.type = type;
+        this.timestamp = timestamp;
+        this.sequence = sequence;
+        this.unemployed = unemployed;
+        this.vacancy = vacancy;
+    }
+
+    public Type getType() { return type; }
+    public Instant getTime() { return Instant.ofEpochMilli(timestamp); }
+    long getTimestamp() { return timestamp; }
+    long getSequence() { return sequence; }
+
+    /**
+     * Працевлаштований (для події EMPLOYED), інакше null
+     */
+    public Unemployed getUnemployed() { return unemployed; }
+
+    /**
+     * Закрита вакансія (для події VACANCY_CLOSED), інакше null
+     */
+    public Vacancy getVacancy() { return vacancy; }
+
+    @Override
+    public String toString() {
+        return String.format("EmploymentEvent{type=%s, time=%s, %s}", type, getTime(),
+                type == Type.EMPLOYED ? unemployed : vacancy);
+    }
+}
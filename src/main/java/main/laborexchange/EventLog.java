@@ -0,0 +1,51 @@
+package main.laborexchange;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Журнал подій, впорядкований за часом. Вибірка за проміжком переглядає
+ * лише події цього проміжку: O(log n + k), де k - кількість подій у ньому.
+ */
+final class EventLog {
+    private static final Comparator<EmploymentEvent> ORDER = Comparator
+            .comparingLong(EmploymentEvent::getTimestamp)
+            .thenComparingLong(EmploymentEvent::getSequence);
+
+    private final NavigableSet<EmploymentEvent> events = new ConcurrentSkipListSet<>(ORDER);
+    private final AtomicLong sequence = new AtomicLong();
+
+    void record(EmploymentEvent.Type type, long timestamp, Unemployed unemployed, Vacancy vacancy) {
+        events.add(new EmploymentEvent(type, timestamp, sequence.getAndIncrement(), unemployed, vacancy));
+    }
+
+    /**
+     * Події з часом у проміжку [from, to) у порядку часу
+     */
+    List<EmploymentEvent> range(long from, long to) {
+        if (from >= to) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(events.subSet(bound(from), true, bound(to), false));
+    }
+
+    /**
+     * Усі події в порядку часу
+     */
+    List<EmploymentEvent> all() {
+        return new ArrayList<>(events);
+    }
+
+    int size() {
+        return events.size();
+    }
+
+    // Межа, менша за будь-яку справжню подію з тим самим часом
+    private static EmploymentEvent bound(long timestamp) {
+        return new EmploymentEvent(null, timestamp, Long.MIN_VALUE, null, null);
+    }
+}
@@ -0,0 +1,136 @@
+package main.laborexchange;
+
+import java.util.Arrays;
+
+/**
+ * Максимальне паросполучення у двочастковому графі "кандидат - вакансія" (алгоритм Хопкрофта-Карпа).
+ * Граф задається списками суміжності у стиснутому вигляді: сусіди лівої вершини u
+ * лежать у edges[offsets[u] .. offsets[u + 1]).
+ */
+final class HopcroftKarp {
+    private static final int FREE = -1;
+    private static final int INFINITY = Integer.MAX_VALUE;
+
+    private final int leftCount;
+    private final int[] offsets;
+    private final int[] edges;
+    private final int[] matchLeft;
+    private final int[] matchRight;
+    private final int[] distance;
+    private int greedySize;
+
+    HopcroftKarp(int leftCount, int rightCount, int[] offsets, int[] edges) {
+        this.leftCount = leftCount;
+        this.offsets = offsets;
+        this.edges = edges;
+        this.matchLeft = new int[leftCount];
+        this.matchRight = new int[rightCount];
+        this.distance = new int[leftCount];
+        Arrays.fill(matchLeft, FREE);
+        Arrays.fill(matchRight, FREE);
+    }
+
+    /**
+     * Знаходить максимальне паросполучення; повертає для кожної лівої вершини праву або -1
+     */
+    int[] solve() {
+        greedy();
+        int[] queue = new int[leftCount];
+        int[] next = new int[leftCount];
+        int[] stack = new int[leftCount];
+        while (buildLayers(queue)) {
+            for (int u = 0; u < leftCount; u++) {
+                next[u] = offsets[u];
+            }
+            for (int u = 0; u < leftCount; u++) {
+                if (matchLeft[u] == FREE) {
+                    augment(u, next, stack);
+                }
+            }
+        }
+        return matchLeft;
+    }
+
+    /**
+     * Кількість пар, які дало жадібне початкове паросполучення
+     */
+    int getGreedySize() {
+        return greedySize;
+    }
+
+    // Кожен кандидат по черзі бере першу вільну вакансію - так працює попарне працевлаштування
+    private void greedy() {
+        for (int u = 0; u < leftCount; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = edges[e];
+                if (matchRight[v] == FREE) {
+                    matchLeft[u] = v;
+                    matchRight[v] = u;
+                    greedySize++;
+                    break;
+                }
+            }
+        }
+    }
+
+    // Пошук у ширину від вільних кандидатів: шари для найкоротших шляхів, що чергуються
+    private boolean buildLayers(int[] queue) {
+        int head = 0;
+        int tail = 0;
+        for (int u = 0; u < leftCount; u++) {
+            if (matchLeft[u] == FREE) {
+                distance[u] = 0;
+                queue[tail++] = u;
+            } else {
+                distance[u] = INFINITY;
+            }
+        }
+
+        boolean found = false;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int w = matchRight[edges[e]];
+                if (w == FREE) {
+                    found = true;
+                } else if (distance[w] == INFINITY) {
+                    distance[w] = distance[u] + 1;
+                    queue[tail++] = w;
+                }
+            }
+        }
+        return found;
+    }
+
+    // Ітеративний пошук у глибину по шарах; стек замість рекурсії для довгих шляхів
+    private void augment(int root, int[] next, int[] stack) {
+        int depth = 0;
+        stack[depth++] = root;
+        while (depth > 0) {
+            int u = stack[depth - 1];
+            if (next[u] == offsets[u + 1]) {
+                // Глухий кут: виключаємо вершину з цієї фази
+                distance[u] = INFINITY;
+                depth--;
+                continue;
+            }
+            int v = edges[next[u]];
+            int w = matchRight[v];
+            if (w == FREE) {
+                // Знайдено шлях до вільної вакансії - перемикаємо пари вздовж нього
+                for (int i = depth - 1; i >= 0; i--) {
+                    int left = stack[i];
+                    int right = edges[next[left]];
+                    matchLeft[left] = right;
+                    matchRight[right] = left;
+                }
+                return;
+            }
+            if (distance[w] == distance[u] + 1) {
+                stack[depth++] = w;
+            } else {
+                next[u]++;
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package main.laborexchange;
+
+/**
+ * Результат імпорту одного запису при пакетному завантаженні
+ */
+public enum ImportResult {
+    /** Запис додано до реєстру */
+    ACCEPTED,
+    /** Запис не пройшов перевірку isValid() */
+    INVALID,
+    /** Запис з таким email чи id вже є в реєстрі або раніше у пакеті */
+    DUPLICATE
+}
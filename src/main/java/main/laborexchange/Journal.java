@@ -0,0 +1,538 @@
+package main.laborexchange;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntFunction;
+import java.util.zip.CRC32;
+
+/**
+ * Журнал операцій біржі, що лише доповнюється. Кожен запис - це
+ * [довжина][CRC32][тип][поля] у двійковому вигляді; рядки зберігаються як UTF-8 з довжиною.
+ * Записи безробітних і вакансій мають незмінні ключі, які система видає при реєстрації;
+ * працевлаштування, звіти й зміни email посилаються на записи за ними.
+ *
+ * У режимі GROUP_COMMIT записи потоків, що прийшли, поки триває синхронізація з диском,
+ * накопичуються і скидаються наступною однією синхронізацією (group commit).
+ * Метод запису повертається лише тоді, коли його запис уже на диску.
+ */
+public final class Journal implements Closeable {
+
+    public enum SyncMode {
+        /** Окрема синхронізація з диском для кожного запису */
+        EVERY_WRITE,
+        /** Одна синхронізація на всі записи, що накопичились за час попередньої */
+        GROUP_COMMIT
+    }
+
+    private static final byte ADD_UNEMPLOYED = 1;
+    private static final byte ADD_VACANCY = 2;
+    private static final byte ADD_MANAGER = 3;
+    private static final byte ADD_REPORT = 4;
+    private static final byte EMPLOY = 5;
+    private static final byte SET_EMAIL = 6;
+    private static final int HEADER_SIZE = 8;
+    private static final int MAX_RECORD_SIZE = 64 << 20;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final SyncMode mode;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushed = lock.newCondition();
+    // Записи, що чекають на наступну синхронізацію
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private long appended;
+    private long durable;
+    // Зміщення кінця останнього дописаного запису, разом з тими, що ще чекають синхронізації
+    private long end;
+    private boolean flushing;
+    private IOException failure;
+    private boolean closed;
+    private long syncCount;
+
+    private Journal(Path path, FileChannel channel, SyncMode mode) {
+        this.path = path;
+        this.channel = channel;
+        this.mode = mode;
+    }
+
+    /**
+     * Відкриває (або створює) журнал у файлі
+     */
+    static Journal open(Path path, SyncMode mode) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new Journal(path, channel, mode);
+    }
+
+    public Path getPath() { return path; }
+    public SyncMode getSyncMode() { return mode; }
+
+    /**
+     * Зміщення у файлі, до якого журнал містить усі вже дописані записи
+     */
+    long position() {
+        lock.lock();
+        try {
+            return end;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Скільки разів журнал синхронізувався з диском
+     */
+    public long getSyncCount() {
+        lock.lock();
+        try {
+            return syncCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Записує нових безробітних з ключами firstKey, firstKey + 1, ... і тими email,
+     * під якими система їх зареєструвала
+     */
+    void logUnemployed(List<Unemployed> batch, List<String> emails, int firstKey) {
+        Frames frames = new Frames();
+        for (int i = 0; i < batch.size(); i++) {
+            Unemployed u = batch.get(i);
+            frames.begin(ADD_UNEMPLOYED);
+            frames.writeInt(firstKey + i);
+            frames.writeString(u.getFullName());
+            frames.writeString(u.getAddress());
+            frames.writeString(u.getPhone());
+            frames.writeString(u.getSpecialty());
+            frames.writeInt(u.getAge());
+            frames.writeString(emails.get(i));
+            frames.writeBoolean(u.isEmployed());
+            frames.end();
+        }
+        commit(frames.toByteArray());
+    }
+
+    void logVacancies(List<Vacancy> batch, int firstKey) {
+        Frames frames = new Frames();
+        for (int i = 0; i < batch.size(); i++) {
+            Vacancy v = batch.get(i);
+            frames.begin(ADD_VACANCY);
+            frames.writeInt(firstKey + i);
+            frames.writeString(v.getId());
+            frames.writeString(v.getPosition());
+            frames.writeString(v.getCompany());
+            frames.writeString(v.getRequirements());
+            frames.writeDouble(v.getSalary());
+            frames.writeBoolean(v.isActive());
+            frames.end();
+        }
+        commit(frames.toByteArray());
+    }
+
+    void logManager(Manager manager) {
+        Frames frames = new Frames();
+        frames.begin(ADD_MANAGER);
+        frames.writeString(manager.getName());
+        frames.writeString(manager.getEmployeeId());
+        frames.end();
+        commit(frames.toByteArray());
+    }
+
+    /**
+     * Записує звіт з ключами його записів (-1 - запис не зареєстрований у системі)
+     */
+    void logReport(Report report, int[] employedKeys, int[] closedKeys) {
+        Frames frames = new Frames();
+        frames.begin(ADD_REPORT);
+        frames.writeString(report.getReportId());
+        frames.writeLong(report.getReportDate().getTime());
+        frames.writeInts(employedKeys);
+        frames.writeInts(closedKeys);
+        frames.end();
+        commit(frames.toByteArray());
+    }
+
+    void logEmployment(int unemployedKey, int vacancyKey, long timestamp) {
+        Frames frames = new Frames();
+        frames.begin(EMPLOY);
+        frames.writeInt(unemployedKey);
+        frames.writeInt(vacancyKey);
+        frames.writeLong(timestamp);
+        frames.end();
+        commit(frames.toByteArray());
+    }
+
+    void logEmailChange(int unemployedKey, String email) {
+        Frames frames = new Frames();
+        frames.begin(SET_EMAIL);
+        frames.writeInt(unemployedKey);
+        frames.writeString(email);
+        frames.end();
+        commit(frames.toByteArray());
+    }
+
+    /**
+     * Дописує записи і чекає, поки вони потраплять на диск
+     */
+    private void commit(byte[] records) {
+        lock.lock();
+        try {
+            checkUsable();
+            end += records.length;
+            if (mode == SyncMode.EVERY_WRITE) {
+                // Запис і синхронізація під блокуванням: рівно одна синхронізація на запис
+                try {
+                    write(records);
+                    syncCount++;
+                } catch (IOException e) {
+                    failure = e;
+                    checkUsable();
+                }
+                return;
+            }
+
+            pending.write(records, 0, records.length);
+            long sequence = ++appended;
+            while (durable < sequence) {
+                checkUsable();
+                if (flushing) {
+                    // Синхронізацію вже виконує інший потік - наш запис піде наступною
+                    flushed.awaitUninterruptibly();
+                } else {
+                    flush();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Викликається під lock; сам запис на диск виконується без нього
+    private void flush() {
+        flushing = true;
+        ByteArrayOutputStream batch = pending;
+        long batchEnd = appended;
+        pending = new ByteArrayOutputStream();
+        lock.unlock();
+        IOException error = null;
+        try {
+            write(batch.toByteArray());
+        } catch (IOException e) {
+            error = e;
+        } finally {
+            lock.lock();
+        }
+        flushing = false;
+        if (error != null) {
+            // Після невдалої синхронізації стан файлу невідомий - журнал більше не приймає записів
+            failure = error;
+        } else {
+            durable = batchEnd;
+            syncCount++;
+        }
+        flushed.signalAll();
+    }
+
+    private void write(byte[] records) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(records);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+    }
+
+    private void checkUsable() {
+        if (failure != null) {
+            throw new UncheckedIOException("Журнал недоступний після помилки запису", failure);
+        }
+        if (closed) {
+            throw new IllegalStateException("Журнал закрито");
+        }
+    }
+
+    /**
+     * Відтворює всі цілі записи журналу в системі. Недописаний або пошкоджений
+     * хвіст (наприклад після збою посеред запису) відрізається. Працевлаштування
+     * невідомого запису - теж пошкодження, але не хвоста: відтворення зупиняється винятком.
+     */
+    void replay(LaborExchangeSystem system) throws IOException {
+        replay(system, 0);
+    }
+
+    /**
+     * Відтворює записи, що починаються зі зміщення from, у системі, відновленій
+     * зі знімка на цій позиції журналу. Записи, додані раніше, система вже містить,
+     * і посилання на них шукаються в її реєстрах.
+     */
+    void replay(LaborExchangeSystem system, long from) throws IOException {
+        if (from < 0 || from > channel.size()) {
+            throw new IOException("Журнал " + path + " коротший за позицію " + from + ", з якої його треба відтворити");
+        }
+        Records<Unemployed> unemployedByKey = new Records<>(system::restoredUnemployed);
+        Records<Vacancy> vacancyByKey = new Records<>(system::restoredVacancy);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Channels.newInputStream(channel.position(from))));
+        long validEnd = from;
+        while (true) {
+            byte[] payload = readRecord(in);
+            if (payload == null) {
+                break;
+            }
+            apply(new DataInputStream(new ByteArrayInputStream(payload)), system,
+                    unemployedByKey, vacancyByKey);
+            validEnd += HEADER_SIZE + payload.length;
+        }
+        channel.truncate(validEnd);
+        channel.position(validEnd);
+        lock.lock();
+        try {
+            end = validEnd;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Повертає null на кінці файлу або на першому неповному чи пошкодженому записі
+    private static byte[] readRecord(DataInputStream in) throws IOException {
+        try {
+            int length = in.readInt();
+            int checksum = in.readInt();
+            if (length <= 0 || length > MAX_RECORD_SIZE) {
+                return null;
+            }
+            byte[] payload = new byte[length];
+            in.readFully(payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            return (int) crc.getValue() == checksum ? payload : null;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    private static void apply(DataInputStream in, LaborExchangeSystem system,
+                              Records<Unemployed> unemployedByKey,
+                              Records<Vacancy> vacancyByKey) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case ADD_UNEMPLOYED: {
+                int key = in.readInt();
+                Unemployed u = new Unemployed(readString(in), readString(in), readString(in),
+                        readString(in), in.readInt(), readString(in));
+                u.setEmployed(in.readBoolean());
+                if (system.replayUnemployed(u, key)) {
+                    unemployedByKey.put(key, u);
+                }
+                break;
+            }
+            case ADD_VACANCY: {
+                int key = in.readInt();
+                Vacancy v = new Vacancy(readString(in), readString(in), readString(in),
+                        readString(in), in.readDouble());
+                v.setActive(in.readBoolean());
+                if (system.replayVacancy(v, key)) {
+                    vacancyByKey.put(key, v);
+                }
+                break;
+            }
+            case ADD_MANAGER:
+                system.addManager(new Manager(readString(in), readString(in)));
+                break;
+            case ADD_REPORT: {
+                String reportId = readString(in);
+                Date reportDate = new Date(in.readLong());
+                int employedCount = in.readInt();
+                List<Unemployed> employed = new ArrayList<>(employedCount);
+                for (int i = 0; i < employedCount; i++) {
+                    Unemployed u = unemployedByKey.get(in.readInt());
+                    if (u != null) {
+                        employed.add(u);
+                    }
+                }
+                int closedCount = in.readInt();
+                List<Vacancy> closed = new ArrayList<>(closedCount);
+                for (int i = 0; i < closedCount; i++) {
+                    Vacancy v = vacancyByKey.get(in.readInt());
+                    if (v != null) {
+                        closed.add(v);
+                    }
+                }
+                system.addReport(new Report(reportId, reportDate, employed, closed));
+                break;
+            }
+            case EMPLOY: {
+                int unemployedKey = in.readInt();
+                int vacancyKey = in.readInt();
+                Unemployed u = unemployedByKey.get(unemployedKey);
+                Vacancy v = vacancyByKey.get(vacancyKey);
+                long timestamp = in.readLong();
+                // Система пише ADD до журналу раніше, ніж запис можна працевлаштувати,
+                // тож посилання на невідомий запис означає пошкоджений журнал
+                if (u == null || v == null) {
+                    throw new IOException("Журнал пошкоджено: працевлаштування незареєстрованого запису "
+                            + (u == null ? "безробітного з ключем " + unemployedKey : "вакансії з ключем " + vacancyKey));
+                }
+                system.replayEmployment(u, v, timestamp);
+                break;
+            }
+            case SET_EMAIL: {
+                int key = in.readInt();
+                String email = readString(in);
+                Unemployed u = unemployedByKey.get(key);
+                if (u == null) {
+                    throw new IOException("Журнал пошкоджено: зміна email незареєстрованого безробітного з ключем " + key);
+                }
+                u.setEmail(email);
+                break;
+            }
+            default:
+                throw new IOException("Невідомий тип запису журналу: " + type);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            while (flushing) {
+                flushed.awaitUninterruptibly();
+            }
+            if (closed) {
+                return;
+            }
+            closed = true;
+            flushed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        channel.close();
+    }
+
+    /**
+     * Записи, додані під час відтворення, за ключем. Записи, що вже були в системі
+     * до відтворення (зі знімка), шукаються за таблицею ключів знімка, тож завантажуються
+     * лише ті з них, на які посилається журнал.
+     */
+    private static final class Records<T> {
+        private final Map<Integer, T> added = new HashMap<>();
+        private final IntFunction<T> restored;
+
+        Records(IntFunction<T> restored) {
+            this.restored = restored;
+        }
+
+        void put(int key, T record) {
+            added.put(key, record);
+        }
+
+        T get(int key) {
+            T record = added.get(key);
+            return record != null ? record : restored.apply(key);
+        }
+    }
+
+    /**
+     * Кадри записів: кожен запис пишеться в буфер, а потім отримує заголовок з довжиною і CRC
+     */
+    private static final class Frames {
+        private final ByteArrayOutputStream frames = new ByteArrayOutputStream();
+        private final ByteArrayOutputStream record = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(record);
+
+        void begin(byte type) {
+            record.reset();
+            record.write(type);
+        }
+
+        void end() {
+            byte[] payload = record.toByteArray();
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(payload.length).putInt((int) crc.getValue());
+            frames.write(header.array(), 0, HEADER_SIZE);
+            frames.write(payload, 0, payload.length);
+        }
+
+        byte[] toByteArray() {
+            return frames.toByteArray();
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeInt(bytes.length);
+            record.write(bytes, 0, bytes.length);
+        }
+
+        // Масив з довжиною
+        void writeInts(int[] values) {
+            writeInt(values.length);
+            for (int value : values) {
+                writeInt(value);
+            }
+        }
+
+        void writeBoolean(boolean value) {
+            record.write(value ? 1 : 0);
+        }
+
+        void writeInt(int value) {
+            try {
+                out.writeInt(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void writeLong(long value) {
+            try {
+                out.writeLong(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void writeDouble(double value) {
+            try {
+                out.writeDouble(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package main.laborexchange;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Інвертований індекс: ключове слово (або триграма) -> позиції записів у реєстрі системи.
+ * Зміни одного ключа виконуються атомарно в межах його комірки ConcurrentHashMap,
+ * тож потоки, що оновлюють різні ключі, не блокують один одного, а читання не блокуються.
+ *
+ * Індекс, відновлений зі знімка, тримає списки позицій готовими відсортованими масивами;
+ * подальші зміни такого списку накопичуються поруч із масивом, не перебудовуючи його.
+ */
+final class KeywordIndex {
+    private final ConcurrentMap<String, Set<Integer>> postings;
+
+    KeywordIndex() {
+        this.postings = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Індекс з готових списків: ключ -> позиції в порядку зростання
+     */
+    KeywordIndex(Map<String, int[]> frozen) {
+        this.postings = new ConcurrentHashMap<>(Math.max(16, frozen.size() * 4 / 3 + 1));
+        for (Map.Entry<String, int[]> entry : frozen.entrySet()) {
+            postings.put(entry.getKey(), new FrozenPositions(entry.getValue()));
+        }
+    }
+
+    /**
+     * Додає запис під усіма його ключовими словами
+     */
+    void add(int position, Collection<String> keywords) {
+        for (String keyword : keywords) {
+            postings.compute(keyword, (k, positions) -> {
+                Set<Integer> updated = positions != null ? positions : ConcurrentHashMap.newKeySet();
+                updated.add(position);
+                return updated;
+            });
+        }
+    }
+
+    /**
+     * Додає пакет записів: кожен список позицій поповнюється один раз
+     */
+    void addAll(Batch batch) {
+        for (Map.Entry<String, List<Integer>> entry : batch.postings.entrySet()) {
+            postings.compute(entry.getKey(), (k, positions) -> {
+                // Новий список одразу потрібного розміру, без поступового розширення
+                Set<Integer> updated = positions != null ? positions
+                        : ConcurrentHashMap.newKeySet(entry.getValue().size());
+                updated.addAll(entry.getValue());
+                return updated;
+            });
+        }
+    }
+
+    /**
+     * Видаляє запис з-під усіх його ключових слів
+     */
+    void remove(int position, Collection<String> keywords) {
+        for (String keyword : keywords) {
+            postings.computeIfPresent(keyword, (k, positions) -> {
+                positions.remove(position);
+                return positions.isEmpty() ? null : positions;
+            });
+        }
+    }
+
+    /**
+     * Кількість записів під ключем
+     */
+    int count(String key) {
+        Set<Integer> positions = postings.get(key);
+        return positions != null ? positions.size() : 0;
+    }
+
+    /**
+     * Повертає позиції записів, що мають хоча б одне з ключових слів, у порядку зростання
+     */
+    int[] find(Collection<String> keywords) {
+        int[] result = new int[16];
+        int count = 0;
+        for (String keyword : keywords) {
+            Set<Integer> positions = postings.get(keyword);
+            if (positions instanceof FrozenPositions) {
+                // Готовий масив копіюється цілим, без перебору по одній позиції
+                int[] base = ((FrozenPositions) positions).live();
+                if (count + base.length > result.length) {
+                    result = Arrays.copyOf(result, Math.max(result.length * 2, count + base.length));
+                }
+                System.arraycopy(base, 0, result, count, base.length);
+                count += base.length;
+            } else if (positions != null) {
+                for (int position : positions) {
+                    if (count == result.length) {
+                        result = Arrays.copyOf(result, count * 2);
+                    }
+                    result[count++] = position;
+                }
+            }
+        }
+        // Запис може мати кілька ключових слів одразу - прибираємо повтори
+        return sortUnique(result, count);
+    }
+
+    /**
+     * Повертає позиції записів, що мають усі ключі одразу, у порядку зростання
+     */
+    int[] findAll(Collection<String> keys) {
+        List<Set<Integer>> lists = new ArrayList<>(keys.size());
+        Set<Integer> smallest = null;
+        for (String key : keys) {
+            Set<Integer> positions = postings.get(key);
+            if (positions == null) {
+                return new int[0];
+            }
+            lists.add(positions);
+            // Перебираємо найменший список, решту перевіряємо за належністю
+            if (smallest == null || positions.size() < smallest.size()) {
+                smallest = positions;
+            }
+        }
+        if (smallest == null) {
+            return new int[0];
+        }
+
+        int[] result = new int[16];
+        int count = 0;
+        for (int position : smallest) {
+            boolean inAll = true;
+            for (Set<Integer> positions : lists) {
+                if (positions != smallest && !positions.contains(position)) {
+                    inAll = false;
+                    break;
+                }
+            }
+            if (inAll) {
+                if (count == result.length) {
+                    result = Arrays.copyOf(result, count * 2);
+                }
+                result[count++] = position;
+            }
+        }
+        return sortUnique(result, count);
+    }
+
+    /**
+     * Розбиває текст на триграми (підрядки з трьох символів)
+     */
+    static Set<String> trigrams(String text) {
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            trigrams.add(text.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    /**
+     * Позиції пакета, згруповані за ключами
+     */
+    static final class Batch {
+        private final Map<String, List<Integer>> postings = new HashMap<>();
+
+        void add(int position, Collection<String> keys) {
+            for (String key : keys) {
+                postings.computeIfAbsent(key, k -> new ArrayList<>()).add(position);
+            }
+        }
+    }
+
+    /**
+     * Список позицій зі знімка: відсортований масив плюс зміни після відновлення.
+     * Позиції масиву, видалені з індексу, запам'ятовуються окремо, а додані поза
+     * масивом - у власній множині. Змінюється лише всередині compute свого ключа.
+     */
+    private static final class FrozenPositions extends AbstractSet<Integer> {
+        private final int[] base;
+        private final Set<Integer> added = ConcurrentHashMap.newKeySet();
+        private final Set<Integer> removed = ConcurrentHashMap.newKeySet();
+
+        FrozenPositions(int[] base) {
+            this.base = base;
+        }
+
+        private boolean inBase(int position) {
+            return Arrays.binarySearch(base, position) >= 0;
+        }
+
+        @Override
+        public boolean add(Integer position) {
+            return inBase(position) ? removed.remove(position) : added.add(position);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!(o instanceof Integer)) {
+                return false;
+            }
+            Integer position = (Integer) o;
+            return inBase(position) ? removed.add(position) : added.remove(position);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Integer)) {
+                return false;
+            }
+            Integer position = (Integer) o;
+            return inBase(position) ? !removed.contains(position) : added.contains(position);
+        }
+
+        @Override
+        public int size() {
+            return base.length - removed.size() + added.size();
+        }
+
+        /**
+         * Поточні позиції масивом; поки змін немає - сам масив зі знімка
+         */
+        int[] live() {
+            if (added.isEmpty() && removed.isEmpty()) {
+                return base;
+            }
+            int[] result = new int[base.length + added.size()];
+            int count = 0;
+            for (int position : base) {
+                if (!removed.contains(position)) {
+                    result[count++] = position;
+                }
+            }
+            for (int position : added) {
+                if (count == result.length) {
+                    result = Arrays.copyOf(result, count * 2);
+                }
+                result[count++] = position;
+            }
+            return Arrays.copyOf(result, count);
+        }
+
+        @Override
+        public Iterator<Integer> iterator() {
+            int[] positions = live();
+            return new Iterator<Integer>() {
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < positions.length;
+                }
+
+                @Override
+                public Integer next() {
+                    if (next == positions.length) {
+                        throw new NoSuchElementException();
+                    }
+                    return positions[next++];
+                }
+            };
+        }
+    }
+
+    /**
+     * Сортує перші count позицій і прибирає повтори
+     */
+    static int[] sortUnique(int[] positions, int count) {
+        Arrays.sort(positions, 0, count);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || positions[unique - 1] != positions[i]) {
+                positions[unique++] = positions[i];
+            }
+        }
+        return unique == positions.length ? positions : Arrays.copyOf(positions, unique);
+    }
+}
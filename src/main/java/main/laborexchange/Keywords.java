@@ -0,0 +1,322 @@
+package main.laborexchange;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * Розібрані ключові слова спеціальності для зіставлення з вимогами вакансій.
+ *
+ * Символи слова визначаються явно за Unicode - як {@code \w} з прапорцем
+ * {@link Pattern#UNICODE_CHARACTER_CLASS}: літери (Alphabetic), десяткові цифри,
+ * діакритичні знаки, з'єднувальна пунктуація (зокрема '_') і Join_Control. Слово
+ * з таких символів збігається з вимогами тоді й лише тоді, коли воно є окремою
+ * лексемою вимог - так само, як шаблон {@code .*\bслово\b.*} з цим прапорцем.
+ * Без прапорця {@code \b} залежить від версії JDK (з JDK 19 він враховує лише ASCII),
+ * тож на нього не покладаємось. Для слів з іншими символами (наприклад "c++" чи
+ * "node.js") лишається шаблон з тим самим прапорцем, скомпільований один раз.
+ */
+final class Keywords {
+    private static final int MIN_KEYWORD_LENGTH = 3;
+    private static final int CACHE_LIMIT = 10_000;
+    private static final Map<String, Keywords> CACHE = lru(CACHE_LIMIT);
+    private static final int TOKENS_CACHE_LIMIT = 100_000;
+    private static final Map<String, Tokens> TOKENS_CACHE = lru(TOKENS_CACHE_LIMIT);
+    private static final Keywords NONE = new Keywords(new String[0], new Pattern[0]);
+
+    private final String[] words;
+    private final Pattern[] patterns;
+    // Номери слів у словнику; обчислюються при першому зіставленні
+    private volatile WordIds wordIds;
+    // Обчислюється при першому зверненні; гонка лише повторить обчислення
+    private String normalized;
+
+    private Keywords(String[] words, Pattern[] patterns) {
+        this.words = words;
+        this.patterns = patterns;
+    }
+
+    /**
+     * Повертає розібрані ключові слова спеціальності (з кешу, якщо вони вже траплялися)
+     */
+    static Keywords of(String specialty) {
+        if (specialty == null) {
+            return NONE;
+        }
+        Keywords keywords = CACHE.get(specialty);
+        if (keywords == null) {
+            // Розбираємо поза блокуванням; гонка лише повторить розбір
+            keywords = parse(specialty);
+            CACHE.put(specialty, keywords);
+        }
+        return keywords;
+    }
+
+    private static Keywords parse(String specialty) {
+        List<String> words = new ArrayList<>();
+        List<Pattern> patterns = new ArrayList<>();
+        String specLower = specialty.toLowerCase().trim();
+
+        int start = 0;
+        int length = specLower.length();
+        while (start < length) {
+            // Роздільники ті самі, що й у "[,\\s]+"
+            while (start < length && isSeparator(specLower.charAt(start))) {
+                start++;
+            }
+            int end = start;
+            while (end < length && !isSeparator(specLower.charAt(end))) {
+                end++;
+            }
+            String keyword = specLower.substring(start, end);
+            if (keyword.length() >= MIN_KEYWORD_LENGTH) { // Ігноруємо короткі слова
+                if (isWord(keyword)) {
+                    words.add(keyword);
+                } else {
+                    patterns.add(Pattern.compile(".*\\b" + keyword + "\\b.*", Pattern.UNICODE_CHARACTER_CLASS));
+                }
+            }
+            start = end;
+        }
+        return new Keywords(words.toArray(new String[0]), patterns.toArray(new Pattern[0]));
+    }
+
+    /**
+     * Лексеми вимог: множина рядків для індексу й упорядковані номери словника для зіставлення.
+     * Вакансії з однаковими вимогами ділять один екземпляр.
+     */
+    static final class Tokens {
+        static final Tokens NONE = new Tokens(Collections.emptySet());
+
+        final Set<String> words;
+        final int[] ids;
+
+        private Tokens(Set<String> words) {
+            this.words = words;
+            this.ids = new int[words.size()];
+            int i = 0;
+            for (String word : words) {
+                ids[i++] = StringDictionary.id(word);
+            }
+            Arrays.sort(ids);
+        }
+
+        boolean contains(int id) {
+            return Arrays.binarySearch(ids, id) >= 0;
+        }
+    }
+
+    /**
+     * Лексеми вимог (з кешу, якщо такі вимоги вже траплялися)
+     */
+    static Tokens tokensOf(String requirements) {
+        if (requirements == null) {
+            return Tokens.NONE;
+        }
+        Tokens tokens = TOKENS_CACHE.get(requirements);
+        if (tokens == null) {
+            Set<String> words = tokenize(requirements);
+            tokens = words.isEmpty() ? Tokens.NONE : new Tokens(words);
+            TOKENS_CACHE.put(requirements, tokens);
+        }
+        return tokens;
+    }
+
+    /**
+     * Розбиває вимоги на лексеми у нижньому регістрі
+     */
+    static Set<String> tokenize(String requirements) {
+        if (requirements == null) {
+            return Collections.emptySet();
+        }
+        String reqLower = requirements.toLowerCase();
+        // Крапка у старому шаблоні не перетинала перенос рядка,
+        // тому багаторядкові вимоги не збігалися з жодним словом
+        if (hasLineTerminator(reqLower)) {
+            return Collections.emptySet();
+        }
+
+        Set<String> tokens = new HashSet<>();
+        int i = 0;
+        int length = reqLower.length();
+        while (i < length) {
+            while (i < length && !isWordChar(reqLower.codePointAt(i))) {
+                i += Character.charCount(reqLower.codePointAt(i));
+            }
+            int start = i;
+            while (i < length && isWordChar(reqLower.codePointAt(i))) {
+                i += Character.charCount(reqLower.codePointAt(i));
+            }
+            if (i > start) {
+                tokens.add(StringDictionary.intern(reqLower.substring(start, i)));
+            }
+        }
+        return Collections.unmodifiableSet(tokens);
+    }
+
+    /**
+     * Номери слів, що є в словнику. Слова запиту до словника не додаються: слова,
+     * якого там немає, немає й у жодних вимогах. Якщо якихось слів бракувало,
+     * номери шукаються знову, щойно до словника додано новий рядок.
+     */
+    private int[] wordIds() {
+        WordIds current = wordIds;
+        if (current == null || (!current.complete && current.generation != StringDictionary.generation())) {
+            current = new WordIds(words);
+            wordIds = current;
+        }
+        return current.ids;
+    }
+
+    private static final class WordIds {
+        final int generation;
+        final int[] ids;
+        final boolean complete;
+        // Тримає спільні екземпляри слів, щоб їхні номери не змінились
+        @SuppressWarnings("unused")
+        private final String[] shared;
+
+        WordIds(String[] words) {
+            // Лічильник читаємо до пошуку: рядок, доданий після, змінить його
+            generation = StringDictionary.generation();
+            String[] found = new String[words.length];
+            int[] foundIds = new int[words.length];
+            int count = 0;
+            for (String word : words) {
+                String value = StringDictionary.find(word);
+                if (value != null) {
+                    found[count] = value;
+                    foundIds[count++] = StringDictionary.id(value);
+                }
+            }
+            this.shared = Arrays.copyOf(found, count);
+            this.ids = Arrays.copyOf(foundIds, count);
+            this.complete = count == words.length;
+        }
+    }
+
+    /**
+     * Перевіряє чи збігається хоча б одне ключове слово з вимогами
+     */
+    boolean matches(Tokens requirementTokens, String requirements) {
+        for (int id : wordIds()) {
+            if (requirementTokens.contains(id)) {
+                return true;
+            }
+        }
+        if (patterns.length > 0 && requirements != null) {
+            String reqLower = requirements.toLowerCase();
+            for (Pattern pattern : patterns) {
+                if (pattern.matcher(reqLower).matches()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Повертає слова, які можна шукати за лексемами вимог
+     */
+    List<String> getWords() {
+        return Arrays.asList(words);
+    }
+
+    int getPatternCount() {
+        return patterns.length;
+    }
+
+    /**
+     * Чи збігається з вимогами шаблонне ключове слово з номером index
+     */
+    boolean matchesPattern(int index, String requirements) {
+        return requirements != null && patterns[index].matcher(requirements.toLowerCase()).matches();
+    }
+
+    /**
+     * Нормалізована форма: різні ключові слова в алфавітному порядку. Спеціальності
+     * з однаковою нормалізованою формою збігаються з тими самими вимогами.
+     */
+    String normalized() {
+        String result = normalized;
+        if (result == null) {
+            Set<String> keywords = new TreeSet<>(Arrays.asList(words));
+            for (Pattern pattern : patterns) {
+                keywords.add(pattern.pattern());
+            }
+            result = String.join(" ", keywords);
+            normalized = result;
+        }
+        return result;
+    }
+
+    /**
+     * Чи є серед ключових слів такі, що перевіряються лише шаблоном
+     */
+    boolean hasPatterns() {
+        return patterns.length > 0;
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == ',' || c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isWord(String keyword) {
+        int i = 0;
+        while (i < keyword.length()) {
+            int cp = keyword.codePointAt(i);
+            if (!isWordChar(cp)) {
+                return false;
+            }
+            i += Character.charCount(cp);
+        }
+        return true;
+    }
+
+    // Символ слова в сенсі \w з прапорцем UNICODE_CHARACTER_CLASS
+    private static boolean isWordChar(int cp) {
+        if (Character.isAlphabetic(cp) || Character.isDigit(cp)) {
+            return true;
+        }
+        switch (Character.getType(cp)) {
+            case Character.NON_SPACING_MARK:
+            case Character.ENCLOSING_MARK:
+            case Character.COMBINING_SPACING_MARK:
+            case Character.CONNECTOR_PUNCTUATION:
+                return true;
+            default:
+                return cp == '\u200C' || cp == '\u200D'; // Join_Control
+        }
+    }
+
+    /**
+     * Обмежений кеш, що при переповненні витісняє найдавніше використаний запис
+     */
+    private static <V> Map<String, V> lru(int limit) {
+        return Collections.synchronizedMap(new LinkedHashMap<String, V>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > limit;
+            }
+        });
+    }
+
+    private static boolean hasLineTerminator(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
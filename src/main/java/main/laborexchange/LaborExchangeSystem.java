@@ -1,91 +1,988 @@
 package main.laborexchange;
 
+import main.laborexchange.OperationMetrics.Operation;
+
+import javax.management.ObjectName;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 
+/**
+ * Біржа праці. Безпечна для використання з багатьох потоків: реєстри лише
+ * доповнюються і читаються без блокувань, індекси оновлюються атомарно за
+ * окремими ключами, а працевлаштування займає вакансію і кандидата через
+ * compare-and-set без спільного блокування.
+ */
+public class LaborExchangeSystem implements Closeable {
+    // Від скількох записів місячний звіт збирається паралельно
+    private static final int PARALLEL_REPORT_THRESHOLD = 100_000;
+    // Лінивий пошук переглядає реєстр, якщо збігом очікується хоча б кожен 64-й запис
+    private static final int LAZY_SCAN_DENSITY = 64;
 
-public class LaborExchangeSystem {
-    private List<Unemployed> unemployedList;
-    private List<Vacancy> vacancyList;
+    private AppendOnlyList<Unemployed> unemployedList;
+    private AppendOnlyList<Vacancy> vacancyList;
     private List<Manager> managers;
     private List<Report> reports;
+    // Email зареєстрованих безробітних та id вакансій (з кількістю) для перевірки дублікатів
+    private CountedKeys unemployedEmails;
+    private CountedKeys vacancyIds;
+    // Ключове слово вимог -> позиції активних вакансій у vacancyList
+    private KeywordIndex vacancyIndex;
+    // Ключове слово спеціальності -> позиції непрацевлаштованих у unemployedList
+    private KeywordIndex unemployedIndex;
+    // Непрацевлаштовані, чию спеціальність можна перевірити лише шаблоном
+    private Set<Integer> patternUnemployed;
+    // Триграма спеціальності в нижньому регістрі -> позиції непрацевлаштованих
+    private KeywordIndex specialtyTrigrams;
+    // Зарплати й статуси вакансій у стовпчиковому вигляді за позиціями у vacancyList
+    private VacancyColumns vacancyColumns;
+    // Активні вакансії за зарплатою від найвищої
+    private SalaryIndex salaryIndex;
+    // Лічильники статистики, що оновлюються разом зі станом записів
+    private LongAdder activeVacancyCount;
+    private LongAdder employedCount;
+    private volatile boolean consistencyCheck;
+    // Знімок, з якого відновлено реєстри (null - система не відновлювалась);
+    // його записи розкодовуються при першому зверненні
+    private Snapshot restoredFrom;
+    // Працевлаштування і закриття вакансій у порядку часу
+    private final Clock clock;
+    private final EventLog events;
+    // Час подій, що відтворюються з журналу (-1 - брати час з годинника)
+    private long replayTime = -1;
+    // Журнал операцій (null - система працює лише в пам'яті)
+    private volatile Journal journal;
+    // Наступні незмінні ключі записів: журнал і знімок посилаються на записи за ними,
+    // бо email змінюється сеттером, а позиція в реєстрі залежить від порядку реєстрації
+    private final AtomicInteger nextUnemployedKey = new AtomicInteger();
+    private final AtomicInteger nextVacancyKey = new AtomicInteger();
+    // Операції журналу виконуються під читанням, знімок фіксує свій вміст під записом
+    private final ReadWriteLock checkpoint = new ReentrantReadWriteLock();
+    // Спеціальність -> позиції відповідних активних вакансій
+    private final MatchCache matchCache = new MatchCache();
+    // Лічильники й затримки публічних операцій (за замовчуванням вимкнені)
+    private final OperationMetrics metrics = new OperationMetrics();
 
     public LaborExchangeSystem() {
-        this.unemployedList = new ArrayList<>();
-        this.vacancyList = new ArrayList<>();
+        this(Clock.systemDefaultZone());
+    }
+
+    /**
+     * Відкриває систему з журналом у файлі: відтворює вже записані операції,
+     * а далі записує кожну нову з груповою синхронізацією з диском
+     */
+    public static LaborExchangeSystem open(Path journalFile) throws IOException {
+        return open(journalFile, Journal.SyncMode.GROUP_COMMIT, Clock.systemDefaultZone());
+    }
+
+    public static LaborExchangeSystem open(Path journalFile, Journal.SyncMode syncMode, Clock clock)
+            throws IOException {
+        LaborExchangeSystem system = new LaborExchangeSystem(clock);
+        Journal journal = Journal.open(journalFile, syncMode);
+        try {
+            journal.replay(system);
+        } catch (IOException | RuntimeException e) {
+            journal.close();
+            throw e;
+        }
+        system.journal = journal;
+        return system;
+    }
+
+    /**
+     * Відкриває систему зі знімка й журналу: завантажує знімок і відтворює лише ті
+     * записи журналу, що йдуть після збереженої в знімку позиції, а далі записує
+     * кожну нову операцію до того самого журналу. Знімок має бути записаний системою,
+     * що вела цей журнал.
+     */
+    public static LaborExchangeSystem open(Path snapshotFile, Path journalFile) throws IOException {
+        return open(snapshotFile, journalFile, Journal.SyncMode.GROUP_COMMIT, Clock.systemDefaultZone());
+    }
+
+    public static LaborExchangeSystem open(Path snapshotFile, Path journalFile, Journal.SyncMode syncMode,
+                                           Clock clock) throws IOException {
+        Snapshot snapshot = Snapshot.open(snapshotFile);
+        long position = snapshot.getJournalPosition();
+        if (position < 0) {
+            throw new IOException("Знімок " + snapshotFile + " записано системою без журналу");
+        }
+        LaborExchangeSystem system = snapshot.restore(clock);
+        Journal journal = Journal.open(journalFile, syncMode);
+        try {
+            journal.replay(system, position);
+        } catch (IOException | RuntimeException e) {
+            journal.close();
+            throw e;
+        }
+        system.journal = journal;
+        return system;
+    }
+
+    /**
+     * Завантажує систему зі знімка, записаного {@link #writeSnapshot(Path)}
+     */
+    public static LaborExchangeSystem loadSnapshot(Path file) throws IOException {
+        return loadSnapshot(file, Clock.systemDefaultZone());
+    }
+
+    public static LaborExchangeSystem loadSnapshot(Path file, Clock clock) throws IOException {
+        return Snapshot.open(file).restore(clock);
+    }
+
+    /**
+     * Система, що позначає події часом і часовим поясом заданого годинника
+     */
+    public LaborExchangeSystem(Clock clock) {
+        this.clock = Objects.requireNonNull(clock);
+        this.events = new EventLog();
+        this.unemployedList = new AppendOnlyList<>();
+        this.vacancyList = new AppendOnlyList<>();
         this.managers = new ArrayList<>();
         this.reports = new ArrayList<>();
+        this.unemployedEmails = new CountedKeys();
+        this.vacancyIds = new CountedKeys();
+        this.vacancyIndex = new KeywordIndex();
+        this.unemployedIndex = new KeywordIndex();
+        this.patternUnemployed = ConcurrentHashMap.newKeySet();
+        this.specialtyTrigrams = new KeywordIndex();
+        this.vacancyColumns = new VacancyColumns();
+        this.salaryIndex = new SalaryIndex();
+        this.activeVacancyCount = new LongAdder();
+        this.employedCount = new LongAdder();
     }
 
 
 
     public boolean addUnemployed(Unemployed unemployed) {
-        if (unemployed != null && unemployed.isValid() &&
-                !unemployedList.contains(unemployed)) {
-            return unemployedList.add(unemployed);
+        return addUnemployed(unemployed, -1);
+    }
+
+    /**
+     * Повторює додавання безробітного з журналу з його записаним ключем
+     */
+    boolean replayUnemployed(Unemployed unemployed, int key) {
+        return addUnemployed(unemployed, key);
+    }
+
+    // key - ключ запису з журналу або -1 для нового
+    private boolean addUnemployed(Unemployed unemployed, int key) {
+        long timer = metrics.start();
+        try {
+            String email = unemployed != null ? unemployed.getEmail() : null;
+            // Email займається атомарно, тож з двох одночасних дублікатів пройде один
+            if (unemployed != null && unemployed.isValid() && unemployedEmails.claim(email)) {
+                int assigned = assignKeys(nextUnemployedKey, key, 1);
+                Lock logged = beginLogged();
+                try {
+                    logUnemployed(Collections.singletonList(unemployed), Collections.singletonList(email), assigned);
+                    UnemployedEntry entry = new UnemployedEntry(unemployedList.add(unemployed), assigned, email);
+                    unemployed.addListener(entry);
+                    entry.unemployedChanged(unemployed);
+                    entry.ready = true;
+                } finally {
+                    endLogged(logged);
+                }
+                return true;
+            }
+            return false;
+        } finally {
+            metrics.record(Operation.ADD_UNEMPLOYED, timer);
         }
-        return false;
     }
 
 
     public boolean addVacancy(Vacancy vacancy) {
-        if (vacancy != null && vacancy.isValid() &&
-                !vacancyList.contains(vacancy)) {
-            return vacancyList.add(vacancy);
+        return addVacancy(vacancy, -1);
+    }
+
+    /**
+     * Повторює додавання вакансії з журналу з її записаним ключем
+     */
+    boolean replayVacancy(Vacancy vacancy, int key) {
+        return addVacancy(vacancy, key);
+    }
+
+    private boolean addVacancy(Vacancy vacancy, int key) {
+        long timer = metrics.start();
+        try {
+            if (vacancy != null && vacancy.isValid() && vacancyIds.claim(vacancy.getId())) {
+                int assigned = assignKeys(nextVacancyKey, key, 1);
+                Lock logged = beginLogged();
+                try {
+                    logVacancies(Collections.singletonList(vacancy), assigned);
+                    VacancyEntry entry = new VacancyEntry(vacancyList.add(vacancy), assigned);
+                    vacancy.addListener(entry);
+                    entry.vacancyChanged(vacancy);
+                    entry.ready = true;
+                } finally {
+                    endLogged(logged);
+                }
+                return true;
+            }
+            return false;
+        } finally {
+            metrics.record(Operation.ADD_VACANCY, timer);
+        }
+    }
+
+    /**
+     * Пакетно додає безробітних: перевірка isValid() виконується паралельно,
+     * дублікати відсіюються за email одним проходом, а індекси оновлюються разом.
+     * Повертає результат для кожного запису в порядку пакета.
+     */
+    public List<ImportResult> addAllUnemployed(Collection<Unemployed> batch) {
+        long timer = metrics.start();
+        try {
+            Unemployed[] records = batch.toArray(new Unemployed[0]);
+            boolean[] valid = validate(records, Unemployed::isValid);
+
+            List<ImportResult> results = new ArrayList<>(records.length);
+            List<Unemployed> accepted = new ArrayList<>();
+            List<String> emails = new ArrayList<>();
+            for (int i = 0; i < records.length; i++) {
+                String email = valid[i] ? records[i].getEmail() : null;
+                if (!valid[i]) {
+                    results.add(ImportResult.INVALID);
+                } else if (!unemployedEmails.claim(email)) {
+                    results.add(ImportResult.DUPLICATE);
+                } else {
+                    results.add(ImportResult.ACCEPTED);
+                    accepted.add(records[i]);
+                    emails.add(email);
+                }
+            }
+
+            // Увесь пакет іде до журналу однією синхронізацією
+            int firstKey = assignKeys(nextUnemployedKey, -1, accepted.size());
+            Lock logged = beginLogged();
+            try {
+                logUnemployed(accepted, emails, firstKey);
+                registerUnemployed(accepted, emails, consecutive(firstKey, accepted.size()));
+            } finally {
+                endLogged(logged);
+            }
+            return results;
+        } finally {
+            metrics.record(Operation.ADD_ALL_UNEMPLOYED, timer);
+        }
+    }
+
+    /**
+     * Записує нових безробітних до журналу, поки їхні email уже зайняті, а самі записи
+     * ще не зареєстровані: працевлаштувати їх до кінця реєстрації неможливо, тож EMPLOY
+     * у журналі завжди йде після відповідного ADD. Якщо запис не вдався, email звільняються.
+     */
+    private void logUnemployed(List<Unemployed> accepted, List<String> emails, int firstKey) {
+        Journal journal = this.journal;
+        if (journal == null || accepted.isEmpty()) {
+            return;
+        }
+        try {
+            journal.logUnemployed(accepted, emails, firstKey);
+        } catch (RuntimeException e) {
+            for (String email : emails) {
+                unemployedEmails.decrement(email);
+            }
+            throw e;
+        }
+    }
+
+    // Додає записи, чиї email уже враховані, до реєстру та індексів
+    private void registerUnemployed(List<Unemployed> accepted, List<String> emails, int[] keys) {
+        int first = unemployedList.addAll(accepted);
+        UnemployedEntry[] entries = new UnemployedEntry[accepted.size()];
+        KeywordIndex.Batch keywords = new KeywordIndex.Batch();
+        KeywordIndex.Batch trigrams = new KeywordIndex.Batch();
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = new UnemployedEntry(first + i, keys[i], emails.get(i));
+            entries[i].prepare(accepted.get(i), keywords, trigrams);
+        }
+        unemployedIndex.addAll(keywords);
+        specialtyTrigrams.addAll(trigrams);
+
+        // Підписуємось після пакетного оновлення і звіряємо зміни, що могли статися тим часом
+        for (int i = 0; i < entries.length; i++) {
+            accepted.get(i).addListener(entries[i]);
+            entries[i].unemployedChanged(accepted.get(i));
+            entries[i].ready = true;
         }
-        return false;
     }
 
+    /**
+     * Пакетно додає вакансії: перевірка isValid() виконується паралельно,
+     * дублікати відсіюються за id одним проходом, а індекс оновлюється разом.
+     * Повертає результат для кожного запису в порядку пакета.
+     */
+    public List<ImportResult> addAllVacancies(Collection<Vacancy> batch) {
+        long timer = metrics.start();
+        try {
+            Vacancy[] records = batch.toArray(new Vacancy[0]);
+            boolean[] valid = validate(records, Vacancy::isValid);
+
+            List<ImportResult> results = new ArrayList<>(records.length);
+            List<Vacancy> accepted = new ArrayList<>();
+            for (int i = 0; i < records.length; i++) {
+                if (!valid[i]) {
+                    results.add(ImportResult.INVALID);
+                } else if (!vacancyIds.claim(records[i].getId())) {
+                    results.add(ImportResult.DUPLICATE);
+                } else {
+                    results.add(ImportResult.ACCEPTED);
+                    accepted.add(records[i]);
+                }
+            }
+
+            int firstKey = assignKeys(nextVacancyKey, -1, accepted.size());
+            Lock logged = beginLogged();
+            try {
+                logVacancies(accepted, firstKey);
+                registerVacancies(accepted, consecutive(firstKey, accepted.size()));
+            } finally {
+                endLogged(logged);
+            }
+            return results;
+        } finally {
+            metrics.record(Operation.ADD_ALL_VACANCIES, timer);
+        }
+    }
+
+    /**
+     * Записує нові вакансії до журналу до їхньої реєстрації, як і logUnemployed;
+     * якщо запис не вдався, id звільняються
+     */
+    private void logVacancies(List<Vacancy> accepted, int firstKey) {
+        Journal journal = this.journal;
+        if (journal == null || accepted.isEmpty()) {
+            return;
+        }
+        try {
+            journal.logVacancies(accepted, firstKey);
+        } catch (RuntimeException e) {
+            for (Vacancy vacancy : accepted) {
+                vacancyIds.decrement(vacancy.getId());
+            }
+            throw e;
+        }
+    }
+
+    // Додає записи, чиї id уже зайняті, до реєстру та індексу
+    private void registerVacancies(List<Vacancy> accepted, int[] keys) {
+        int first = vacancyList.addAll(accepted);
+        VacancyEntry[] entries = new VacancyEntry[accepted.size()];
+        KeywordIndex.Batch keywords = new KeywordIndex.Batch();
+        SalaryIndex.Batch salaries = new SalaryIndex.Batch();
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = new VacancyEntry(first + i, keys[i]);
+            entries[i].prepare(accepted.get(i), keywords, salaries);
+        }
+        vacancyIndex.addAll(keywords);
+        salaryIndex.addAll(salaries);
+        for (VacancyEntry entry : entries) {
+            matchCache.invalidate(entry.indexedTokens);
+        }
+
+        // Підписуємось після пакетного оновлення і звіряємо зміни, що могли статися тим часом
+        for (int i = 0; i < entries.length; i++) {
+            accepted.get(i).addListener(entries[i]);
+            entries[i].vacancyChanged(accepted.get(i));
+            entries[i].ready = true;
+        }
+    }
+
+    /**
+     * Відновлює реєстри зі знімка в щойно створеній системі, до якої ще нічого не додано.
+     * Записи розкодовуються лише при першому зверненні до їхньої позиції, а індекси,
+     * лічильники й перевірка дублікатів одразу працюють з тим, що збережено в знімку.
+     */
+    void restore(Snapshot snapshot) {
+        Snapshot.Indexes indexes = snapshot.readIndexes();
+        restoredFrom = snapshot;
+        unemployedList = new AppendOnlyList<>(snapshot.getRegisteredUnemployed(),
+                position -> loadUnemployed(snapshot, position));
+        vacancyList = new AppendOnlyList<>(snapshot.getRegisteredVacancies(),
+                position -> loadVacancy(snapshot, position));
+        unemployedEmails = new CountedKeys(snapshot::countEmail);
+        vacancyIds = new CountedKeys(snapshot::countVacancyId);
+        unemployedIndex = indexes.unemployedIndex;
+        specialtyTrigrams = indexes.specialtyTrigrams;
+        for (int position : indexes.patternUnemployed) {
+            patternUnemployed.add(position);
+        }
+        vacancyIndex = indexes.vacancyIndex;
+        salaryIndex = indexes.salaryIndex;
+        vacancyColumns = indexes.vacancyColumns;
+        employedCount.add(indexes.employedCount);
+        activeVacancyCount.add(indexes.activeCount);
+        nextUnemployedKey.set(snapshot.getNextUnemployedKey());
+        nextVacancyKey.set(snapshot.getNextVacancyKey());
+    }
+
+    // Розкодовує зареєстрованого безробітного зі знімка й підписує систему в тому стані,
+    // в якому він уже врахований індексами знімка
+    private Unemployed loadUnemployed(Snapshot snapshot, int position) {
+        Unemployed unemployed = snapshot.unemployed(position);
+        unemployed.addListener(new UnemployedEntry(position, snapshot.unemployedKey(position), unemployed));
+        return unemployed;
+    }
+
+    private Vacancy loadVacancy(Snapshot snapshot, int position) {
+        Vacancy vacancy = snapshot.vacancy(position);
+        vacancy.addListener(new VacancyEntry(position, snapshot.vacancyKey(position), vacancy));
+        return vacancy;
+    }
+
+    /**
+     * Видає count нових ключів поспіль і повертає перший; якщо задано ключ з журналу
+     * чи знімка, повертає його, а наступні ключі видаватимуться вже після нього
+     */
+    private static int assignKeys(AtomicInteger next, int key, int count) {
+        if (key < 0) {
+            return next.getAndAdd(count);
+        }
+        next.accumulateAndGet(key + 1, Math::max);
+        return key;
+    }
+
+    private static int[] consecutive(int first, int count) {
+        int[] keys = new int[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = first + i;
+        }
+        return keys;
+    }
+
+    private static <T> boolean[] validate(T[] records, Predicate<T> isValid) {
+        boolean[] valid = new boolean[records.length];
+        IntStream.range(0, records.length).parallel()
+                .forEach(i -> valid[i] = records[i] != null && isValid.test(records[i]));
+        return valid;
+    }
 
     public boolean addManager(Manager manager) {
-        if (manager != null && !managers.contains(manager)) {
-            return managers.add(manager);
+        Lock logged = beginLogged();
+        try {
+            synchronized (managers) {
+                if (manager == null || managers.contains(manager)) {
+                    return false;
+                }
+                managers.add(manager);
+            }
+            Journal journal = this.journal;
+            if (journal != null) {
+                journal.logManager(manager);
+            }
+            return true;
+        } finally {
+            endLogged(logged);
         }
-        return false;
     }
 
 
     public boolean addReport(Report report) {
-        if (report != null && report.isValid() &&
-                !reports.contains(report)) {
-            return reports.add(report);
+        Lock logged = beginLogged();
+        try {
+            synchronized (reports) {
+                if (report == null || !report.isValid() || reports.contains(report)) {
+                    return false;
+                }
+                reports.add(report);
+            }
+            Journal journal = this.journal;
+            if (journal != null) {
+                journal.logReport(report, keys(report.getEmployedList(), this::unemployedKey),
+                        keys(report.getClosedVacancies(), this::vacancyKey));
+            }
+            return true;
+        } finally {
+            endLogged(logged);
         }
-        return false;
     }
 
 
     public List<Vacancy> findVacanciesForUnemployed(Unemployed unemployed) {
-        List<Vacancy> matches = new ArrayList<>();
-        if (unemployed != null) {
-            for (Vacancy vacancy : vacancyList) {
-                if (vacancy.isActive() && vacancy.matchesSpecialty(unemployed.getSpecialty())) {
-                    matches.add(vacancy);
+        long timer = metrics.start();
+        try {
+            List<Vacancy> matches = new ArrayList<>();
+            if (unemployed != null) {
+                for (int position : findVacancyPositions(unemployed.getSpecialty())) {
+                    matches.add(vacancyList.get(position));
+                }
+            }
+            return matches;
+        } finally {
+            metrics.record(Operation.FIND_VACANCIES_FOR_UNEMPLOYED, timer);
+        }
+    }
+
+    /**
+     * Активні вакансії із зарплатою в межах [minSalary, maxSalary],
+     * від найвищої зарплати до найнижчої (рівні - у порядку реєстрації)
+     */
+    public List<Vacancy> findVacanciesBySalaryRange(double minSalary, double maxSalary) {
+        int[] positions = salaryIndex.findRange(minSalary, maxSalary);
+        List<Vacancy> result = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            result.add(vacancyList.get(position));
+        }
+        return result;
+    }
+
+    /**
+     * До k найвище оплачуваних активних вакансій, що відповідають спеціальності безробітного,
+     * від найвищої зарплати (рівні - у порядку реєстрації). Відповідні вакансії беруться
+     * з індексу ключових слів, а найкращі k відбираються обмеженою купою: O(m log k).
+     */
+    public List<Vacancy> findTopPayingVacanciesForUnemployed(Unemployed unemployed, int k) {
+        if (unemployed == null || k <= 0) {
+            return new ArrayList<>();
+        }
+        // Корінь купи - найгірша з відібраних: найнижча зарплата, а серед рівних - найпізніша
+        PriorityQueue<SalaryIndex.Entry> top = new PriorityQueue<>(k, SalaryIndex.ORDER.reversed());
+        for (int position : findVacancyPositions(unemployed.getSpecialty())) {
+            SalaryIndex.Entry entry = new SalaryIndex.Entry(vacancyList.get(position).getSalary(), position);
+            if (top.size() < k) {
+                top.add(entry);
+            } else if (SalaryIndex.ORDER.compare(entry, top.peek()) < 0) {
+                top.poll();
+                top.add(entry);
+            }
+        }
+        SalaryIndex.Entry[] best = top.toArray(new SalaryIndex.Entry[0]);
+        Arrays.sort(best, SalaryIndex.ORDER);
+        List<Vacancy> result = new ArrayList<>(best.length);
+        for (SalaryIndex.Entry entry : best) {
+            result.add(vacancyList.get(entry.position));
+        }
+        return result;
+    }
+
+    /**
+     * До k активних вакансій, найрелевантніших для безробітного. Оцінка - сума ваг
+     * ключових слів спеціальності, знайдених у вимогах; вага слова тим більша, чим
+     * рідше воно трапляється серед вимог активних вакансій: ln(1 + N / df).
+     * Частоти df - це розміри списків індексу, що оновлюються разом з вакансіями.
+     * Найкращі k відбираються обмеженою купою без побудови повного списку збігів.
+     */
+    public List<RankedVacancy> rankVacanciesForUnemployed(Unemployed unemployed, int k) {
+        if (unemployed == null || k <= 0) {
+            return new ArrayList<>();
+        }
+        String specialty = unemployed.getSpecialty();
+        Keywords keywords = Keywords.of(specialty);
+        List<String> words = new ArrayList<>(new LinkedHashSet<>(keywords.getWords()));
+        double total = activeVacancyCount.sum();
+        double[] wordWeights = new double[words.size()];
+        for (int i = 0; i < wordWeights.length; i++) {
+            wordWeights[i] = weight(total, vacancyIndex.count(words.get(i)));
+        }
+
+        int[] positions = findVacancyPositions(specialty);
+        // Шаблонні слова не індексуються: їхню частоту рахуємо за тими ж вакансіями
+        BitSet[] patternHits = new BitSet[keywords.getPatternCount()];
+        double[] patternWeights = new double[patternHits.length];
+        for (int p = 0; p < patternHits.length; p++) {
+            patternHits[p] = new BitSet(positions.length);
+            for (int i = 0; i < positions.length; i++) {
+                if (keywords.matchesPattern(p, vacancyList.get(positions[i]).getRequirements())) {
+                    patternHits[p].set(i);
                 }
             }
+            patternWeights[p] = weight(total, patternHits[p].cardinality());
         }
-        return matches;
+
+        PriorityQueue<RankedPosition> top = new PriorityQueue<>(k, RankedPosition.ORDER.reversed());
+        for (int i = 0; i < positions.length; i++) {
+            Set<String> tokens = vacancyList.get(positions[i]).getRequirementTokens();
+            double score = 0;
+            for (int w = 0; w < wordWeights.length; w++) {
+                if (tokens.contains(words.get(w))) {
+                    score += wordWeights[w];
+                }
+            }
+            for (int p = 0; p < patternWeights.length; p++) {
+                if (patternHits[p].get(i)) {
+                    score += patternWeights[p];
+                }
+            }
+            RankedPosition candidate = new RankedPosition(score, positions[i]);
+            if (top.size() < k) {
+                top.add(candidate);
+            } else if (RankedPosition.ORDER.compare(candidate, top.peek()) < 0) {
+                top.poll();
+                top.add(candidate);
+            }
+        }
+
+        RankedPosition[] best = top.toArray(new RankedPosition[0]);
+        Arrays.sort(best, RankedPosition.ORDER);
+        List<RankedVacancy> result = new ArrayList<>(best.length);
+        for (RankedPosition ranked : best) {
+            result.add(new RankedVacancy(vacancyList.get(ranked.position), ranked.score));
+        }
+        return result;
+    }
+
+    // Вага ключового слова, що трапляється у documentFrequency з total вакансій
+    private static double weight(double total, int documentFrequency) {
+        return documentFrequency == 0 ? 0.0 : Math.log(1 + total / documentFrequency);
+    }
+
+    /**
+     * Позиції активних вакансій, що відповідають спеціальності, у порядку реєстрації
+     */
+    private int[] findVacancyPositions(String specialty) {
+        return matchCache.positions(specialty, () -> computeVacancyPositions(specialty));
+    }
+
+    private int[] computeVacancyPositions(String specialty) {
+        Keywords keywords = Keywords.of(specialty);
+        if (!keywords.hasPatterns()) {
+            return vacancyIndex.find(keywords.getWords());
+        }
+
+        // Слова з розділовими знаками не індексуються - перевіряємо всі вакансії
+        int size = vacancyList.size();
+        int[] positions = new int[size];
+        int count = 0;
+        for (int position = 0; position < size; position++) {
+            Vacancy vacancy = vacancyList.get(position);
+            if (vacancy.isActive() && vacancy.matchesSpecialty(specialty)) {
+                positions[count++] = position;
+            }
+        }
+        return Arrays.copyOf(positions, count);
     }
 
 
     public List<Unemployed> findUnemployedForVacancy(Vacancy vacancy) {
-        List<Unemployed> matches = new ArrayList<>();
-        if (vacancy != null && vacancy.isActive()) {
-            for (Unemployed unemployed : unemployedList) {
-                if (!unemployed.isEmployed() &&
-                        vacancy.matchesSpecialty(unemployed.getSpecialty())) {
-                    matches.add(unemployed);
+        long timer = metrics.start();
+        try {
+            List<Unemployed> matches = new ArrayList<>();
+            if (vacancy != null && vacancy.isActive()) {
+                for (int position : findUnemployedPositions(vacancy)) {
+                    matches.add(unemployedList.get(position));
+                }
+            }
+            return matches;
+        } finally {
+            metrics.record(Operation.FIND_UNEMPLOYED_FOR_VACANCY, timer);
+        }
+    }
+
+    /**
+     * Позиції безробітних, що підходять на вакансію, у порядку реєстрації
+     */
+    private int[] findUnemployedPositions(Vacancy vacancy) {
+        int[] found = unemployedIndex.find(vacancy.getRequirementTokens());
+        if (!patternUnemployed.isEmpty()) {
+            // Спеціальності зі словами на кшталт "c++" перевіряємо повністю
+            int count = found.length;
+            found = Arrays.copyOf(found, count + patternUnemployed.size());
+            for (int position : patternUnemployed) {
+                if (vacancy.matchesSpecialty(unemployedList.get(position).getSpecialty())) {
+                    found[count++] = position;
                 }
             }
+            found = KeywordIndex.sortUnique(found, count);
         }
-        return matches;
+        return found;
     }
 
 
     public List<Unemployed> findUnemployedForSpecialty(String specialty) {
-        return unemployedList.stream()
-                .filter(u -> !u.isEmployed() && u.getSpecialty().toLowerCase().contains(specialty.toLowerCase()))
-                .collect(Collectors.toList());
+        long timer = metrics.start();
+        try {
+            String query = specialty.toLowerCase();
+            if (query.length() < 3) {
+                // Закороткий запит не має триграм - переглядаємо всіх
+                return unemployedList.stream()
+                        .filter(u -> !u.isEmployed() && u.getSpecialty().toLowerCase().contains(query))
+                        .collect(Collectors.toList());
+            }
+
+            // Триграми лише звужують вибір, підрядок перевіряємо як і раніше
+            List<Unemployed> matches = new ArrayList<>();
+            for (int position : specialtyTrigrams.findAll(KeywordIndex.trigrams(query))) {
+                Unemployed unemployed = unemployedList.get(position);
+                if (unemployed.getSpecialty().toLowerCase().contains(query)) {
+                    matches.add(unemployed);
+                }
+            }
+            return matches;
+        } finally {
+            metrics.record(Operation.FIND_UNEMPLOYED_FOR_SPECIALTY, timer);
+        }
+    }
+
+    /**
+     * Ліниві варіанти пошуку: збіги обчислюються лише в міру споживання потоку,
+     * тож {@code limit(20)} для широкого запиту зупиняється після двадцятого збігу.
+     * Якщо індекс показує, що збігів мало, позиції беруться з нього; якщо багато -
+     * реєстр переглядається по порядку, і кожен наступний збіг трапляється швидко.
+     * Порядок той самий, що й у списочних варіантів.
+     */
+    public Stream<Vacancy> streamVacanciesForUnemployed(Unemployed unemployed) {
+        if (unemployed == null) {
+            return Stream.empty();
+        }
+        return vacancyMatches(unemployed.getSpecialty(), 0).mapToObj(vacancyList::get);
+    }
+
+    public Stream<Unemployed> streamUnemployedForVacancy(Vacancy vacancy) {
+        if (vacancy == null) {
+            return Stream.empty();
+        }
+        return unemployedMatches(vacancy, 0).mapToObj(unemployedList::get);
+    }
+
+    public Stream<Unemployed> streamUnemployedForSpecialty(String specialty) {
+        return specialtyMatches(specialty, 0).mapToObj(unemployedList::get);
+    }
+
+    /**
+     * Сторінка вакансій для безробітного; pageToken - маркер з попередньої сторінки
+     * або null для першої
+     */
+    public Page<Vacancy> findVacanciesForUnemployed(Unemployed unemployed, String pageToken, int pageSize) {
+        int start = Page.start(pageToken);
+        IntStream positions = unemployed != null ? vacancyMatches(unemployed.getSpecialty(), start) : IntStream.empty();
+        return Page.of(positions, vacancyList::get, pageSize);
+    }
+
+    public Page<Unemployed> findUnemployedForVacancy(Vacancy vacancy, String pageToken, int pageSize) {
+        int start = Page.start(pageToken);
+        IntStream positions = vacancy != null ? unemployedMatches(vacancy, start) : IntStream.empty();
+        return Page.of(positions, unemployedList::get, pageSize);
+    }
+
+    public Page<Unemployed> findUnemployedForSpecialty(String specialty, String pageToken, int pageSize) {
+        return Page.of(specialtyMatches(specialty, Page.start(pageToken)), unemployedList::get, pageSize);
+    }
+
+    // Лінивий потік позицій активних вакансій для спеціальності, починаючи з from
+    private IntStream vacancyMatches(String specialty, int from) {
+        Keywords keywords = Keywords.of(specialty);
+        IntPredicate matches = position -> {
+            Vacancy vacancy = vacancyList.get(position);
+            return vacancy.isActive() && vacancy.matchesSpecialty(specialty);
+        };
+        if (!keywords.hasPatterns()) {
+            long estimate = 0;
+            for (String word : keywords.getWords()) {
+                estimate += vacancyIndex.count(word);
+            }
+            if (isSparse(estimate, vacancyList.size())) {
+                return fromIndex(() -> vacancyIndex.find(keywords.getWords()), from, matches);
+            }
+        }
+        return IntStream.range(from, vacancyList.size()).filter(matches);
+    }
+
+    private IntStream unemployedMatches(Vacancy vacancy, int from) {
+        IntPredicate matches = position -> {
+            Unemployed unemployed = unemployedList.get(position);
+            return vacancy.isActive() && !unemployed.isEmployed() && vacancy.matchesSpecialty(unemployed.getSpecialty());
+        };
+        long estimate = patternUnemployed.size();
+        for (String token : vacancy.getRequirementTokens()) {
+            estimate += unemployedIndex.count(token);
+        }
+        if (isSparse(estimate, unemployedList.size())) {
+            return fromIndex(() -> findUnemployedPositions(vacancy), from, matches);
+        }
+        return IntStream.range(from, unemployedList.size()).filter(matches);
+    }
+
+    private IntStream specialtyMatches(String specialty, int from) {
+        String query = specialty.toLowerCase();
+        IntPredicate matches = position -> {
+            Unemployed unemployed = unemployedList.get(position);
+            return !unemployed.isEmployed() && unemployed.getSpecialty().toLowerCase().contains(query);
+        };
+        if (query.length() >= 3) {
+            // Підрядок не може трапитися частіше за найрідшу свою триграму
+            Set<String> trigrams = KeywordIndex.trigrams(query);
+            long estimate = Long.MAX_VALUE;
+            for (String trigram : trigrams) {
+                estimate = Math.min(estimate, specialtyTrigrams.count(trigram));
+            }
+            if (isSparse(estimate, unemployedList.size())) {
+                return fromIndex(() -> specialtyTrigrams.findAll(trigrams), from, matches);
+            }
+        }
+        return IntStream.range(from, unemployedList.size()).filter(matches);
+    }
+
+    // Збігів так мало, що послідовний перегляд шукав би кожен з них надто довго
+    private static boolean isSparse(long estimate, int size) {
+        return estimate * LAZY_SCAN_DENSITY < size;
+    }
+
+    // Позиції з індексу шукаються лише тоді, коли потік почнуть споживати
+    private static IntStream fromIndex(Supplier<int[]> positions, int from, IntPredicate matches) {
+        return StreamSupport.intStream(() -> Arrays.spliterator(positions.get()),
+                        Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED, false)
+                .filter(position -> position >= from)
+                .filter(matches);
+    }
+
+    /**
+     * Зіставляє кожного безробітного з активними вакансіями на всіх ядрах.
+     * Дає ті самі пари, що й findVacanciesForUnemployed для кожного кандидата.
+     */
+    public MatchAllResult matchAll() {
+        return matchAll(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Зіставляє кожного безробітного з активними вакансіями у вказаному пулі
+     */
+    public MatchAllResult matchAll(ForkJoinPool pool) {
+        long timer = metrics.start();
+        try {
+            long start = System.nanoTime();
+            // Кандидати, зареєстровані під час зіставлення, до результату не потрапляють
+            // Задачі записують лише свої позиції, тож розмір списку не змінюється
+            List<List<Vacancy>> found = new ArrayList<>(Collections.nCopies(unemployedList.size(), null));
+            pool.invoke(new MatchTask(found, 0, found.size()));
+
+            Map<Unemployed, List<Vacancy>> matches = new LinkedHashMap<>();
+            long pairCount = 0;
+            for (int i = 0; i < found.size(); i++) {
+                matches.put(unemployedList.get(i), found.get(i));
+                pairCount += found.get(i).size();
+            }
+            return new MatchAllResult(matches, pairCount, System.nanoTime() - start, pool.getParallelism());
+        } finally {
+            metrics.record(Operation.MATCH_ALL, timer);
+        }
+    }
+
+    /**
+     * Ділить діапазон кандидатів навпіл, доки він не стане достатньо малим
+     */
+    private class MatchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private static final int THRESHOLD = 256;
+        private final List<List<Vacancy>> found;
+        private final int from;
+        private final int to;
+
+        MatchTask(List<List<Vacancy>> found, int from, int to) {
+            this.found = found;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    found.set(i, findVacanciesForUnemployed(unemployedList.get(i)));
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new MatchTask(found, from, middle), new MatchTask(found, middle, to));
+            }
+        }
+    }
+
+    /**
+     * Масово працевлаштовує непрацевлаштованих на активні вакансії так, щоб пар було
+     * якомога більше (максимальне паросполучення Хопкрофта-Карпа), а не "хто перший".
+     * Кожна пара проводиться через employUnemployed.
+     */
+    public AssignmentResult assignAll() {
+        long start = System.nanoTime();
+
+        // Праві вершини - активні вакансії, занумеровані в порядку реєстрації
+        int[] rightOf = new int[vacancyList.size()];
+        int rightCount = 0;
+        for (int position = 0; position < rightOf.length; position++) {
+            rightOf[position] = vacancyList.get(position).isActive() ? rightCount++ : -1;
+        }
+        int[] vacancyOf = new int[rightCount];
+        for (int position = 0; position < rightOf.length; position++) {
+            if (rightOf[position] >= 0) {
+                vacancyOf[rightOf[position]] = position;
+            }
+        }
+
+        // Ліві вершини - непрацевлаштовані; ребра беремо з індексу вакансій
+        int[] candidateOf = new int[unemployedList.size()];
+        int[] offsets = new int[candidateOf.length + 1];
+        int[] edges = new int[Math.max(16, candidateOf.length)];
+        int leftCount = 0;
+        int edgeCount = 0;
+        for (int position = 0; position < candidateOf.length; position++) {
+            Unemployed unemployed = unemployedList.get(position);
+            if (unemployed.isEmployed()) {
+                continue;
+            }
+            int[] matches = findVacancyPositions(unemployed.getSpecialty());
+            if (edgeCount + matches.length > edges.length) {
+                edges = Arrays.copyOf(edges, Math.max(edges.length * 2, edgeCount + matches.length));
+            }
+            for (int match : matches) {
+                // Вакансії, відкриті вже під час побудови графа, пропускаємо
+                if (match < rightOf.length && rightOf[match] >= 0) {
+                    edges[edgeCount++] = rightOf[match];
+                }
+            }
+            candidateOf[leftCount++] = position;
+            offsets[leftCount] = edgeCount;
+        }
+
+        HopcroftKarp matching = new HopcroftKarp(leftCount, rightCount, offsets, edges);
+        int[] matchLeft = matching.solve();
+
+        Map<Unemployed, Vacancy> assignments = new LinkedHashMap<>();
+        for (int left = 0; left < leftCount; left++) {
+            if (matchLeft[left] >= 0) {
+                Unemployed unemployed = unemployedList.get(candidateOf[left]);
+                Vacancy vacancy = vacancyList.get(vacancyOf[matchLeft[left]]);
+                if (employUnemployed(unemployed, vacancy)) {
+                    assignments.put(unemployed, vacancy);
+                }
+            }
+        }
+        return new AssignmentResult(assignments, matching.getGreedySize(), leftCount, rightCount,
+                edgeCount, System.nanoTime() - start);
     }
 
     // Статистичні методи
@@ -99,19 +996,79 @@ public class LaborExchangeSystem {
     }
 
     public int getActiveVacancies() {
-        return (int) vacancyList.stream().filter(Vacancy::isActive).count();
+        if (consistencyCheck) {
+            checkCount("active vacancies", activeVacancyCount.intValue(),
+                    vacancyList.stream().filter(Vacancy::isActive).count());
+        }
+        return activeVacancyCount.intValue();
+    }
+
+    /**
+     * Кількість активних вакансій із зарплатою в межах [minSalary, maxSalary]
+     */
+    public int countActiveVacanciesInSalaryRange(double minSalary, double maxSalary) {
+        int count = vacancyColumns.countActive(minSalary, maxSalary);
+        if (consistencyCheck) {
+            checkCount("salary range", count, vacancyList.stream()
+                    .filter(v -> v.isActive() && v.getSalary() >= minSalary && v.getSalary() <= maxSalary)
+                    .count());
+        }
+        return count;
+    }
+
+    /**
+     * Активні високооплачувані вакансії (див. {@link Vacancy#isHighSalary()}) у порядку реєстрації
+     */
+    public List<Vacancy> getHighSalaryVacancies() {
+        int[] positions = vacancyColumns.findActive(Math.nextUp(Vacancy.HIGH_SALARY), Double.POSITIVE_INFINITY);
+        List<Vacancy> result = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            result.add(vacancyList.get(position));
+        }
+        return result;
+    }
+
+    /**
+     * Середня зарплата активних вакансій (0, якщо їх немає)
+     */
+    public double getAverageActiveSalary() {
+        double[] sum = vacancyColumns.sumActive();
+        return sum[1] == 0 ? 0.0 : sum[0] / sum[1];
     }
 
     public int getEmployedCount() {
-        return (int) unemployedList.stream().filter(Unemployed::isEmployed).count();
+        if (consistencyCheck) {
+            checkCount("employed", employedCount.intValue(),
+                    unemployedList.stream().filter(Unemployed::isEmployed).count());
+        }
+        return employedCount.intValue();
+    }
+
+    /**
+     * Вмикає перевірку лічильників повним переглядом реєстру (для тестів;
+     * під час одночасних змін з інших потоків перевірка може хибно спрацювати)
+     */
+    public void setConsistencyCheck(boolean consistencyCheck) {
+        this.consistencyCheck = consistencyCheck;
+    }
+
+    private static void checkCount(String name, int counted, long scanned) {
+        if (counted != scanned) {
+            throw new IllegalStateException(String.format(
+                    "Inconsistent %s count: counter=%d, scan=%d", name, counted, scanned));
+        }
     }
 
     public int getManagerCount() {
-        return managers.size();
+        synchronized (managers) {
+            return managers.size();
+        }
     }
 
     public int getReportCount() {
-        return reports.size();
+        synchronized (reports) {
+            return reports.size();
+        }
     }
 
 
@@ -130,36 +1087,629 @@ public class LaborExchangeSystem {
 
 
     public Report generateMonthlyReport(String reportId) {
-        Report report = new Report(reportId);
+        long timer = metrics.start();
+        try {
+            // Великі реєстри переглядаємо паралельно
+            boolean parallel = unemployedList.size() + vacancyList.size() >= PARALLEL_REPORT_THRESHOLD;
+            Report report = new ReportBuilder(reportId)
+                    .parallel(parallel)
+                    .addAllEmployed(unemployedList.snapshot())
+                    .addAllClosedVacancies(vacancyList.snapshot())
+                    .build();
 
-        // Додаємо працевлаштованих
-        unemployedList.stream()
-                .filter(Unemployed::isEmployed)
-                .forEach(report::addEmployed);
+            addReport(report);
+            return report;
+        } finally {
+            metrics.record(Operation.GENERATE_MONTHLY_REPORT, timer);
+        }
+    }
+
+    /**
+     * Звіт за календарний місяць (у часовому поясі годинника системи) з подій цього місяця
+     */
+    public Report generateMonthlyReport(String reportId, YearMonth month) {
+        ZoneId zone = clock.getZone();
+        return generatePeriodReport(reportId,
+                month.atDay(1).atStartOfDay(zone).toInstant(),
+                month.plusMonths(1).atDay(1).atStartOfDay(zone).toInstant());
+    }
 
-        // Додаємо закриті вакансії
-        vacancyList.stream()
-                .filter(v -> !v.isActive())
-                .forEach(report::addClosedVacancy);
+    /**
+     * Звіт за проміжок [from, to): хто був працевлаштований і які вакансії закрились у ньому
+     * (і досі залишаються в цьому стані, як вимагає {@link Report}).
+     * Переглядаються лише події проміжку, тож час не залежить від розміру реєстрів.
+     * Записи, що вже були працевлаштовані чи закриті під час реєстрації, подій не мають.
+     */
+    public Report generatePeriodReport(String reportId, Instant from, Instant to) {
+        long timer = metrics.start();
+        try {
+            ReportBuilder builder = new ReportBuilder(reportId);
+            for (EmploymentEvent event : events.range(from.toEpochMilli(), to.toEpochMilli())) {
+                if (event.getType() == EmploymentEvent.Type.EMPLOYED) {
+                    builder.addEmployed(event.getUnemployed());
+                } else {
+                    builder.addClosedVacancy(event.getVacancy());
+                }
+            }
+            Report report = builder.build();
+            addReport(report);
+            return report;
+        } finally {
+            metrics.record(Operation.GENERATE_PERIOD_REPORT, timer);
+        }
+    }
 
-        addReport(report);
-        return report;
+    /**
+     * Події працевлаштування і закриття вакансій за проміжок [from, to) у порядку часу
+     */
+    public List<EmploymentEvent> getEvents(Instant from, Instant to) {
+        return events.range(from.toEpochMilli(), to.toEpochMilli());
     }
 
 
     public boolean employUnemployed(Unemployed unemployed, Vacancy vacancy) {
-        if (unemployed != null && vacancy != null &&
-                unemployedList.contains(unemployed) &&
-                vacancyList.contains(vacancy) &&
-                vacancy.isActive() &&
-                !unemployed.isEmployed() &&
-                vacancy.matchesSpecialty(unemployed.getSpecialty())) {
-
-            unemployed.setEmployed(true);
-            vacancy.setActive(false);
-            return true;
+        long timer = metrics.start();
+        try {
+            // Працевлаштувати можна лише повністю зареєстровані в цій системі записи:
+            // зміну, що сталася до підписки системи, не було б зараховано подією
+            UnemployedEntry unemployedEntry = unemployed != null ? entryOf(unemployed) : null;
+            VacancyEntry vacancyEntry = vacancy != null ? entryOf(vacancy) : null;
+            if (unemployed != null && vacancy != null &&
+                    unemployed.getEmail() != null &&
+                    isReady(unemployedEntry) &&
+                    isReady(vacancyEntry) &&
+                    vacancy.isActive() &&
+                    !unemployed.isEmployed() &&
+                    vacancy.matchesSpecialty(unemployed.getSpecialty())) {
+
+                Lock logged = beginLogged();
+                try {
+                    if (!claim(unemployed, vacancy)) {
+                        return false;
+                    }
+                    Journal journal = this.journal;
+                    if (journal != null) {
+                        journal.logEmployment(unemployedEntry.key, vacancyEntry.key, now());
+                    }
+                } finally {
+                    endLogged(logged);
+                }
+                return true;
+            }
+            return false;
+        } finally {
+            metrics.record(Operation.EMPLOY_UNEMPLOYED, timer);
+        }
+    }
+
+    /**
+     * Повторює працевлаштування з журналу з його початковим часом
+     */
+    void replayEmployment(Unemployed unemployed, Vacancy vacancy, long timestamp) {
+        replayTime = timestamp;
+        try {
+            employUnemployed(unemployed, vacancy);
+        } finally {
+            replayTime = -1;
+        }
+    }
+
+    /**
+     * Атомарно записує знімок усієї системи у файл. Якщо система веде журнал, знімок
+     * зберігає позицію журналу, тож його можна відкрити разом з журналом через
+     * {@link #open(Path, Path)}. Поля записів, що змінюються сеттерами одночасно
+     * із записом знімка, потрапляють до нього в довільному зі своїх станів.
+     */
+    public void writeSnapshot(Path file) throws IOException {
+        Snapshot.write(this, file);
+    }
+
+    /**
+     * Операція, що пишеться до журналу, від запису до застосування не розділяється
+     * знімком. Без журналу нічого не блокує.
+     */
+    private Lock beginLogged() {
+        if (journal == null) {
+            return null;
+        }
+        Lock lock = checkpoint.readLock();
+        lock.lock();
+        return lock;
+    }
+
+    private static void endLogged(Lock lock) {
+        if (lock != null) {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Виконує action, поки жодна операція журналу не виконується наполовину
+     */
+    <T> T atCheckpoint(Supplier<T> action) {
+        Lock lock = checkpoint.writeLock();
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Позиція журналу, до якої всі операції вже застосовані (-1 - журналу немає)
+    long journalPosition() {
+        Journal journal = this.journal;
+        return journal != null ? journal.position() : -1;
+    }
+
+    /**
+     * Незмінний ключ безробітного в цій системі або -1, якщо його тут не зареєстровано
+     */
+    int unemployedKey(Unemployed unemployed) {
+        UnemployedEntry entry = entryOf(unemployed);
+        return entry != null ? entry.key : -1;
+    }
+
+    int vacancyKey(Vacancy vacancy) {
+        VacancyEntry entry = entryOf(vacancy);
+        return entry != null ? entry.key : -1;
+    }
+
+    int nextUnemployedKey() {
+        return nextUnemployedKey.get();
+    }
+
+    int nextVacancyKey() {
+        return nextVacancyKey.get();
+    }
+
+    /**
+     * Безробітний з ключем key, відновлений зі знімка, або null, якщо такого там немає
+     */
+    Unemployed restoredUnemployed(int key) {
+        int position = restoredFrom != null ? restoredFrom.unemployedPosition(key) : -1;
+        return position >= 0 ? unemployedList.get(position) : null;
+    }
+
+    Vacancy restoredVacancy(int key) {
+        int position = restoredFrom != null ? restoredFrom.vacancyPosition(key) : -1;
+        return position >= 0 ? vacancyList.get(position) : null;
+    }
+
+    /**
+     * Email зареєстрованого безробітного, який система вже врахувала й записала до журналу
+     */
+    String countedEmail(Unemployed unemployed) {
+        UnemployedEntry entry = entryOf(unemployed);
+        return entry != null ? entry.countedEmail() : unemployed.getEmail();
+    }
+
+    private static <T> int[] keys(List<T> records, ToIntFunction<T> key) {
+        int[] keys = new int[records.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = key.applyAsInt(records.get(i));
+        }
+        return keys;
+    }
+
+    // Дані для знімка
+    List<Unemployed> unemployedRegistry() {
+        return unemployedList.snapshot();
+    }
+
+    List<Vacancy> vacancyRegistry() {
+        return vacancyList.snapshot();
+    }
+
+    List<Manager> managerList() {
+        synchronized (managers) {
+            return new ArrayList<>(managers);
+        }
+    }
+
+    List<Report> reportList() {
+        synchronized (reports) {
+            return new ArrayList<>(reports);
+        }
+    }
+
+    List<EmploymentEvent> eventList() {
+        return events.all();
+    }
+
+    void restoreEvent(EmploymentEvent.Type type, long timestamp, Unemployed unemployed, Vacancy vacancy) {
+        events.record(type, timestamp, unemployed, vacancy);
+    }
+
+    /**
+     * Журнал операцій системи або null, якщо система працює лише в пам'яті
+     */
+    public Journal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Статистика кешу зіставлень, через який findVacanciesForUnemployed та інші пошуки
+     * вакансій для спеціальності не обчислюють повторно однакові списки
+     */
+    public MatchCacheStats getMatchCacheStats() {
+        return matchCache.stats();
+    }
+
+    /**
+     * Змінює кількість спеціальностей у кеші зіставлень (0 - вимкнути кеш)
+     */
+    public void setMatchCacheCapacity(int capacity) {
+        matchCache.setCapacity(capacity);
+    }
+
+    /**
+     * Вмикає чи вимикає вимірювання операцій. Вимкнене вимірювання коштує
+     * одного читання volatile-прапорця на виклик.
+     */
+    public void setMetricsEnabled(boolean enabled) {
+        metrics.setEnabled(enabled);
+    }
+
+    public boolean isMetricsEnabled() {
+        return metrics.isEnabled();
+    }
+
+    /**
+     * Кількість викликів і перцентилі затримки кожної виміряної операції
+     */
+    public MetricsSnapshot getMetricsSnapshot() {
+        return metrics.snapshot();
+    }
+
+    public void resetMetrics() {
+        metrics.reset();
+    }
+
+    /**
+     * Публікує вимірювання в JMX як main.laborexchange:type=LaborExchangeSystem,name=...;
+     * реєстрація знімається в {@link #close()}
+     */
+    public ObjectName registerMetricsMBean(String name) {
+        return metrics.register("LaborExchangeSystem", name);
+    }
+
+    /**
+     * Закриває журнал, знімає реєстрацію вимірювань у JMX і відписує систему від усіх
+     * її записів, тож записи, зареєстровані ще й деінде, більше не тримають її в пам'яті.
+     * Після цього операції, що мають потрапити до журналу, кидають виняток, а зміни
+     * записів уже не відображаються в індексах і лічильниках системи.
+     */
+    @Override
+    public void close() throws IOException {
+        metrics.unregister();
+        // Ще не завантажені записи зі знімка системи не знають - їх не завантажуємо
+        for (int position = 0; position < unemployedList.size(); position++) {
+            Unemployed unemployed = unemployedList.getIfLoaded(position);
+            for (UnemployedEntry entry = unemployed != null ? entryOf(unemployed) : null; entry != null;
+                 entry = entryOf(unemployed)) {
+                unemployed.removeListener(entry);
+            }
+        }
+        for (int position = 0; position < vacancyList.size(); position++) {
+            Vacancy vacancy = vacancyList.getIfLoaded(position);
+            for (VacancyEntry entry = vacancy != null ? entryOf(vacancy) : null; entry != null;
+                 entry = entryOf(vacancy)) {
+                vacancy.removeListener(entry);
+            }
+        }
+        Journal journal = this.journal;
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    // Під час відтворення журналу подіям повертається їхній записаний час
+    private long now() {
+        return replayTime >= 0 ? replayTime : clock.millis();
+    }
+
+    /**
+     * Атомарно займає вакансію, а потім кандидата, і лише тоді сповіщає слухачів
+     * обох: спочатку про закриття вакансії, потім про працевлаштування. Якщо
+     * кандидата вже працевлаштував інший потік, вакансія мовчки звільняється,
+     * тож невдала спроба не лишає подій.
+     */
+    static boolean claim(Unemployed unemployed, Vacancy vacancy) {
+        if (!vacancy.tryClaim()) {
+            return false;
+        }
+        if (!unemployed.claimEmployed()) {
+            vacancy.releaseClaim();
+            return false;
+        }
+        vacancy.completeClaim();
+        unemployed.notifyListeners();
+        return true;
+    }
+
+    /**
+     * Оцінка вакансії на позиції реєстру; впорядкування - від найвищої оцінки,
+     * рівні - у порядку реєстрації
+     */
+    private static final class RankedPosition {
+        static final Comparator<RankedPosition> ORDER = (a, b) -> {
+            int byScore = Double.compare(b.score, a.score);
+            return byScore != 0 ? byScore : Integer.compare(a.position, b.position);
+        };
+
+        final double score;
+        final int position;
+
+        RankedPosition(double score, int position) {
+            this.score = score;
+            this.position = position;
+        }
+    }
+
+    /**
+     * Стан безробітного, відображений в індексах і лічильниках системи.
+     * Кожне сповіщення звіряє цей стан з поточним і застосовує різницю;
+     * звірки однієї позиції виконуються послідовно під монітором запису.
+     */
+    private static boolean isReady(UnemployedEntry entry) {
+        return entry != null && entry.ready;
+    }
+
+    private static boolean isReady(VacancyEntry entry) {
+        return entry != null && entry.ready;
+    }
+
+    // Запис цієї системи серед слухачів безробітного (null - він тут не зареєстрований)
+    private UnemployedEntry entryOf(Unemployed unemployed) {
+        for (UnemployedListener listener : unemployed.listeners()) {
+            if (listener instanceof UnemployedEntry && ((UnemployedEntry) listener).owner() == this) {
+                return (UnemployedEntry) listener;
+            }
+        }
+        return null;
+    }
+
+    private VacancyEntry entryOf(Vacancy vacancy) {
+        for (VacancyListener listener : vacancy.listeners()) {
+            if (listener instanceof VacancyEntry && ((VacancyEntry) listener).owner() == this) {
+                return (VacancyEntry) listener;
+            }
+        }
+        return null;
+    }
+
+    private class UnemployedEntry implements UnemployedListener {
+        private final int position;
+        final int key;
+        private String countedEmail;
+        private boolean countedEmployed;
+        private String indexedSpecialty;
+        // Стан під час реєстрації подією не вважається
+        private boolean registered;
+        // Запис повністю зареєстрований: підписаний і звірений з індексами
+        volatile boolean ready;
+
+        UnemployedEntry(int position, int key, String email) {
+            this.position = position;
+            this.key = key;
+            this.countedEmail = email;
+        }
+
+        /**
+         * Запис зі знімка: індекси й лічильники вже враховують його поточний стан
+         */
+        UnemployedEntry(int position, int key, Unemployed restored) {
+            this(position, key, restored.getEmail());
+            countedEmployed = restored.isEmployed();
+            indexedSpecialty = countedEmployed ? null : restored.getSpecialty();
+            registered = true;
+            ready = true;
+        }
+
+        synchronized String countedEmail() {
+            return countedEmail;
+        }
+
+        LaborExchangeSystem owner() {
+            return LaborExchangeSystem.this;
+        }
+
+        /**
+         * Готує початковий стан запису для пакетного додавання до індексів
+         */
+        synchronized void prepare(Unemployed unemployed, KeywordIndex.Batch keywords,
+                                  KeywordIndex.Batch trigrams) {
+            if (unemployed.isEmployed()) {
+                countedEmployed = true;
+                employedCount.increment();
+            } else {
+                String specialty = unemployed.getSpecialty();
+                Keywords specialtyKeywords = Keywords.of(specialty);
+                keywords.add(position, specialtyKeywords.getWords());
+                if (specialtyKeywords.hasPatterns()) {
+                    patternUnemployed.add(position);
+                }
+                if (specialty != null) {
+                    trigrams.add(position, KeywordIndex.trigrams(specialty.toLowerCase()));
+                }
+                indexedSpecialty = specialty;
+            }
+            registered = true;
+        }
+
+        @Override
+        public void unemployedChanged(Unemployed unemployed) {
+            // Блокування знімка - до монітора запису, як і в решті операцій журналу
+            Lock logged = beginLogged();
+            try {
+                reconcile(unemployed);
+            } finally {
+                endLogged(logged);
+            }
+        }
+
+        private synchronized void reconcile(Unemployed unemployed) {
+            String email = unemployed.getEmail();
+            if (!Objects.equals(email, countedEmail)) {
+                // Зміна email іде до журналу раніше, ніж старий email звільниться
+                // для інших реєстрацій, тож при відтворенні вони не стануть дублікатами
+                Journal journal = LaborExchangeSystem.this.journal;
+                if (journal != null) {
+                    journal.logEmailChange(key, email);
+                }
+                if (countedEmail != null) {
+                    unemployedEmails.decrement(countedEmail);
+                }
+                if (email != null) {
+                    unemployedEmails.increment(email);
+                }
+                countedEmail = email;
+            }
+
+            boolean employed = unemployed.isEmployed();
+            if (employed != countedEmployed) {
+                if (employed) {
+                    employedCount.increment();
+                    if (registered) {
+                        events.record(EmploymentEvent.Type.EMPLOYED, now(), unemployed, null);
+                    }
+                } else {
+                    employedCount.decrement();
+                }
+                countedEmployed = employed;
+            }
+
+            // Працевлаштовані виходять з індексів одразу
+            String specialty = employed ? null : unemployed.getSpecialty();
+            if (!Objects.equals(specialty, indexedSpecialty)) {
+                unindex(indexedSpecialty);
+                index(specialty);
+                indexedSpecialty = specialty;
+            }
+            registered = true;
+        }
+
+        private void index(String specialty) {
+            if (specialty != null) {
+                Keywords keywords = Keywords.of(specialty);
+                unemployedIndex.add(position, keywords.getWords());
+                if (keywords.hasPatterns()) {
+                    patternUnemployed.add(position);
+                }
+                specialtyTrigrams.add(position, KeywordIndex.trigrams(specialty.toLowerCase()));
+            }
+        }
+
+        private void unindex(String specialty) {
+            if (specialty != null) {
+                Keywords keywords = Keywords.of(specialty);
+                unemployedIndex.remove(position, keywords.getWords());
+                if (keywords.hasPatterns()) {
+                    patternUnemployed.remove(position);
+                }
+                specialtyTrigrams.remove(position, KeywordIndex.trigrams(specialty.toLowerCase()));
+            }
+        }
+    }
+
+    /**
+     * Стан вакансії, відображений в індексі й лічильниках системи.
+     * Кожне сповіщення звіряє цей стан з поточним і застосовує різницю.
+     */
+    private class VacancyEntry implements VacancyListener {
+        private final int position;
+        final int key;
+        private boolean countedActive;
+        // Лексеми, під якими вакансія зараз в індексі (null - її там немає)
+        private Set<String> indexedTokens;
+        // Зарплата, під якою вакансія зараз в індексі зарплат (NaN - її там немає)
+        private double indexedSalary = Double.NaN;
+        private boolean registered;
+        // Запис повністю зареєстрований: підписаний і звірений з індексами
+        volatile boolean ready;
+
+        VacancyEntry(int position, int key) {
+            this.position = position;
+            this.key = key;
+        }
+
+        /**
+         * Запис зі знімка: індекси, стовпчики й лічильники вже враховують його поточний стан
+         */
+        VacancyEntry(int position, int key, Vacancy restored) {
+            this(position, key);
+            countedActive = restored.isActive();
+            if (countedActive) {
+                indexedTokens = restored.getRequirementTokens();
+                indexedSalary = restored.getSalary();
+            }
+            registered = true;
+            ready = true;
+        }
+
+        LaborExchangeSystem owner() {
+            return LaborExchangeSystem.this;
+        }
+
+        /**
+         * Готує початковий стан запису для пакетного додавання до індексу
+         */
+        synchronized void prepare(Vacancy vacancy, KeywordIndex.Batch keywords, SalaryIndex.Batch salaries) {
+            vacancyColumns.set(position, vacancy.getSalary(), vacancy.isActive());
+            if (vacancy.isActive()) {
+                indexedSalary = vacancy.getSalary();
+                salaries.add(position, indexedSalary);
+                countedActive = true;
+                activeVacancyCount.increment();
+                indexedTokens = vacancy.getRequirementTokens();
+                keywords.add(position, indexedTokens);
+            }
+            registered = true;
+        }
+
+        @Override
+        public synchronized void vacancyChanged(Vacancy vacancy) {
+            boolean active = vacancy.isActive();
+            vacancyColumns.set(position, vacancy.getSalary(), active);
+            if (active != countedActive) {
+                if (active) {
+                    activeVacancyCount.increment();
+                } else {
+                    activeVacancyCount.decrement();
+                }
+                if (!active && registered) {
+                    events.record(EmploymentEvent.Type.VACANCY_CLOSED, now(), null, vacancy);
+                }
+                countedActive = active;
+            }
+
+            Set<String> tokens = active ? vacancy.getRequirementTokens() : null;
+            if (tokens != indexedTokens) {
+                if (indexedTokens != null) {
+                    vacancyIndex.remove(position, indexedTokens);
+                }
+                if (tokens != null) {
+                    vacancyIndex.add(position, tokens);
+                }
+                // Кеш зіставлень - лише після оновлення індексу
+                matchCache.invalidate(indexedTokens);
+                matchCache.invalidate(tokens);
+                indexedTokens = tokens;
+            }
+
+            double salary = active ? vacancy.getSalary() : Double.NaN;
+            if (Double.compare(salary, indexedSalary) != 0) {
+                if (!Double.isNaN(indexedSalary)) {
+                    salaryIndex.remove(position, indexedSalary);
+                }
+                if (!Double.isNaN(salary)) {
+                    salaryIndex.add(position, salary);
+                }
+                indexedSalary = salary;
+            }
+            registered = true;
         }
-        return false;
     }
 
     @Override
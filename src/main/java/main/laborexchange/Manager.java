@@ -1,8 +1,14 @@
 package main.laborexchange;
 
+import main.laborexchange.OperationMetrics.Operation;
+
+import javax.management.ObjectName;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * Клас, що представляє менеджера біржі праці
@@ -12,6 +18,10 @@ public class Manager {
     private String employeeId;
     private List<Unemployed> unemployedList;
     private List<Vacancy> vacancyList;
+    // Спеціальність -> позиції відповідних активних вакансій у vacancyList
+    private final MatchCache matchCache = new MatchCache();
+    // Лічильники й затримки операцій менеджера (за замовчуванням вимкнені)
+    private final OperationMetrics metrics = new OperationMetrics();
 
     public Manager(String name, String employeeId) {
         this.name = name;
@@ -26,90 +36,179 @@ public class Manager {
     public List<Unemployed> getProcessedUnemployed() { return new ArrayList<>(unemployedList); }
     public List<Vacancy> getProcessedVacancies() { return new ArrayList<>(vacancyList); }
 
+    /**
+     * Відновлює оброблені менеджером записи зі знімка
+     */
+    void restore(List<Unemployed> unemployed, List<Vacancy> vacancies) {
+        unemployedList.addAll(unemployed);
+        for (Vacancy vacancy : vacancies) {
+            addVacancy(vacancy);
+        }
+    }
+
+    // Додає вакансію до списку й стежить за її змінами заради кешу зіставлень
+    private void addVacancy(Vacancy vacancy) {
+        vacancyList.add(vacancy);
+        VacancyWatch watch = new VacancyWatch();
+        vacancy.addListener(watch);
+        watch.vacancyChanged(vacancy);
+    }
+
     /**
      * Реєструє безробітного в системі
      */
     public boolean registerUnemployed(Unemployed unemployed) {
-        if (unemployed != null && unemployed.isValid() &&
-                !unemployedList.contains(unemployed)) {
-            return unemployedList.add(unemployed);
+        long timer = metrics.start();
+        try {
+            if (unemployed != null && unemployed.isValid() &&
+                    !unemployedList.contains(unemployed)) {
+                return unemployedList.add(unemployed);
+            }
+            return false;
+        } finally {
+            metrics.record(Operation.REGISTER_UNEMPLOYED, timer);
         }
-        return false;
     }
 
     /**
      * Реєструє вакансію в системі
      */
     public boolean registerVacancy(Vacancy vacancy) {
-        if (vacancy != null && vacancy.isValid() &&
-                !vacancyList.contains(vacancy)) {
-            return vacancyList.add(vacancy);
+        long timer = metrics.start();
+        try {
+            if (vacancy != null && vacancy.isValid() &&
+                    !vacancyList.contains(vacancy)) {
+                addVacancy(vacancy);
+                return true;
+            }
+            return false;
+        } finally {
+            metrics.record(Operation.REGISTER_VACANCY, timer);
         }
-        return false;
     }
 
     /**
      * Знаходить відповідні вакансії для безробітного
      */
     public List<Vacancy> findMatchingVacancies(Unemployed unemployed) {
-        List<Vacancy> matches = new ArrayList<>();
-        if (unemployed != null && unemployedList.contains(unemployed)) {
-            for (Vacancy vacancy : vacancyList) {
-                if (vacancy.isActive() && vacancy.matchesSpecialty(unemployed.getSpecialty())) {
-                    matches.add(vacancy);
+        long timer = metrics.start();
+        try {
+            List<Vacancy> matches = new ArrayList<>();
+            if (unemployed != null && unemployedList.contains(unemployed)) {
+                for (Vacancy vacancy : vacancyList) {
+                    if (vacancy.isActive() && vacancy.matchesSpecialty(unemployed.getSpecialty())) {
+                        matches.add(vacancy);
+                    }
                 }
             }
+            return matches;
+        } finally {
+            metrics.record(Operation.FIND_MATCHING_VACANCIES, timer);
         }
-        return matches;
     }
 
     /**
-     * Знаходить відповідні вакансії для будь-якого безробітного (без перевірки реєстрації)
+     * Лінивий варіант findMatchingVacancies: вакансії перевіряються лише в міру споживання потоку
      */
-    public List<Vacancy> findMatchingVacanciesForAny(String specialty) {
-        return vacancyList.stream()
-                .filter(Vacancy::isActive)
-                .filter(v -> v.matchesSpecialty(specialty))
-                .collect(Collectors.toList());
+    public Stream<Vacancy> streamMatchingVacancies(Unemployed unemployed) {
+        return matchingPositions(unemployed, 0).mapToObj(vacancyList::get);
     }
 
     /**
-     * Працевлаштовує безробітного на вакансію
+     * Сторінка відповідних вакансій; pageToken - маркер з попередньої сторінки або null для першої
      */
-    public boolean employUnemployed(Unemployed unemployed, Vacancy vacancy) {
-        // Перевіряємо базові умови
-        if (unemployed == null || vacancy == null) {
-            return false;
+    public Page<Vacancy> findMatchingVacancies(Unemployed unemployed, String pageToken, int pageSize) {
+        return Page.of(matchingPositions(unemployed, Page.start(pageToken)), vacancyList::get, pageSize);
+    }
+
+    private IntStream matchingPositions(Unemployed unemployed, int from) {
+        if (unemployed == null || !unemployedList.contains(unemployed)) {
+            return IntStream.empty();
         }
+        String specialty = unemployed.getSpecialty();
+        return IntStream.range(from, vacancyList.size()).filter(position -> {
+            Vacancy vacancy = vacancyList.get(position);
+            return vacancy.isActive() && vacancy.matchesSpecialty(specialty);
+        });
+    }
+
+    /**
+     * Знаходить відповідні вакансії для будь-якого безробітного (без перевірки реєстрації).
+     * Списки для однакових спеціальностей беруться з кешу зіставлень.
+     */
+    public List<Vacancy> findMatchingVacanciesForAny(String specialty) {
+        int[] positions = matchCache.positions(specialty, () -> IntStream.range(0, vacancyList.size())
+                .filter(position -> {
+                    Vacancy vacancy = vacancyList.get(position);
+                    return vacancy.isActive() && vacancy.matchesSpecialty(specialty);
+                })
+                .toArray());
+        List<Vacancy> matches = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            matches.add(vacancyList.get(position));
+        }
+        return matches;
+    }
+
+    /**
+     * Статистика кешу зіставлень findMatchingVacanciesForAny
+     */
+    public MatchCacheStats getMatchCacheStats() {
+        return matchCache.stats();
+    }
 
-        // Перевіряємо, чи зареєстровані учасники
-        boolean isUnemployedRegistered = unemployedList.contains(unemployed);
-        boolean isVacancyRegistered = vacancyList.contains(vacancy);
+    /**
+     * Змінює кількість спеціальностей у кеші зіставлень (0 - вимкнути кеш)
+     */
+    public void setMatchCacheCapacity(int capacity) {
+        matchCache.setCapacity(capacity);
+    }
 
-        // Якщо не зареєстровані, автоматично реєструємо
-        if (!isUnemployedRegistered) {
-            if (!unemployed.isValid()) {
+    /**
+     * Працевлаштовує безробітного на вакансію. Вакансія і кандидат займаються
+     * атомарно, як у {@link LaborExchangeSystem#employUnemployed}: уже працевлаштованого
+     * кандидата (зокрема іншим менеджером, системою чи паралельним викликом)
+     * повторно не працевлаштовує - повертає false, і вакансія лишається відкритою.
+     * До переходу на атомарне займання такий виклик повертав true і закривав вакансію,
+     * хоча кандидат уже мав роботу.
+     */
+    public boolean employUnemployed(Unemployed unemployed, Vacancy vacancy) {
+        long timer = metrics.start();
+        try {
+            // Перевіряємо базові умови
+            if (unemployed == null || vacancy == null) {
                 return false;
             }
-            unemployedList.add(unemployed);
-        }
 
-        if (!isVacancyRegistered) {
-            if (!vacancy.isValid()) {
+            // Перевіряємо, чи зареєстровані учасники
+            boolean isUnemployedRegistered = unemployedList.contains(unemployed);
+            boolean isVacancyRegistered = vacancyList.contains(vacancy);
+
+            // Якщо не зареєстровані, автоматично реєструємо
+            if (!isUnemployedRegistered) {
+                if (!unemployed.isValid()) {
+                    return false;
+                }
+                unemployedList.add(unemployed);
+            }
+
+            if (!isVacancyRegistered) {
+                if (!vacancy.isValid()) {
+                    return false;
+                }
+                addVacancy(vacancy);
+            }
+
+            // Перевіряємо, чи активна вакансія і чи відповідає спеціальність
+            if (!vacancy.isActive() || !vacancy.matchesSpecialty(unemployed.getSpecialty())) {
                 return false;
             }
-            vacancyList.add(vacancy);
-        }
 
-        // Перевіряємо, чи активна вакансія і чи відповідає спеціальність
-        if (!vacancy.isActive() || !vacancy.matchesSpecialty(unemployed.getSpecialty())) {
-            return false;
+            // Виконуємо працевлаштування: вакансію і кандидата займаємо атомарно
+            return LaborExchangeSystem.claim(unemployed, vacancy);
+        } finally {
+            metrics.record(Operation.EMPLOY_UNEMPLOYED, timer);
         }
-
-        // Виконуємо працевлаштування
-        unemployed.setEmployed(true);
-        vacancy.setActive(false);
-        return true;
     }
 
     /**
@@ -157,6 +256,84 @@ public class Manager {
         return false;
     }
 
+    /**
+     * Вмикає чи вимикає вимірювання операцій менеджера
+     */
+    public void setMetricsEnabled(boolean enabled) {
+        metrics.setEnabled(enabled);
+    }
+
+    public boolean isMetricsEnabled() {
+        return metrics.isEnabled();
+    }
+
+    /**
+     * Кількість викликів і перцентилі затримки кожної виміряної операції менеджера
+     */
+    public MetricsSnapshot getMetricsSnapshot() {
+        return metrics.snapshot();
+    }
+
+    public void resetMetrics() {
+        metrics.reset();
+    }
+
+    /**
+     * Публікує вимірювання в JMX як main.laborexchange:type=Manager,name=...;
+     * реєстрація знімається в {@link #close()}
+     */
+    public ObjectName registerMetricsMBean(String name) {
+        return metrics.register("Manager", name);
+    }
+
+    /**
+     * Знімає реєстрацію вимірювань у JMX
+     */
+    public void unregisterMetricsMBean() {
+        metrics.unregister();
+    }
+
+    /**
+     * Відписує менеджера від його вакансій і знімає реєстрацію вимірювань у JMX,
+     * щоб ні вакансії, які живуть довше за менеджера, ні MBeanServer не тримали
+     * його в пам'яті. Після цього кеш зіставлень вимкнено, бо зміни вакансій
+     * вже не відстежуються.
+     */
+    public void close() {
+        metrics.unregister();
+        matchCache.setCapacity(0);
+        for (Vacancy vacancy : vacancyList) {
+            for (VacancyListener listener : vacancy.listeners()) {
+                if (listener instanceof VacancyWatch && ((VacancyWatch) listener).owner() == this) {
+                    vacancy.removeListener(listener);
+                }
+            }
+        }
+    }
+
+    /**
+     * Слухач вакансії менеджера: позначає в кеші зіставлень її відкриття,
+     * закриття і зміну вимог
+     */
+    private class VacancyWatch implements VacancyListener {
+        // Лексеми вимог, з якими вакансія зараз активна (null - неактивна)
+        private Set<String> tokens;
+
+        Manager owner() {
+            return Manager.this;
+        }
+
+        @Override
+        public synchronized void vacancyChanged(Vacancy vacancy) {
+            Set<String> current = vacancy.isActive() ? vacancy.getRequirementTokens() : null;
+            if (current != tokens) {
+                matchCache.invalidate(tokens);
+                matchCache.invalidate(current);
+                tokens = current;
+            }
+        }
+    }
+
     @Override
     public String toString() {
         return String.format("Manager{name='%s', id='%s', unemployed=%d, vacancies=%d, employed=%d}",
@@ -0,0 +1,50 @@
+package main.laborexchange;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Результат зіставлення всіх безробітних з усіма активними вакансіями
+ */
+public class MatchAllResult {
+    private final Map<Unemployed, List<Vacancy>> matches;
+    private final long pairCount;
+    private final long elapsedNanos;
+    private final int parallelism;
+
+    MatchAllResult(Map<Unemployed, List<Vacancy>> matches, long pairCount,
+                   long elapsedNanos, int parallelism) {
+        this.matches = Collections.unmodifiableMap(matches);
+        this.pairCount = pairCount;
+        this.elapsedNanos = elapsedNanos;
+        this.parallelism = parallelism;
+    }
+
+    // Геттери
+    public Map<Unemployed, List<Vacancy>> getMatches() { return matches; }
+    public int getCandidateCount() { return matches.size(); }
+    public long getPairCount() { return pairCount; }
+    public long getElapsedNanos() { return elapsedNanos; }
+    public int getParallelism() { return parallelism; }
+
+    /**
+     * Пропускна здатність: оброблених кандидатів за секунду
+     */
+    public double getCandidatesPerSecond() {
+        return elapsedNanos > 0 ? matches.size() * 1e9 / elapsedNanos : 0.0;
+    }
+
+    /**
+     * Пропускна здатність: знайдених пар за секунду
+     */
+    public double getPairsPerSecond() {
+        return elapsedNanos > 0 ? pairCount * 1e9 / elapsedNanos : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MatchAllResult{candidates=%d, pairs=%d, time=%.1f ms, threads=%d, %.0f candidates/s}",
+                matches.size(), pairCount, elapsedNanos / 1e6, parallelism, getCandidatesPerSecond());
+    }
+}
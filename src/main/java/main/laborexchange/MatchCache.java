@@ -0,0 +1,185 @@
+package main.laborexchange;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Обмежений кеш результатів зіставлення: нормалізована спеціальність -> позиції
+ * відповідних активних вакансій. При переповненні витісняється запис, яким
+ * найдовше не користувались.
+ *
+ * Інвалідація точна: кожне ключове слово має лічильник версій, і власник кешу
+ * збільшує його для кожної лексеми вимог вакансії, що відкрилась, закрилась чи змінила
+ * вимоги, - вже після оновлення власного стану. Запис пам'ятає суму версій своїх
+ * слів на момент обчислення і вважається застарілим, щойно вона змінилась, тож
+ * зміна вакансії "Java" не зачіпає закешованого "Python". Результати для
+ * спеціальностей із шаблонними словами залежать від усіх вакансій і мають спільну версію.
+ *
+ * Лічильник слова існує, лише доки слово використовує хоча б один запис кешу або
+ * обчислення, що триває, тож кількість лічильників обмежена місткістю кешу.
+ */
+final class MatchCache {
+    static final int DEFAULT_CAPACITY = 1024;
+    // Сумарна кількість закешованих позицій, щоб широкі запити не з'їли купу
+    private static final int MAX_POSITIONS = 1 << 22;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // Змінюється під монітором кешу; invalidate лише читає
+    private final ConcurrentMap<String, WordVersion> versions = new ConcurrentHashMap<>();
+    private final AtomicLong anyChange = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder stale = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private int capacity = DEFAULT_CAPACITY;
+    private long cachedPositions;
+
+    /**
+     * Позиції для спеціальності: із кешу, якщо запис ще актуальний, інакше обчислені compute
+     */
+    int[] positions(String specialty, Supplier<int[]> compute) {
+        Keywords keywords = Keywords.of(specialty);
+        String key = keywords.normalized();
+        List<String> words = keywords.getWords();
+        long version;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                // Лічильники слів запису існують, доки існує сам запис
+                if (entry.version == version(keywords.hasPatterns(), entry.words)) {
+                    hits.increment();
+                    return entry.positions;
+                }
+                stale.increment();
+                remove(key);
+            }
+            retain(words);
+            version = version(keywords.hasPatterns(), words);
+        }
+        misses.increment();
+        // Версію прочитано до обчислення: зміна під час нього зробить запис застарілим
+        int[] positions;
+        try {
+            positions = compute.get();
+        } catch (RuntimeException | Error e) {
+            synchronized (this) {
+                release(words);
+            }
+            throw e;
+        }
+        put(key, new Entry(positions, version, words));
+        return positions;
+    }
+
+    /**
+     * Позначає зміну вакансій з цими лексемами вимог (null - лексем немає)
+     */
+    void invalidate(Collection<String> tokens) {
+        if (tokens != null) {
+            for (String token : tokens) {
+                WordVersion tokenVersion = versions.get(token);
+                if (tokenVersion != null) {
+                    tokenVersion.value.incrementAndGet();
+                }
+            }
+        }
+        anyChange.incrementAndGet();
+    }
+
+    synchronized void setCapacity(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Місткість кешу не може бути від'ємною");
+        }
+        this.capacity = capacity;
+        trim();
+    }
+
+    synchronized MatchCacheStats stats() {
+        return new MatchCacheStats(hits.sum(), misses.sum(), stale.sum(), evictions.sum(),
+                entries.size(), capacity);
+    }
+
+    /**
+     * Кількість слів, для яких зараз ведуться лічильники версій
+     */
+    synchronized int trackedWords() {
+        return versions.size();
+    }
+
+    // Слова мають бути утримані записом кешу або через retain
+    private long version(boolean patterns, List<String> words) {
+        long version = patterns ? anyChange.get() : 0;
+        for (String word : words) {
+            version += versions.get(word).value.get();
+        }
+        return version;
+    }
+
+    private void retain(List<String> words) {
+        for (String word : words) {
+            versions.computeIfAbsent(word, w -> new WordVersion()).users++;
+        }
+    }
+
+    private void release(List<String> words) {
+        for (String word : words) {
+            WordVersion version = versions.get(word);
+            if (--version.users == 0) {
+                versions.remove(word);
+            }
+        }
+    }
+
+    // Слова entry вже утримані; запис, що не потрапив до кешу, їх звільняє
+    private synchronized void put(String key, Entry entry) {
+        if (capacity == 0 || entry.positions.length > MAX_POSITIONS) {
+            release(entry.words);
+            return;
+        }
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            cachedPositions -= previous.positions.length;
+            release(previous.words);
+        }
+        cachedPositions += entry.positions.length;
+        trim();
+    }
+
+    private void trim() {
+        while (entries.size() > capacity || cachedPositions > MAX_POSITIONS) {
+            remove(entries.keySet().iterator().next());
+            evictions.increment();
+        }
+    }
+
+    private void remove(String key) {
+        Entry entry = entries.remove(key);
+        cachedPositions -= entry.positions.length;
+        release(entry.words);
+    }
+
+    private static final class Entry {
+        final int[] positions;
+        final long version;
+        final List<String> words;
+
+        Entry(int[] positions, long version, List<String> words) {
+            this.positions = positions;
+            this.version = version;
+            this.words = words;
+        }
+    }
+
+    private static final class WordVersion {
+        final AtomicLong value = new AtomicLong();
+        // Записи кешу й обчислення, що використовують слово
+        int users;
+    }
+}
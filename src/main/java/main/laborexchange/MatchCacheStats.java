@@ -0,0 +1,45 @@
+package main.laborexchange;
+
+import java.util.Locale;
+
+/**
+ * Статистика кешу зіставлень - для вибору його місткості
+ */
+public class MatchCacheStats {
+    private final long hits;
+    private final long misses;
+    private final long staleCount;
+    private final long evictions;
+    private final int size;
+    private final int capacity;
+
+    MatchCacheStats(long hits, long misses, long staleCount, long evictions, int size, int capacity) {
+        this.hits = hits;
+        this.misses = misses;
+        this.staleCount = staleCount;
+        this.evictions = evictions;
+        this.size = size;
+        this.capacity = capacity;
+    }
+
+    // Геттери
+    public long getHits() { return hits; }
+    public long getMisses() { return misses; }
+    /** Промахи через те, що відповідні вакансії змінились після кешування */
+    public long getStaleCount() { return staleCount; }
+    /** Записи, витіснені через брак місця */
+    public long getEvictions() { return evictions; }
+    public int getSize() { return size; }
+    public int getCapacity() { return capacity; }
+
+    public double getHitRate() {
+        long total = hits + misses;
+        return total > 0 ? (double) hits / total : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "MatchCacheStats{hits=%d, misses=%d, hitRate=%.1f%%, stale=%d, evictions=%d, size=%d/%d}",
+                hits, misses, getHitRate() * 100, staleCount, evictions, size, capacity);
+    }
+}
@@ -0,0 +1,42 @@
+package main.laborexchange;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Знімок вимірювань операцій системи чи менеджера
+ */
+public class MetricsSnapshot {
+    private final boolean enabled;
+    private final List<OperationStats> operations;
+
+    MetricsSnapshot(boolean enabled, List<OperationStats> operations) {
+        this.enabled = enabled;
+        this.operations = Collections.unmodifiableList(operations);
+    }
+
+    // Геттери
+    public boolean isEnabled() { return enabled; }
+    public List<OperationStats> getOperations() { return operations; }
+
+    /**
+     * Статистика операції за назвою методу або null, якщо вона ще не вимірювалась
+     */
+    public OperationStats get(String operation) {
+        for (OperationStats stats : operations) {
+            if (stats.getOperation().equals(operation)) {
+                return stats;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Metrics (").append(enabled ? "enabled" : "disabled").append("):");
+        for (OperationStats stats : operations) {
+            sb.append("\n- ").append(stats);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,152 @@
+package main.laborexchange;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Лічильники й гістограми затримок операцій системи чи менеджера.
+ * Поки вимірювання вимкнене, start() - це читання одного volatile-прапорця,
+ * а record() нічого не робить; гістограма операції створюється при першому записі.
+ *
+ * Використання: {@code long timer = metrics.start(); try { ... } finally { metrics.record(op, timer); }}
+ */
+final class OperationMetrics implements OperationMetricsMXBean {
+    // Позначка "не вимірювали": nanoTime ніколи не повертає саме це значення на практиці
+    private static final long NOT_TIMED = Long.MIN_VALUE;
+
+    /** Операції, що вимірюються; назви - як у публічних методах */
+    enum Operation {
+        ADD_UNEMPLOYED("addUnemployed"),
+        ADD_VACANCY("addVacancy"),
+        ADD_ALL_UNEMPLOYED("addAllUnemployed"),
+        ADD_ALL_VACANCIES("addAllVacancies"),
+        FIND_VACANCIES_FOR_UNEMPLOYED("findVacanciesForUnemployed"),
+        FIND_UNEMPLOYED_FOR_VACANCY("findUnemployedForVacancy"),
+        FIND_UNEMPLOYED_FOR_SPECIALTY("findUnemployedForSpecialty"),
+        EMPLOY_UNEMPLOYED("employUnemployed"),
+        GENERATE_MONTHLY_REPORT("generateMonthlyReport"),
+        GENERATE_PERIOD_REPORT("generatePeriodReport"),
+        MATCH_ALL("matchAll"),
+        REGISTER_UNEMPLOYED("registerUnemployed"),
+        REGISTER_VACANCY("registerVacancy"),
+        FIND_MATCHING_VACANCIES("findMatchingVacancies");
+
+        final String methodName;
+
+        Operation(String methodName) {
+            this.methodName = methodName;
+        }
+    }
+
+    private static final Operation[] OPERATIONS = Operation.values();
+
+    private final AtomicReferenceArray<LatencyHistogram> histograms =
+            new AtomicReferenceArray<>(OPERATIONS.length);
+    private volatile boolean enabled;
+    // Ім'я, під яким вимірювання зареєстровані в JMX (null - не зареєстровані)
+    private ObjectName objectName;
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public List<OperationStats> getOperations() {
+        return snapshot().getOperations();
+    }
+
+    /**
+     * Час початку операції або позначка, що вимірювання вимкнене
+     */
+    long start() {
+        return enabled ? System.nanoTime() : NOT_TIMED;
+    }
+
+    void record(Operation operation, long start) {
+        if (start != NOT_TIMED) {
+            histogram(operation).record(System.nanoTime() - start);
+        }
+    }
+
+    private LatencyHistogram histogram(Operation operation) {
+        LatencyHistogram histogram = histograms.get(operation.ordinal());
+        if (histogram == null) {
+            histograms.compareAndSet(operation.ordinal(), null, new LatencyHistogram());
+            histogram = histograms.get(operation.ordinal());
+        }
+        return histogram;
+    }
+
+    /**
+     * Статистика операцій, що виконувались хоча б раз, у порядку оголошення
+     */
+    MetricsSnapshot snapshot() {
+        List<OperationStats> operations = new ArrayList<>();
+        for (Operation operation : OPERATIONS) {
+            LatencyHistogram histogram = histograms.get(operation.ordinal());
+            if (histogram != null) {
+                operations.add(histogram.snapshot(operation.methodName));
+            }
+        }
+        return new MetricsSnapshot(enabled, operations);
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            LatencyHistogram histogram = histograms.get(i);
+            if (histogram != null) {
+                histogram.reset();
+            }
+        }
+    }
+
+    /**
+     * Реєструє вимірювання на платформному MBean-сервері як main.laborexchange:type=...,name=...;
+     * повторна реєстрація під тим самим ім'ям нічого не змінює, під іншим - замінює попереднє ім'я
+     */
+    synchronized ObjectName register(String type, String name) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName objectName = new ObjectName("main.laborexchange:type=" + type + ",name=" + ObjectName.quote(name));
+            if (objectName.equals(this.objectName) && server.isRegistered(objectName)) {
+                return objectName;
+            }
+            // Попереднє ім'я знімаємо першим; якщо нове зайняте, вимірювання лишаються незареєстрованими
+            unregister();
+            server.registerMBean(this, objectName);
+            this.objectName = objectName;
+            return objectName;
+        } catch (InstanceAlreadyExistsException e) {
+            throw new IllegalArgumentException("Ім'я вже зайняте: " + name, e);
+        } catch (JMException e) {
+            throw new IllegalStateException("Не вдалося зареєструвати вимірювання в JMX", e);
+        }
+    }
+
+    /**
+     * Знімає реєстрацію в JMX, якщо вона була
+     */
+    synchronized void unregister() {
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (JMException e) {
+                // Реєстрацію вже зняли ззовні
+            }
+            objectName = null;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package main.laborexchange;
+
+import java.util.List;
+
+/**
+ * JMX-інтерфейс вимірювань системи чи менеджера (доступний, наприклад, у JConsole)
+ */
+public interface OperationMetricsMXBean {
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    /**
+     * Статистика операцій, що виконувались хоча б раз
+     */
+    List<OperationStats> getOperations();
+
+    /**
+     * Обнуляє лічильники й гістограми
+     */
+    void reset();
+}
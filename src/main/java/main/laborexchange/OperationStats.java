@@ -0,0 +1,49 @@
+package main.laborexchange;
+
+import java.beans.ConstructorProperties;
+import java.util.Locale;
+
+/**
+ * Кількість викликів і розподіл затримок однієї операції. Перцентилі обчислені
+ * з гістограми з фіксованими кошиками - з точністю до 12,5% у бік більшого значення.
+ */
+public class OperationStats {
+    private final String operation;
+    private final long count;
+    private final long totalNanos;
+    private final long p50Nanos;
+    private final long p99Nanos;
+    private final long p999Nanos;
+    private final long maxNanos;
+
+    @ConstructorProperties({"operation", "count", "totalNanos", "p50Nanos", "p99Nanos", "p999Nanos", "maxNanos"})
+    public OperationStats(String operation, long count, long totalNanos,
+                          long p50Nanos, long p99Nanos, long p999Nanos, long maxNanos) {
+        this.operation = operation;
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.p50Nanos = p50Nanos;
+        this.p99Nanos = p99Nanos;
+        this.p999Nanos = p999Nanos;
+        this.maxNanos = maxNanos;
+    }
+
+    // Геттери
+    public String getOperation() { return operation; }
+    public long getCount() { return count; }
+    public long getTotalNanos() { return totalNanos; }
+    public long getP50Nanos() { return p50Nanos; }
+    public long getP99Nanos() { return p99Nanos; }
+    public long getP999Nanos() { return p999Nanos; }
+    public long getMaxNanos() { return maxNanos; }
+
+    public double getMeanNanos() {
+        return count > 0 ? (double) totalNanos / count : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "%s{count=%d, mean=%.1f us, p50=%.1f us, p99=%.1f us, p999=%.1f us, max=%.1f us}",
+                operation, count, getMeanNanos() / 1e3, p50Nanos / 1e3, p99Nanos / 1e3, p999Nanos / 1e3, maxNanos / 1e3);
+    }
+}
@@ -0,0 +1,71 @@
+package main.laborexchange;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Сторінка результатів пошуку з маркером наступної сторінки.
+ * Маркер - позиція в реєстрі, з якої продовжиться пошук; реєстри лише дописуються,
+ * тож маркер лишається дійсним і після нових реєстрацій.
+ */
+public class Page<T> {
+    private final List<T> items;
+    private final String nextPageToken;
+
+    Page(List<T> items, String nextPageToken) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextPageToken = nextPageToken;
+    }
+
+    // Геттери
+    public List<T> getItems() { return items; }
+    public String getNextPageToken() { return nextPageToken; }
+    public boolean hasNextPage() { return nextPageToken != null; }
+
+    /**
+     * Збирає сторінку з лінивого потоку позицій у порядку зростання:
+     * береться на один збіг більше, ніж поміститься, щоб дізнатися, де продовжити
+     */
+    static <T> Page<T> of(IntStream positions, IntFunction<T> records, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Розмір сторінки має бути додатним: " + pageSize);
+        }
+        List<T> items = new ArrayList<>(pageSize);
+        PrimitiveIterator.OfInt iterator = positions.limit(pageSize + 1L).iterator();
+        while (iterator.hasNext()) {
+            int position = iterator.nextInt();
+            if (items.size() == pageSize) {
+                return new Page<>(items, Integer.toString(position));
+            }
+            items.add(records.apply(position));
+        }
+        return new Page<>(items, null);
+    }
+
+    /**
+     * Позиція, з якої починається сторінка; null - перша сторінка
+     */
+    static int start(String pageToken) {
+        if (pageToken == null) {
+            return 0;
+        }
+        try {
+            int position = Integer.parseInt(pageToken);
+            if (position >= 0) {
+                return position;
+            }
+        } catch (NumberFormatException e) {
+            // нижче
+        }
+        throw new IllegalArgumentException("Невідомий маркер сторінки: " + pageToken);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Page{items=%d, next=%s}", items.size(), nextPageToken);
+    }
+}
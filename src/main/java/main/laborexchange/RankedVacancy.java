@@ -0,0 +1,25 @@
+package main.laborexchange;
+
+import java.util.Locale;
+
+/**
+ * Вакансія з оцінкою релевантності для безробітного
+ */
+public class RankedVacancy {
+    private final Vacancy vacancy;
+    private final double score;
+
+    RankedVacancy(Vacancy vacancy, double score) {
+        this.vacancy = vacancy;
+        this.score = score;
+    }
+
+    // Геттери
+    public Vacancy getVacancy() { return vacancy; }
+    public double getScore() { return score; }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "RankedVacancy{id='%s', score=%.3f}", vacancy.getId(), score);
+    }
+}
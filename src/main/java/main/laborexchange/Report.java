@@ -1,5 +1,11 @@
 package main.laborexchange;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
@@ -8,6 +14,8 @@ import java.util.List;
  * Клас, що представляє звіт біржі праці
  */
 public class Report {
+    private static final int CHANNEL_BUFFER_SIZE = 8192;
+
     private String reportId;
     private Date reportDate;
     private List<Unemployed> employedList;
@@ -24,6 +32,24 @@ public class Report {
         this.successRate = 0.0;
     }
 
+    /**
+     * Звіт з уже зібраними записами без повторів (див. {@link ReportBuilder})
+     */
+    Report(String reportId, List<Unemployed> employedList, List<Vacancy> closedVacancies) {
+        this(reportId, new Date(), employedList, closedVacancies);
+    }
+
+    /**
+     * Звіт із заданою датою створення (відтворення з журналу)
+     */
+    Report(String reportId, Date reportDate, List<Unemployed> employedList, List<Vacancy> closedVacancies) {
+        this(reportId);
+        this.reportDate = new Date(reportDate.getTime());
+        this.employedList = employedList;
+        this.closedVacancies = closedVacancies;
+        calculateStatistics();
+    }
+
     // Геттери
     public String getReportId() { return reportId; }
     public Date getReportDate() { return new Date(reportDate.getTime()); }
@@ -95,21 +121,42 @@ public class Report {
      */
     public String generateDetailedReport() {
         StringBuilder sb = new StringBuilder();
-        sb.append("=== Labor Exchange Report ===\n");
-        sb.append("Report ID: ").append(reportId).append("\n");
-        sb.append("Date: ").append(reportDate).append("\n");
-        sb.append("Employed: ").append(employedList.size()).append("\n");
-        sb.append("Closed Vacancies: ").append(closedVacancies.size()).append("\n");
-        sb.append("Success Rate: ").append(String.format("%.1f%%", successRate)).append("\n");
+        try {
+            writeDetailedReport(sb);
+        } catch (IOException e) {
+            // StringBuilder не кидає IOException
+            throw new UncheckedIOException(e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Записує детальний звіт у приймач рядок за рядком, не збираючи його в пам'яті
+     */
+    public void writeDetailedReport(Appendable out) throws IOException {
+        out.append("=== Labor Exchange Report ===\n");
+        out.append("Report ID: ").append(reportId).append("\n");
+        out.append("Date: ").append(String.valueOf(reportDate)).append("\n");
+        out.append("Employed: ").append(String.valueOf(employedList.size())).append("\n");
+        out.append("Closed Vacancies: ").append(String.valueOf(closedVacancies.size())).append("\n");
+        out.append("Success Rate: ").append(String.format("%.1f%%", successRate)).append("\n");
 
         if (!employedList.isEmpty()) {
-            sb.append("\nEmployed Persons:\n");
+            out.append("\nEmployed Persons:\n");
             for (Unemployed employed : employedList) {
-                sb.append(" - ").append(employed.getFullName()).append(" (").append(employed.getSpecialty()).append(")\n");
+                out.append(" - ").append(employed.getFullName()).append(" (").append(employed.getSpecialty()).append(")\n");
             }
         }
+    }
 
-        return sb.toString();
+    /**
+     * Записує детальний звіт у канал у кодуванні UTF-8 блоками обмеженого розміру.
+     * Канал після запису не закривається.
+     */
+    public void writeDetailedReport(WritableByteChannel channel) throws IOException {
+        Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), CHANNEL_BUFFER_SIZE);
+        writeDetailedReport(writer);
+        writer.flush();
     }
 
     @Override
@@ -0,0 +1,81 @@
+package main.laborexchange;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Пакетне складання звіту. Записи збираються за один прохід у хеш-множини
+ * з порядком додавання, а статистика рахується один раз у {@link #build()}.
+ * Результат такий самий, як після послідовних викликів
+ * {@link Report#addEmployed} та {@link Report#addClosedVacancy}.
+ */
+public class ReportBuilder {
+    private final String reportId;
+    private final Set<Unemployed> employed = new LinkedHashSet<>();
+    private final Set<Vacancy> closedVacancies = new LinkedHashSet<>();
+    private boolean parallel;
+
+    public ReportBuilder(String reportId) {
+        this.reportId = reportId;
+    }
+
+    /**
+     * Вмикає паралельний відбір записів у пакетних методах (для дуже великих реєстрів)
+     */
+    public ReportBuilder parallel(boolean parallel) {
+        this.parallel = parallel;
+        return this;
+    }
+
+    /**
+     * Додає працевлаштованого; непрацевлаштованих і повтори пропускає
+     */
+    public ReportBuilder addEmployed(Unemployed unemployed) {
+        if (unemployed != null && unemployed.isEmployed()) {
+            employed.add(unemployed);
+        }
+        return this;
+    }
+
+    /**
+     * Додає закриту вакансію; активні вакансії і повтори пропускає
+     */
+    public ReportBuilder addClosedVacancy(Vacancy vacancy) {
+        if (vacancy != null && !vacancy.isActive()) {
+            closedVacancies.add(vacancy);
+        }
+        return this;
+    }
+
+    public ReportBuilder addAllEmployed(Collection<? extends Unemployed> candidates) {
+        employed.addAll(select(candidates, u -> u != null && u.isEmployed()));
+        return this;
+    }
+
+    public ReportBuilder addAllClosedVacancies(Collection<? extends Vacancy> vacancies) {
+        closedVacancies.addAll(select(vacancies, v -> v != null && !v.isActive()));
+        return this;
+    }
+
+    /**
+     * Створює звіт і один раз рахує його статистику
+     */
+    public Report build() {
+        return new Report(reportId, new ArrayList<>(employed), new ArrayList<>(closedVacancies));
+    }
+
+    // Паралельний distinct на впорядкованому потоці залишає перше входження, як і послідовний
+    private <T> List<? extends T> select(Collection<? extends T> items, Predicate<? super T> filter) {
+        Stream<? extends T> stream = items.stream();
+        if (parallel) {
+            stream = stream.parallel();
+        }
+        return stream.filter(filter).distinct().collect(Collectors.toList());
+    }
+}
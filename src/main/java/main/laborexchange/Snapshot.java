@@ -0,0 +1,907 @@
+package main.laborexchange;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Двійковий знімок усієї біржі: безробітні, вакансії, менеджери з їхніми записами,
+ * звіти та події працевлаштування.
+ *
+ * Записи безробітних і вакансій лежать суцільними секціями з таблицями зміщень,
+ * тож кожен запис можна розкодувати окремо прямо з відображеного в пам'ять файлу.
+ * Менеджери, звіти й події посилаються на записи за їхнім номером у таблиці.
+ * Кожен запис зберігає й незмінний ключ, за яким на нього посилається журнал.
+ * Опис секцій зберігається в кінці файлу.
+ *
+ * Поруч із записами лежать готові індекси, лічильники й хеш-таблиці email та id,
+ * обчислені під час запису з тих самих значень, що записані в записах. Тож відновлена
+ * система не розкодовує записи заздалегідь: кожен розкодовується при першому зверненні.
+ *
+ * Якщо система веде журнал, знімок зберігає позицію журналу, якій відповідає:
+ * усі операції до неї в знімку є, жодної після - немає, тож після завантаження
+ * досить відтворити решту журналу.
+ */
+final class Snapshot {
+    private static final int MAGIC = 0x4C585331; // "LXS1"
+    private static final int VERSION = 4;
+    // Секції файлу в порядку запису
+    private static final int UNEMPLOYED_DATA = 0;
+    private static final int UNEMPLOYED_OFFSETS = 1;
+    private static final int VACANCY_DATA = 2;
+    private static final int VACANCY_OFFSETS = 3;
+    private static final int UNEMPLOYED_KEYS = 4;
+    private static final int VACANCY_KEYS = 5;
+    private static final int EMAIL_TABLE = 6;
+    private static final int ID_TABLE = 7;
+    private static final int INDEXES = 8;
+    private static final int TAIL = 9;
+    private static final int SECTIONS = 10;
+    private static final int FOOTER_SIZE = 4 * 6 + 8 * (SECTIONS + 2) + 4;
+    private static final long NO_JOURNAL = -1;
+    // Email безробітного й id вакансії йдуть одразу після ключа й прапорця стану
+    private static final int CHECKED_FIELD = 4 + 1;
+
+    private final MappedByteBuffer unemployedData;
+    private final IntBuffer unemployedOffsets;
+    private final MappedByteBuffer vacancyData;
+    private final IntBuffer vacancyOffsets;
+    // Позиція в реєстрі за ключем запису (-1 - такого ключа немає)
+    private final IntBuffer unemployedPositions;
+    private final IntBuffer vacancyPositions;
+    private final IntBuffer emailTable;
+    private final IntBuffer idTable;
+    private final MappedByteBuffer indexes;
+    private final MappedByteBuffer tail;
+    private final int registeredUnemployed;
+    private final int registeredVacancies;
+    private final long journalPosition;
+
+    private Snapshot(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size < FOOTER_SIZE) {
+            throw new IOException("Файл замалий для знімка: " + size + " байт");
+        }
+        ByteBuffer footer = ByteBuffer.allocate(FOOTER_SIZE);
+        while (footer.hasRemaining()) {
+            if (channel.read(footer, size - FOOTER_SIZE + footer.position()) < 0) {
+                throw new IOException("Неочікуваний кінець знімка");
+            }
+        }
+        footer.flip();
+        if (footer.getInt() != MAGIC || footer.getInt(FOOTER_SIZE - 4) != MAGIC) {
+            throw new IOException("Файл не є знімком біржі");
+        }
+        int version = footer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Непідтримувана версія знімка: " + version);
+        }
+        registeredUnemployed = footer.getInt();
+        int totalUnemployed = footer.getInt();
+        registeredVacancies = footer.getInt();
+        int totalVacancies = footer.getInt();
+        long[] sections = new long[SECTIONS + 1];
+        for (int i = 0; i < sections.length; i++) {
+            sections[i] = footer.getLong();
+        }
+        journalPosition = footer.getLong();
+
+        unemployedData = map(channel, sections, UNEMPLOYED_DATA);
+        unemployedOffsets = map(channel, sections, UNEMPLOYED_OFFSETS).asIntBuffer();
+        vacancyData = map(channel, sections, VACANCY_DATA);
+        vacancyOffsets = map(channel, sections, VACANCY_OFFSETS).asIntBuffer();
+        unemployedPositions = map(channel, sections, UNEMPLOYED_KEYS).asIntBuffer();
+        vacancyPositions = map(channel, sections, VACANCY_KEYS).asIntBuffer();
+        emailTable = map(channel, sections, EMAIL_TABLE).asIntBuffer();
+        idTable = map(channel, sections, ID_TABLE).asIntBuffer();
+        indexes = map(channel, sections, INDEXES);
+        tail = map(channel, sections, TAIL);
+        if (unemployedOffsets.limit() != totalUnemployed + 1 || vacancyOffsets.limit() != totalVacancies + 1
+                || registeredUnemployed > totalUnemployed || registeredVacancies > totalVacancies) {
+            throw new IOException("Пошкоджені таблиці зміщень знімка");
+        }
+        if (!isHashTable(emailTable) || !isHashTable(idTable)) {
+            throw new IOException("Пошкоджені хеш-таблиці знімка");
+        }
+    }
+
+    /**
+     * Відкриває знімок: відображає секції файлу в пам'ять, самі записи ще не розкодовуються
+     */
+    static Snapshot open(Path file) throws IOException {
+        // Відображення лишаються дійсними й після закриття каналу
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new Snapshot(channel);
+        }
+    }
+
+    int getUnemployedCount() {
+        return unemployedOffsets.limit() - 1;
+    }
+
+    int getVacancyCount() {
+        return vacancyOffsets.limit() - 1;
+    }
+
+    /**
+     * Кількість записів, що були зареєстровані в системі: вони йдуть першими
+     */
+    int getRegisteredUnemployed() {
+        return registeredUnemployed;
+    }
+
+    int getRegisteredVacancies() {
+        return registeredVacancies;
+    }
+
+    /**
+     * Наступний ключ, який видала б система, що записала знімок
+     */
+    int getNextUnemployedKey() {
+        return unemployedPositions.limit();
+    }
+
+    int getNextVacancyKey() {
+        return vacancyPositions.limit();
+    }
+
+    /**
+     * Позиція журналу, якій відповідає знімок, або -1, якщо система писалась без журналу
+     */
+    long getJournalPosition() {
+        return journalPosition;
+    }
+
+    /**
+     * Ключ безробітного з номером index у системі, що записала знімок
+     * (-1 - його там не було зареєстровано)
+     */
+    int unemployedKey(int index) {
+        return unemployedData.getInt(unemployedOffsets.get(index));
+    }
+
+    int vacancyKey(int index) {
+        return vacancyData.getInt(vacancyOffsets.get(index));
+    }
+
+    /**
+     * Номер зареєстрованого безробітного з ключем key або -1, якщо такого в знімку немає
+     */
+    int unemployedPosition(int key) {
+        return key >= 0 && key < unemployedPositions.limit() ? unemployedPositions.get(key) : -1;
+    }
+
+    int vacancyPosition(int key) {
+        return key >= 0 && key < vacancyPositions.limit() ? vacancyPositions.get(key) : -1;
+    }
+
+    /**
+     * Скільки зареєстрованих безробітних знімка мають цей email
+     */
+    int countEmail(String email) {
+        return count(emailTable, unemployedData, unemployedOffsets, email);
+    }
+
+    /**
+     * Скільки зареєстрованих вакансій знімка мають цей id
+     */
+    int countVacancyId(String id) {
+        return count(idTable, vacancyData, vacancyOffsets, id);
+    }
+
+    /**
+     * Розкодовує безробітного з номером index прямо з відображеного файлу
+     */
+    Unemployed unemployed(int index) {
+        ByteBuffer in = record(unemployedData, unemployedOffsets, index);
+        in.getInt(); // ключ
+        boolean employed = in.get() != 0;
+        String email = readString(in);
+        Unemployed unemployed = new Unemployed(readString(in), readString(in), readString(in),
+                readString(in), in.getInt(), email);
+        unemployed.setEmployed(employed);
+        return unemployed;
+    }
+
+    /**
+     * Розкодовує вакансію з номером index прямо з відображеного файлу
+     */
+    Vacancy vacancy(int index) {
+        ByteBuffer in = record(vacancyData, vacancyOffsets, index);
+        in.getInt(); // ключ
+        boolean active = in.get() != 0;
+        Vacancy vacancy = new Vacancy(readString(in), readString(in), readString(in),
+                readString(in), in.getDouble());
+        vacancy.setActive(active);
+        return vacancy;
+    }
+
+    /**
+     * Індекси й лічильники зареєстрованих записів у тому стані, в якому їх записано
+     */
+    Indexes readIndexes() {
+        ByteBuffer in = indexes.duplicate();
+        int employedCount = in.getInt();
+        int activeCount = in.getInt();
+        KeywordIndex unemployedIndex = new KeywordIndex(readPostings(in));
+        KeywordIndex specialtyTrigrams = new KeywordIndex(readPostings(in));
+        int[] patternUnemployed = readInts(in);
+        KeywordIndex vacancyIndex = new KeywordIndex(readPostings(in));
+        int[] salaryOrder = readInts(in);
+
+        double[] salaries = new double[registeredVacancies];
+        in.slice().asDoubleBuffer().get(salaries);
+        in.position(in.position() + 8 * salaries.length);
+        long[] active = new long[(registeredVacancies + 63) >>> 6];
+        in.slice().asLongBuffer().get(active);
+
+        double[] orderedSalaries = new double[salaryOrder.length];
+        for (int i = 0; i < salaryOrder.length; i++) {
+            orderedSalaries[i] = salaries[salaryOrder[i]];
+        }
+        return new Indexes(employedCount, activeCount, unemployedIndex, specialtyTrigrams, patternUnemployed,
+                vacancyIndex, new SalaryIndex(orderedSalaries, salaryOrder),
+                new VacancyColumns(salaries, active, registeredVacancies));
+    }
+
+    /**
+     * Відновлює систему. Зареєстровані записи розкодовуються лише при першому
+     * зверненні до них, індекси й лічильники беруться зі знімка готовими, а менеджери,
+     * звіти та події - за посиланнями на записи, тож завантажуються лише ті записи,
+     * на які вони посилаються.
+     */
+    LaborExchangeSystem restore(Clock clock) {
+        LaborExchangeSystem system = new LaborExchangeSystem(clock);
+        system.restore(this);
+        References<Unemployed> unemployed = new References<>(system.unemployedRegistry(),
+                getUnemployedCount(), this::unemployed);
+        References<Vacancy> vacancies = new References<>(system.vacancyRegistry(),
+                getVacancyCount(), this::vacancy);
+
+        ByteBuffer in = tail.duplicate();
+        int managerCount = in.getInt();
+        for (int m = 0; m < managerCount; m++) {
+            Manager manager = new Manager(readString(in), readString(in));
+            List<Unemployed> processedUnemployed = new ArrayList<>();
+            for (int i = in.getInt(); i > 0; i--) {
+                processedUnemployed.add(unemployed.get(in.getInt()));
+            }
+            List<Vacancy> processedVacancies = new ArrayList<>();
+            for (int i = in.getInt(); i > 0; i--) {
+                processedVacancies.add(vacancies.get(in.getInt()));
+            }
+            manager.restore(processedUnemployed, processedVacancies);
+            system.addManager(manager);
+        }
+        int reportCount = in.getInt();
+        for (int r = 0; r < reportCount; r++) {
+            String reportId = readString(in);
+            Date reportDate = new Date(in.getLong());
+            List<Unemployed> employed = new ArrayList<>();
+            for (int i = in.getInt(); i > 0; i--) {
+                employed.add(unemployed.get(in.getInt()));
+            }
+            List<Vacancy> closed = new ArrayList<>();
+            for (int i = in.getInt(); i > 0; i--) {
+                closed.add(vacancies.get(in.getInt()));
+            }
+            system.addReport(new Report(reportId, reportDate, employed, closed));
+        }
+        int eventCount = in.getInt();
+        for (int e = 0; e < eventCount; e++) {
+            EmploymentEvent.Type type = EmploymentEvent.Type.values()[in.get()];
+            long timestamp = in.getLong();
+            int ref = in.getInt();
+            system.restoreEvent(type, timestamp,
+                    type == EmploymentEvent.Type.EMPLOYED ? unemployed.get(ref) : null,
+                    type == EmploymentEvent.Type.VACANCY_CLOSED ? vacancies.get(ref) : null);
+        }
+        return system;
+    }
+
+    /**
+     * Записує знімок системи. Склад реєстрів, менеджерів, звітів і подій, ключі й email
+     * записів, стани працевлаштування й активності та позиція журналу фіксуються разом, поки жодна
+     * операція журналу не виконується наполовину; решта полів записів читається вже
+     * під час запису, і індекси будуються саме з прочитаних значень. Файл спершу пишеться
+     * поруч під тимчасовим ім'ям, синхронізується з диском і лише потім атомарно
+     * замінює попередній знімок.
+     */
+    static void write(LaborExchangeSystem system, Path file) throws IOException {
+        Contents contents = system.atCheckpoint(() -> new Contents(system));
+        Table<Unemployed> unemployed = contents.unemployed;
+        Table<Vacancy> vacancies = contents.vacancies;
+        List<Manager> managers = contents.managers;
+        List<Report> reports = contents.reports;
+        List<EmploymentEvent> events = contents.events;
+        int registeredUnemployed = unemployed.getRegistered();
+        int registeredVacancies = vacancies.getRegistered();
+
+        Path directory = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                Writer out = new Writer(channel);
+                long[] sections = new long[SECTIONS + 1];
+
+                // Індекси зареєстрованих безробітних - як у UnemployedEntry.prepare
+                int employedCount = 0;
+                Postings unemployedIndex = new Postings();
+                Postings specialtyTrigrams = new Postings();
+                Positions patternUnemployed = new Positions();
+                sections[UNEMPLOYED_DATA] = out.position();
+                int[] unemployedOffsets = new int[unemployed.size() + 1];
+                for (int i = 0; i < unemployed.size(); i++) {
+                    Unemployed u = unemployed.get(i);
+                    String specialty = u.getSpecialty();
+                    out.writeInt(contents.unemployedKeys[i]);
+                    out.writeByte(contents.employed[i] ? 1 : 0);
+                    out.writeString(contents.emails[i]);
+                    out.writeString(u.getFullName());
+                    out.writeString(u.getAddress());
+                    out.writeString(u.getPhone());
+                    out.writeString(specialty);
+                    out.writeInt(u.getAge());
+                    unemployedOffsets[i + 1] = out.offset(sections[UNEMPLOYED_DATA]);
+
+                    if (i < registeredUnemployed) {
+                        if (contents.employed[i]) {
+                            employedCount++;
+                        } else {
+                            Keywords keywords = Keywords.of(specialty);
+                            unemployedIndex.add(i, keywords.getWords());
+                            if (keywords.hasPatterns()) {
+                                patternUnemployed.add(i);
+                            }
+                            if (specialty != null) {
+                                specialtyTrigrams.add(i, KeywordIndex.trigrams(specialty.toLowerCase()));
+                            }
+                        }
+                    }
+                }
+                sections[UNEMPLOYED_OFFSETS] = out.position();
+                out.writeInts(unemployedOffsets);
+
+                // Індекси зареєстрованих вакансій - як у VacancyEntry.prepare
+                int activeCount = 0;
+                Postings vacancyIndex = new Postings();
+                List<SalaryIndex.Entry> salaryOrder = new ArrayList<>();
+                double[] salaries = new double[registeredVacancies];
+                long[] active = new long[(registeredVacancies + 63) >>> 6];
+                String[] ids = new String[registeredVacancies];
+                sections[VACANCY_DATA] = out.position();
+                int[] vacancyOffsets = new int[vacancies.size() + 1];
+                for (int i = 0; i < vacancies.size(); i++) {
+                    Vacancy v = vacancies.get(i);
+                    String id = v.getId();
+                    String requirements = v.getRequirements();
+                    double salary = v.getSalary();
+                    out.writeInt(contents.vacancyKeys[i]);
+                    out.writeByte(contents.active[i] ? 1 : 0);
+                    out.writeString(id);
+                    out.writeString(v.getPosition());
+                    out.writeString(v.getCompany());
+                    out.writeString(requirements);
+                    out.writeDouble(salary);
+                    vacancyOffsets[i + 1] = out.offset(sections[VACANCY_DATA]);
+
+                    if (i < registeredVacancies) {
+                        ids[i] = id;
+                        salaries[i] = salary;
+                        if (contents.active[i]) {
+                            active[i >>> 6] |= 1L << i;
+                            activeCount++;
+                            salaryOrder.add(new SalaryIndex.Entry(salary, i));
+                            vacancyIndex.add(i, Keywords.tokensOf(requirements).words);
+                        }
+                    }
+                }
+                sections[VACANCY_OFFSETS] = out.position();
+                out.writeInts(vacancyOffsets);
+
+                sections[UNEMPLOYED_KEYS] = out.position();
+                out.writeInts(positionsByKey(contents.unemployedKeys, registeredUnemployed, contents.nextUnemployedKey));
+                sections[VACANCY_KEYS] = out.position();
+                out.writeInts(positionsByKey(contents.vacancyKeys, registeredVacancies, contents.nextVacancyKey));
+                sections[EMAIL_TABLE] = out.position();
+                out.writeInts(hashTable(contents.emails, registeredUnemployed));
+                sections[ID_TABLE] = out.position();
+                out.writeInts(hashTable(ids, registeredVacancies));
+
+                sections[INDEXES] = out.position();
+                out.writeInt(employedCount);
+                out.writeInt(activeCount);
+                unemployedIndex.write(out);
+                specialtyTrigrams.write(out);
+                patternUnemployed.write(out);
+                vacancyIndex.write(out);
+                salaryOrder.sort(SalaryIndex.ORDER);
+                out.writeInt(salaryOrder.size());
+                for (SalaryIndex.Entry entry : salaryOrder) {
+                    out.writeInt(entry.position);
+                }
+                for (double salary : salaries) {
+                    out.writeDouble(salary);
+                }
+                for (long word : active) {
+                    out.writeLong(word);
+                }
+
+                sections[TAIL] = out.position();
+                out.writeInt(managers.size());
+                for (int m = 0; m < managers.size(); m++) {
+                    Manager manager = managers.get(m);
+                    out.writeString(manager.getName());
+                    out.writeString(manager.getEmployeeId());
+                    List<Unemployed> processedUnemployed = contents.processedUnemployed.get(m);
+                    out.writeInt(processedUnemployed.size());
+                    for (Unemployed u : processedUnemployed) {
+                        out.writeInt(unemployed.indexOf(u));
+                    }
+                    List<Vacancy> processedVacancies = contents.processedVacancies.get(m);
+                    out.writeInt(processedVacancies.size());
+                    for (Vacancy v : processedVacancies) {
+                        out.writeInt(vacancies.indexOf(v));
+                    }
+                }
+                out.writeInt(reports.size());
+                for (Report report : reports) {
+                    out.writeString(report.getReportId());
+                    out.writeLong(report.getReportDate().getTime());
+                    List<Unemployed> employed = report.getEmployedList();
+                    out.writeInt(employed.size());
+                    for (Unemployed u : employed) {
+                        out.writeInt(unemployed.indexOf(u));
+                    }
+                    List<Vacancy> closed = report.getClosedVacancies();
+                    out.writeInt(closed.size());
+                    for (Vacancy v : closed) {
+                        out.writeInt(vacancies.indexOf(v));
+                    }
+                }
+                out.writeInt(events.size());
+                for (EmploymentEvent event : events) {
+                    boolean employed = event.getType() == EmploymentEvent.Type.EMPLOYED;
+                    out.writeByte(event.getType().ordinal());
+                    out.writeLong(event.getTimestamp());
+                    out.writeInt(employed ? unemployed.indexOf(event.getUnemployed())
+                            : vacancies.indexOf(event.getVacancy()));
+                }
+                sections[SECTIONS] = out.position();
+
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(registeredUnemployed);
+                out.writeInt(unemployed.size());
+                out.writeInt(registeredVacancies);
+                out.writeInt(vacancies.size());
+                for (long section : sections) {
+                    out.writeLong(section);
+                }
+                out.writeLong(contents.journalPosition);
+                out.writeInt(MAGIC);
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // Позиції зареєстрованих записів за ключем; ключі без запису - -1
+    private static int[] positionsByKey(int[] keys, int registered, int nextKey) {
+        int[] positions = new int[nextKey];
+        Arrays.fill(positions, -1);
+        for (int i = 0; i < registered; i++) {
+            positions[keys[i]] = i;
+        }
+        return positions;
+    }
+
+    /**
+     * Хеш-таблиця з відкритою адресацією над першими count значеннями: пари
+     * (хеш рядка, номер запису + 1), порожня комірка - нульова пара. Місткість -
+     * степінь двійки, не менша за подвоєну кількість, тож порожні комірки завжди є.
+     */
+    private static int[] hashTable(String[] values, int count) {
+        int capacity = Integer.highestOneBit(Math.max(2, count * 2 - 1)) << 1;
+        int[] table = new int[capacity * 2];
+        for (int i = 0; i < count; i++) {
+            if (values[i] != null) {
+                int hash = values[i].hashCode();
+                int slot = spread(hash) & (capacity - 1);
+                while (table[2 * slot + 1] != 0) {
+                    slot = (slot + 1) & (capacity - 1);
+                }
+                table[2 * slot] = hash;
+                table[2 * slot + 1] = i + 1;
+            }
+        }
+        return table;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean isHashTable(IntBuffer table) {
+        int capacity = table.limit() / 2;
+        return table.limit() % 2 == 0 && capacity >= 2 && Integer.bitCount(capacity) == 1;
+    }
+
+    // Кількість записів таблиці, чий рядок одразу після ключа й прапорця дорівнює value
+    private static int count(IntBuffer table, MappedByteBuffer data, IntBuffer offsets, String value) {
+        if (value == null) {
+            return 0;
+        }
+        int mask = table.limit() / 2 - 1;
+        int hash = value.hashCode();
+        byte[] bytes = null;
+        int count = 0;
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            int ref = table.get(2 * slot + 1);
+            if (ref == 0) {
+                return count;
+            }
+            if (table.get(2 * slot) == hash) {
+                if (bytes == null) {
+                    bytes = value.getBytes(StandardCharsets.UTF_8);
+                }
+                if (stringEquals(data, offsets.get(ref - 1) + CHECKED_FIELD, bytes)) {
+                    count++;
+                }
+            }
+        }
+    }
+
+    // Порівнює рядок, записаний з позиції offset, з байтами без копіювання
+    private static boolean stringEquals(MappedByteBuffer data, int offset, byte[] bytes) {
+        if (data.getInt(offset) != bytes.length) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (data.get(offset + 4 + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long[] sections, int section) throws IOException {
+        long from = sections[section];
+        long to = sections[section + 1];
+        if (from < 0 || to < from || to > channel.size() || to - from > Integer.MAX_VALUE) {
+            throw new IOException("Пошкоджений опис секцій знімка");
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+    }
+
+    // Власна копія буфера на кожен запис, тож розкодування можна вести з багатьох потоків
+    private static ByteBuffer record(MappedByteBuffer data, IntBuffer offsets, int index) {
+        ByteBuffer record = data.duplicate();
+        record.limit(offsets.get(index + 1)).position(offsets.get(index));
+        return record;
+    }
+
+    // Списки позицій за ключами: кількість ключів, далі ключ і його позиції за зростанням
+    private static Map<String, int[]> readPostings(ByteBuffer in) {
+        int keyCount = in.getInt();
+        Map<String, int[]> postings = new HashMap<>(Math.max(16, keyCount * 4 / 3 + 1));
+        for (int k = 0; k < keyCount; k++) {
+            String key = readString(in);
+            postings.put(key, readInts(in));
+        }
+        return postings;
+    }
+
+    private static int[] readInts(ByteBuffer in) {
+        int[] values = new int[in.getInt()];
+        in.slice().asIntBuffer().get(values);
+        in.position(in.position() + 4 * values.length);
+        return values;
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Вміст знімка, зафіксований в одній точці журналу. Реєстри йдуть першими,
+     * далі записи, відомі лише менеджерам, звітам чи подіям.
+     */
+    private static final class Contents {
+        final Table<Unemployed> unemployed;
+        final Table<Vacancy> vacancies;
+        final List<Manager> managers;
+        final List<List<Unemployed>> processedUnemployed = new ArrayList<>();
+        final List<List<Vacancy>> processedVacancies = new ArrayList<>();
+        final List<Report> reports;
+        final List<EmploymentEvent> events;
+        final boolean[] employed;
+        final boolean[] active;
+        final int[] unemployedKeys;
+        final int[] vacancyKeys;
+        // Email у тому стані, що вже записаний до журналу
+        final String[] emails;
+        final int nextUnemployedKey;
+        final int nextVacancyKey;
+        final long journalPosition;
+
+        Contents(LaborExchangeSystem system) {
+            unemployed = new Table<>(system.unemployedRegistry());
+            vacancies = new Table<>(system.vacancyRegistry());
+            managers = system.managerList();
+            reports = system.reportList();
+            events = system.eventList();
+            for (Manager manager : managers) {
+                List<Unemployed> managerUnemployed = manager.getProcessedUnemployed();
+                List<Vacancy> managerVacancies = manager.getProcessedVacancies();
+                managerUnemployed.forEach(unemployed::indexOf);
+                managerVacancies.forEach(vacancies::indexOf);
+                processedUnemployed.add(managerUnemployed);
+                processedVacancies.add(managerVacancies);
+            }
+            for (Report report : reports) {
+                report.getEmployedList().forEach(unemployed::indexOf);
+                report.getClosedVacancies().forEach(vacancies::indexOf);
+            }
+            for (EmploymentEvent event : events) {
+                if (event.getType() == EmploymentEvent.Type.EMPLOYED) {
+                    unemployed.indexOf(event.getUnemployed());
+                } else {
+                    vacancies.indexOf(event.getVacancy());
+                }
+            }
+            employed = new boolean[unemployed.size()];
+            unemployedKeys = new int[unemployed.size()];
+            emails = new String[unemployed.size()];
+            for (int i = 0; i < employed.length; i++) {
+                Unemployed u = unemployed.get(i);
+                employed[i] = u.isEmployed();
+                unemployedKeys[i] = system.unemployedKey(u);
+                emails[i] = system.countedEmail(u);
+            }
+            active = new boolean[vacancies.size()];
+            vacancyKeys = new int[vacancies.size()];
+            for (int i = 0; i < active.length; i++) {
+                active[i] = vacancies.get(i).isActive();
+                vacancyKeys[i] = system.vacancyKey(vacancies.get(i));
+            }
+            nextUnemployedKey = system.nextUnemployedKey();
+            nextVacancyKey = system.nextVacancyKey();
+            journalPosition = system.journalPosition();
+        }
+    }
+
+    /**
+     * Готові індекси й лічильники зареєстрованих записів, прочитані зі знімка
+     */
+    static final class Indexes {
+        final int employedCount;
+        final int activeCount;
+        final KeywordIndex unemployedIndex;
+        final KeywordIndex specialtyTrigrams;
+        final int[] patternUnemployed;
+        final KeywordIndex vacancyIndex;
+        final SalaryIndex salaryIndex;
+        final VacancyColumns vacancyColumns;
+
+        Indexes(int employedCount, int activeCount, KeywordIndex unemployedIndex, KeywordIndex specialtyTrigrams,
+                int[] patternUnemployed, KeywordIndex vacancyIndex, SalaryIndex salaryIndex,
+                VacancyColumns vacancyColumns) {
+            this.employedCount = employedCount;
+            this.activeCount = activeCount;
+            this.unemployedIndex = unemployedIndex;
+            this.specialtyTrigrams = specialtyTrigrams;
+            this.patternUnemployed = patternUnemployed;
+            this.vacancyIndex = vacancyIndex;
+            this.salaryIndex = salaryIndex;
+            this.vacancyColumns = vacancyColumns;
+        }
+    }
+
+    /**
+     * Записи за номером у знімку: зареєстровані беруться з реєстру відновленої системи
+     * (і завантажуються там), решта розкодовуються один раз, тож менеджери, звіти
+     * й події ділять ті самі екземпляри
+     */
+    private static final class References<T> {
+        private final List<T> registry;
+        private final Object[] others;
+        private final IntFunction<T> decode;
+
+        References(List<T> registry, int total, IntFunction<T> decode) {
+            this.registry = registry;
+            this.others = new Object[total - registry.size()];
+            this.decode = decode;
+        }
+
+        @SuppressWarnings("unchecked")
+        T get(int index) {
+            if (index < registry.size()) {
+                return registry.get(index);
+            }
+            int other = index - registry.size();
+            if (others[other] == null) {
+                others[other] = decode.apply(index);
+            }
+            return (T) others[other];
+        }
+    }
+
+    /**
+     * Позиції, що додаються за зростанням
+     */
+    private static final class Positions {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int position) {
+            // Ключове слово може повторитися в одному записі
+            if (size > 0 && values[size - 1] == position) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = position;
+        }
+
+        void write(Writer out) throws IOException {
+            out.writeInt(size);
+            for (int i = 0; i < size; i++) {
+                out.writeInt(values[i]);
+            }
+        }
+    }
+
+    /**
+     * Списки позицій за ключами, що будуються під час запису знімка
+     */
+    private static final class Postings {
+        private final Map<String, Positions> postings = new HashMap<>();
+
+        void add(int position, Collection<String> keys) {
+            for (String key : keys) {
+                postings.computeIfAbsent(key, k -> new Positions()).add(position);
+            }
+        }
+
+        void write(Writer out) throws IOException {
+            out.writeInt(postings.size());
+            for (Map.Entry<String, Positions> entry : postings.entrySet()) {
+                out.writeString(entry.getKey());
+                entry.getValue().write(out);
+            }
+        }
+    }
+
+    /**
+     * Таблиця записів з номерами за тотожністю: спершу зареєстровані, далі додані за посиланнями
+     */
+    private static final class Table<T> {
+        private final List<T> records;
+        private final Map<T, Integer> numbers = new IdentityHashMap<>();
+        private final int registered;
+
+        Table(List<T> registry) {
+            this.records = new ArrayList<>(registry);
+            this.registered = records.size();
+            for (int i = 0; i < registered; i++) {
+                numbers.put(records.get(i), i);
+            }
+        }
+
+        int indexOf(T record) {
+            return numbers.computeIfAbsent(record, r -> {
+                records.add(r);
+                return records.size() - 1;
+            });
+        }
+
+        T get(int index) {
+            return records.get(index);
+        }
+
+        int size() {
+            return records.size();
+        }
+
+        int getRegistered() {
+            return registered;
+        }
+    }
+
+    /**
+     * Буферизований запис у канал з відліком позиції у файлі
+     */
+    private static final class Writer {
+        private final DataOutputStream out;
+        private long position;
+
+        Writer(FileChannel channel) {
+            this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+        }
+
+        long position() {
+            return position;
+        }
+
+        // Зміщення поточної позиції від початку секції
+        int offset(long sectionStart) throws IOException {
+            long offset = position - sectionStart;
+            if (offset > Integer.MAX_VALUE) {
+                throw new IOException("Секція знімка перевищує 2 ГБ");
+            }
+            return (int) offset;
+        }
+
+        void writeString(String value) throws IOException {
+            if (value == null) {
+                writeInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeInt(bytes.length);
+            out.write(bytes);
+            position += bytes.length;
+        }
+
+        void writeByte(int value) throws IOException {
+            out.writeByte(value);
+            position += 1;
+        }
+
+        void writeInt(int value) throws IOException {
+            out.writeInt(value);
+            position += 4;
+        }
+
+        void writeInts(int[] values) throws IOException {
+            for (int value : values) {
+                writeInt(value);
+            }
+        }
+
+        void writeLong(long value) throws IOException {
+            out.writeLong(value);
+            position += 8;
+        }
+
+        void writeDouble(double value) throws IOException {
+            out.writeDouble(value);
+            position += 8;
+        }
+
+        void flush() throws IOException {
+            out.flush();
+        }
+    }
+}
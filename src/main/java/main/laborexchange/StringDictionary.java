@@ -0,0 +1,147 @@
+package main.laborexchange;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Словник рядків, що масово повторюються між записами: спеціальностей, компаній,
+ * вимог і їхніх лексем. Кожне значення зберігається в одному екземплярі й має
+ * власний номер, тож зіставлення порівнює числа, а не рядки.
+ *
+ * Словник тримає рядки слабкими посиланнями: значення, яке більше не використовує
+ * жоден запис (наприклад, замінене сеттером), прибирає збирач сміття. Номер рядка
+ * незмінний, доки хтось тримає його спільний екземпляр; повторно доданий рядок
+ * отримує новий номер. Слова пошукових запитів шукаються через {@link #find(String)},
+ * яке нічого не додає: слова, якого немає в словнику, немає й у жодних вимогах.
+ */
+final class StringDictionary {
+    private static final ConcurrentMap<Object, Entry> ENTRIES = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<String> COLLECTED = new ReferenceQueue<>();
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+    // Змінюється після додавання кожного нового рядка
+    private static final AtomicInteger GENERATION = new AtomicInteger();
+
+    private StringDictionary() {
+    }
+
+    /**
+     * Спільний екземпляр рядка, рівного value; додає value, якщо такого ще немає
+     */
+    static String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        while (true) {
+            Entry entry = ENTRIES.get(new Probe(value));
+            String shared = entry != null ? entry.get() : null;
+            if (shared != null) {
+                return shared;
+            }
+            expunge();
+            Entry created = new Entry(value, NEXT_ID.getAndIncrement());
+            if (ENTRIES.putIfAbsent(created, created) == null) {
+                GENERATION.incrementAndGet();
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Спільний екземпляр рядка, рівного value, або null, якщо його немає в словнику.
+     * На відміну від intern нічого не додає.
+     */
+    static String find(String value) {
+        Entry entry = ENTRIES.get(new Probe(value));
+        return entry != null ? entry.get() : null;
+    }
+
+    /**
+     * Номер рядка в словнику (рядок додається, якщо його ще немає); рівні рядки,
+     * що використовуються одночасно, мають рівні номери
+     */
+    static int id(String value) {
+        while (true) {
+            Entry entry = ENTRIES.get(new Probe(intern(value)));
+            // Між intern і get рядок не може зникнути, якщо value - спільний екземпляр;
+            // інакше повторюємо
+            if (entry != null && entry.get() != null) {
+                return entry.id;
+            }
+        }
+    }
+
+    /**
+     * Лічильник, що змінюється з кожним новим рядком: якщо він не змінився,
+     * рядок, не знайдений через find, досі відсутній
+     */
+    static int generation() {
+        return GENERATION.get();
+    }
+
+    /**
+     * Кількість різних рядків у словнику
+     */
+    static int size() {
+        expunge();
+        return ENTRIES.size();
+    }
+
+    private static void expunge() {
+        Object collected;
+        while ((collected = COLLECTED.poll()) != null) {
+            ENTRIES.remove(collected);
+        }
+    }
+
+    /**
+     * Запис словника, що є й власним ключем: рівний іншому запису з рівним рядком
+     */
+    private static final class Entry extends WeakReference<String> {
+        final int id;
+        private final int hash;
+
+        Entry(String value, int id) {
+            super(value, COLLECTED);
+            this.id = id;
+            this.hash = value.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            String value = get();
+            return value != null && o instanceof Entry && value.equals(((Entry) o).get());
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Ключ пошуку, рівний запису з таким самим рядком; сам у словник не потрапляє
+     */
+    private static final class Probe {
+        private final String value;
+
+        Probe(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Entry && value.equals(((Entry) o).get());
+        }
+
+        @Override
+        public int hashCode() {
+            return value.hashCode();
+        }
+    }
+}
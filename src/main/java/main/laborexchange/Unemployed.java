@@ -1,25 +1,40 @@
 package main.laborexchange;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
 import java.util.Objects;
 
 /**
  * Клас, що представляє безробітного в системі біржі праці
  */
 public class Unemployed {
+    private static final VarHandle EMPLOYED;
+
+    static {
+        try {
+            EMPLOYED = MethodHandles.lookup().findVarHandle(Unemployed.class, "isEmployed", boolean.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     private String fullName;
     private String address;
     private String phone;
-    private String specialty;
+    private volatile String specialty;
     private int age;
-    private boolean isEmployed;
-    private String email;
+    private volatile boolean isEmployed;
+    private volatile String email;
+    private volatile UnemployedListener[] listeners = new UnemployedListener[0];
 
     public Unemployed(String fullName, String address, String phone,
                       String specialty, int age, String email) {
         this.fullName = fullName;
         this.address = address;
         this.phone = phone;
-        this.specialty = specialty;
+        // Спеціальності масово повторюються - зберігаємо спільні екземпляри
+        this.specialty = StringDictionary.intern(specialty);
         this.age = age;
         this.email = email;
         this.isEmployed = false;
@@ -38,15 +53,90 @@ public class Unemployed {
     public void setFullName(String fullName) { this.fullName = fullName; }
     public void setAddress(String address) { this.address = address; }
     public void setPhone(String phone) { this.phone = phone; }
-    public void setSpecialty(String specialty) { this.specialty = specialty; }
+    public void setSpecialty(String specialty) {
+        this.specialty = StringDictionary.intern(specialty);
+        notifyListeners();
+    }
     public void setAge(int age) { this.age = age; }
-    public void setEmail(String email) { this.email = email; }
-    public void setEmployed(boolean employed) { this.isEmployed = employed; }
+    public void setEmail(String email) {
+        this.email = email;
+        notifyListeners();
+    }
+    public void setEmployed(boolean employed) {
+        // Сповіщає лише той потік, який справді змінив статус
+        if (EMPLOYED.compareAndSet(this, !employed, employed)) {
+            notifyListeners();
+        }
+    }
+
+    /**
+     * Атомарно позначає безробітного працевлаштованим. Повертає true лише тому
+     * з конкуруючих потоків, який зробив це першим; для вже працевлаштованого - false.
+     */
+    public boolean tryEmploy() {
+        if (claimEmployed()) {
+            notifyListeners();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Те саме, що tryEmploy, але без сповіщення слухачів: викликач сповіщає сам
+     */
+    boolean claimEmployed() {
+        return EMPLOYED.compareAndSet(this, false, true);
+    }
+
+    /**
+     * Підписує систему на зміни безробітного
+     */
+    synchronized void addListener(UnemployedListener listener) {
+        UnemployedListener[] updated = Arrays.copyOf(listeners, listeners.length + 1);
+        updated[listeners.length] = listener;
+        listeners = updated;
+    }
+
+    /**
+     * Відписує слухача; повертає false, якщо його не було
+     */
+    synchronized boolean removeListener(UnemployedListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                UnemployedListener[] updated = new UnemployedListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, updated, 0, i);
+                System.arraycopy(listeners, i + 1, updated, i, updated.length - i);
+                listeners = updated;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Поточні слухачі (масив не змінюється - підписка створює новий)
+     */
+    UnemployedListener[] listeners() {
+        return listeners;
+    }
+
+    void notifyListeners() {
+        for (UnemployedListener listener : listeners()) {
+            listener.unemployedChanged(this);
+        }
+    }
 
     /**
      * Перевіряє чи є дані безробітного валідними
      */
     public boolean isValid() {
+        // Через геттери, щоб так само працювали представлення рядків UnemployedStore
+        String fullName = getFullName();
+        String address = getAddress();
+        String phone = getPhone();
+        String specialty = getSpecialty();
+        String email = getEmail();
+        int age = getAge();
         return fullName != null && !fullName.trim().isEmpty() &&
                 address != null && !address.trim().isEmpty() &&
                 phone != null && !phone.trim().isEmpty() &&
@@ -59,13 +149,14 @@ public class Unemployed {
      * Перевіряє чи може безробітний вийти на пенсію
      */
     public boolean canRetire() {
-        return age >= 60;
+        return getAge() >= 60;
     }
 
     /**
      * Повертає ініціали безробітного
      */
     public String getInitials() {
+        String fullName = getFullName();
         if (fullName == null || fullName.trim().isEmpty()) {
             return "";
         }
@@ -79,19 +170,21 @@ public class Unemployed {
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
+        // Без порівняння класів: представлення рядка UnemployedStore рівне
+        // звичайному об'єкту з тим самим email
+        if (!(o instanceof Unemployed)) return false;
         Unemployed that = (Unemployed) o;
-        return Objects.equals(email, that.email);
+        return Objects.equals(getEmail(), that.getEmail());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(email);
+        return Objects.hash(getEmail());
     }
 
     @Override
     public String toString() {
         return String.format("Unemployed{name='%s', specialty='%s', age=%d, employed=%s}",
-                fullName, specialty, age, isEmployed);
+                getFullName(), getSpecialty(), getAge(), isEmployed());
     }
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package main.laborexchange;
+
+/**
+ * Слухач змін безробітного, через який система підтримує свої індекси
+ */
+interface UnemployedListener {
+
+    /**
+     * Викликається після зміни статусу працевлаштування, спеціальності або email.
+     * Слухач сам звіряє свій стан з поточним станом безробітного,
+     * тому повторні чи переставлені виклики з різних потоків безпечні.
+     */
+    void unemployedChanged(Unemployed unemployed);
+}
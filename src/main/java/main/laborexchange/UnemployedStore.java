@@ -0,0 +1,463 @@
+package main.laborexchange;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Компактне сховище безробітних для мільйонів записів. Замість об'єкта на запис
+ * дані лежать у стовпчиках: ім'я, адреса, телефон і email - послідовно в спільному
+ * байтовому масиві (UTF-8, кожне поле з префіксом довжини), а на рядок припадають
+ * лише зміщення в ньому, номер спеціальності, вік і біт працевлаштування.
+ *
+ * {@link #get(int)} повертає легке представлення рядка - Unemployed, що читає
+ * й змінює дані сховища напряму. Представлення створюються на вимогу й не зберігаються,
+ * тож два виклики get повертають різні, але рівні (за email) об'єкти. Слухачі змін
+ * (наприклад, системи, куди зареєстровано рядок) зберігаються в сховищі для рядка,
+ * а не в представленні, тож зміна через будь-яке представлення доходить до всіх.
+ * {@link #asList()} дає всі рядки як список, напр. для LaborExchangeSystem.addAllUnemployed.
+ * Представлення рівне звичайному Unemployed з тим самим email.
+ *
+ * Сховище поки не лежить в основі реєстру LaborExchangeSystem: система зберігає
+ * представлення, додані через asList(), у своєму реєстрі й індексах так само, як
+ * звичайні об'єкти, тож пам'ять системи на запис від цього не зменшується. Виграш
+ * нижче стосується лише даних, що живуть у самому сховищі.
+ *
+ * Читання не блокує: рядки в байтовому масиві не змінюються після запису
+ * (зміна поля дописує новий рядок), тож достатньо оптимістичного читання зміщення.
+ * Кожен виклик геттера рядкового поля декодує новий String, крім спеціальності.
+ *
+ * На 5 млн записів генератора HeapFootprint (після trimToSize) рядок займає 107 байт
+ * купи проти 346 байт для об'єкта Unemployed з його рядками - у 3,2 раза менше.
+ */
+public final class UnemployedStore {
+    private static final int NAME = 0;
+    private static final int ADDRESS = 1;
+    private static final int PHONE = 2;
+    private static final int EMAIL = 3;
+    private static final int FIELDS = 4;
+    private static final int NO_SPECIALTY = -1;
+    // Біти працевлаштування зберігаються блоками, які ніколи не замінюються,
+    // тож атомарні операції над ними не конфліктують з ростом сховища
+    private static final int BLOCK_ROWS = 1 << 16;
+    private static final UnemployedListener[] NO_LISTENERS = new UnemployedListener[0];
+
+    // Записи виконуються під блокуванням запису, читання - оптимістично
+    private final StampedLock lock = new StampedLock();
+    private byte[] arena = new byte[4096];
+    private int arenaSize;
+    private int[] rowOffsets = new int[256];
+    private int[] specialties = new int[256];
+    private int[] ages = new int[256];
+    // Слухачі рядків (null - слухачів немає)
+    private UnemployedListener[][] listeners = new UnemployedListener[256][];
+    private volatile int size;
+    private volatile AtomicLongArray[] employed = new AtomicLongArray[0];
+    private final Map<String, Integer> specialtyIds = new HashMap<>();
+    private String[] specialtyValues = new String[16];
+    private int specialtyCount;
+
+    /**
+     * Додає копію безробітного; повертає номер рядка
+     */
+    public int add(Unemployed unemployed) {
+        int row = add(unemployed.getFullName(), unemployed.getAddress(), unemployed.getPhone(),
+                unemployed.getSpecialty(), unemployed.getAge(), unemployed.getEmail());
+        if (unemployed.isEmployed()) {
+            flipEmployed(row, false);
+        }
+        return row;
+    }
+
+    /**
+     * Додає запис з окремих полів; повертає номер рядка
+     */
+    public int add(String fullName, String address, String phone,
+                   String specialty, int age, String email) {
+        long stamp = lock.writeLock();
+        try {
+            int row = size;
+            if (row == rowOffsets.length) {
+                int capacity = Math.max(16, row + (row >> 1));
+                rowOffsets = Arrays.copyOf(rowOffsets, capacity);
+                specialties = Arrays.copyOf(specialties, capacity);
+                ages = Arrays.copyOf(ages, capacity);
+                listeners = Arrays.copyOf(listeners, capacity);
+            }
+            if (row % BLOCK_ROWS == 0) {
+                AtomicLongArray[] blocks = Arrays.copyOf(employed, employed.length + 1);
+                blocks[employed.length] = new AtomicLongArray(BLOCK_ROWS / Long.SIZE);
+                employed = blocks;
+            }
+            rowOffsets[row] = writeRow(new String[]{fullName, address, phone, email});
+            specialties[row] = specialtyId(specialty);
+            ages[row] = age;
+            size = row + 1;
+            return row;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Представлення рядка як Unemployed
+     */
+    public Unemployed get(int row) {
+        Objects.checkIndex(row, size());
+        return new Row(this, row);
+    }
+
+    /**
+     * Усі рядки як незмінний список представлень, що створюються під час звертання
+     */
+    public List<Unemployed> asList() {
+        int size = size();
+        return new AbstractList<Unemployed>() {
+            @Override
+            public Unemployed get(int index) {
+                Objects.checkIndex(index, size);
+                return new Row(UnemployedStore.this, index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Кількість працевлаштованих серед рядків сховища
+     */
+    public long getEmployedCount() {
+        long count = 0;
+        for (AtomicLongArray block : employed) {
+            for (int i = 0; i < block.length(); i++) {
+                count += Long.bitCount(block.get(i));
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Звільняє запас, залишений для наступних записів, - після масового завантаження
+     */
+    public void trimToSize() {
+        long stamp = lock.writeLock();
+        try {
+            arena = Arrays.copyOf(arena, arenaSize);
+            rowOffsets = Arrays.copyOf(rowOffsets, size);
+            specialties = Arrays.copyOf(specialties, size);
+            ages = Arrays.copyOf(ages, size);
+            listeners = Arrays.copyOf(listeners, size);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Пам'ять, зайнята масивами сховища (разом з ще не використаним запасом)
+     */
+    public long getFootprintBytes() {
+        long stamp = lock.readLock();
+        try {
+            long bytes = arena.length + 4L * (rowOffsets.length + specialties.length + ages.length + listeners.length);
+            bytes += (long) employed.length * BLOCK_ROWS / Byte.SIZE;
+            for (int i = 0; i < specialtyCount; i++) {
+                bytes += specialtyValues[i].length() * 2L;
+            }
+            return bytes;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private String field(int row, int field) {
+        long stamp = lock.tryOptimisticRead();
+        byte[] arena = this.arena;
+        int offset = rowOffsets[row];
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                arena = this.arena;
+                offset = rowOffsets[row];
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        // Байти рядка, записані до отримання зміщення, вже не змінюються
+        return readField(arena, offset, field);
+    }
+
+    private static String readField(byte[] arena, int offset, int field) {
+        for (int i = 0; i < field; i++) {
+            int length = readLength(arena, offset);
+            offset = skipLength(arena, offset) + Math.max(length, 0);
+        }
+        int length = readLength(arena, offset);
+        if (length < 0) {
+            return null;
+        }
+        return new String(arena, skipLength(arena, offset), length, StandardCharsets.UTF_8);
+    }
+
+    // Зміна поля дописує оновлений рядок у кінець масиву; стара копія лишається невикористаною
+    private void setField(int row, int field, String value) {
+        long stamp = lock.writeLock();
+        try {
+            String[] values = new String[FIELDS];
+            for (int i = 0; i < FIELDS; i++) {
+                values[i] = i == field ? value : readField(arena, rowOffsets[row], i);
+            }
+            rowOffsets[row] = writeRow(values);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private String specialty(int row) {
+        long stamp = lock.tryOptimisticRead();
+        int id = specialties[row];
+        String[] values = specialtyValues;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                id = specialties[row];
+                values = specialtyValues;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return id == NO_SPECIALTY ? null : values[id];
+    }
+
+    private void setSpecialty(int row, String specialty) {
+        long stamp = lock.writeLock();
+        try {
+            specialties[row] = specialtyId(specialty);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private int age(int row) {
+        long stamp = lock.tryOptimisticRead();
+        int age = ages[row];
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                age = ages[row];
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return age;
+    }
+
+    private void setAge(int row, int age) {
+        long stamp = lock.writeLock();
+        try {
+            ages[row] = age;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private UnemployedListener[] listeners(int row) {
+        long stamp = lock.tryOptimisticRead();
+        UnemployedListener[] result = listeners[row];
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                result = listeners[row];
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return result != null ? result : NO_LISTENERS;
+    }
+
+    private void addListener(int row, UnemployedListener listener) {
+        long stamp = lock.writeLock();
+        try {
+            UnemployedListener[] current = listeners[row] != null ? listeners[row] : NO_LISTENERS;
+            UnemployedListener[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = listener;
+            listeners[row] = updated;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private boolean removeListener(int row, UnemployedListener listener) {
+        long stamp = lock.writeLock();
+        try {
+            UnemployedListener[] current = listeners[row] != null ? listeners[row] : NO_LISTENERS;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == listener) {
+                    UnemployedListener[] updated = new UnemployedListener[current.length - 1];
+                    System.arraycopy(current, 0, updated, 0, i);
+                    System.arraycopy(current, i + 1, updated, i, updated.length - i);
+                    listeners[row] = updated.length > 0 ? updated : null;
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private boolean isEmployed(int row) {
+        return (employed[row / BLOCK_ROWS].get(row % BLOCK_ROWS / Long.SIZE) & (1L << (row % Long.SIZE))) != 0;
+    }
+
+    /**
+     * Атомарно змінює біт працевлаштування, якщо він дорівнює expected
+     */
+    private boolean flipEmployed(int row, boolean expected) {
+        AtomicLongArray block = employed[row / BLOCK_ROWS];
+        int index = row % BLOCK_ROWS / Long.SIZE;
+        long bit = 1L << (row % Long.SIZE);
+        while (true) {
+            long word = block.get(index);
+            if (((word & bit) != 0) != expected) {
+                return false;
+            }
+            if (block.compareAndSet(index, word, word ^ bit)) {
+                return true;
+            }
+        }
+    }
+
+    private int specialtyId(String specialty) {
+        if (specialty == null) {
+            return NO_SPECIALTY;
+        }
+        Integer id = specialtyIds.get(specialty);
+        if (id == null) {
+            id = specialtyCount;
+            if (id == specialtyValues.length) {
+                specialtyValues = Arrays.copyOf(specialtyValues, id * 2);
+            }
+            specialtyValues[specialtyCount++] = specialty;
+            specialtyIds.put(specialty, id);
+        }
+        return id;
+    }
+
+    // Поля рядка: довжина в байтах + 1 (0 - відсутнє поле) у форматі varint, потім байти UTF-8
+    private int writeRow(String[] values) {
+        int offset = arenaSize;
+        for (String value : values) {
+            byte[] bytes = value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+            ensureArena(5 + (bytes != null ? bytes.length : 0));
+            writeLength(bytes != null ? bytes.length + 1 : 0);
+            if (bytes != null) {
+                System.arraycopy(bytes, 0, arena, arenaSize, bytes.length);
+                arenaSize += bytes.length;
+            }
+        }
+        return offset;
+    }
+
+    private void ensureArena(int extra) {
+        if (arenaSize + extra > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(arena.length + (arena.length >> 1), arenaSize + extra));
+        }
+    }
+
+    private void writeLength(int value) {
+        while ((value & ~0x7F) != 0) {
+            arena[arenaSize++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        arena[arenaSize++] = (byte) value;
+    }
+
+    // Довжина поля, що починається з offset; -1 - поле відсутнє
+    private static int readLength(byte[] arena, int offset) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = arena[offset++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value - 1;
+    }
+
+    private static int skipLength(byte[] arena, int offset) {
+        while (arena[offset] < 0) {
+            offset++;
+        }
+        return offset + 1;
+    }
+
+    /**
+     * Представлення рядка сховища. Власні поля Unemployed лишаються порожніми,
+     * а слухачі зберігаються в сховищі для рядка, спільно для всіх його представлень.
+     */
+    private static final class Row extends Unemployed {
+        private final UnemployedStore store;
+        private final int row;
+
+        Row(UnemployedStore store, int row) {
+            super(null, null, null, null, 0, null);
+            this.store = store;
+            this.row = row;
+        }
+
+        @Override public String getFullName() { return store.field(row, NAME); }
+        @Override public String getAddress() { return store.field(row, ADDRESS); }
+        @Override public String getPhone() { return store.field(row, PHONE); }
+        @Override public String getSpecialty() { return store.specialty(row); }
+        @Override public int getAge() { return store.age(row); }
+        @Override public String getEmail() { return store.field(row, EMAIL); }
+        @Override public boolean isEmployed() { return store.isEmployed(row); }
+
+        @Override void addListener(UnemployedListener listener) { store.addListener(row, listener); }
+        @Override boolean removeListener(UnemployedListener listener) { return store.removeListener(row, listener); }
+        @Override UnemployedListener[] listeners() { return store.listeners(row); }
+
+        @Override public void setFullName(String fullName) { store.setField(row, NAME, fullName); }
+        @Override public void setAddress(String address) { store.setField(row, ADDRESS, address); }
+        @Override public void setPhone(String phone) { store.setField(row, PHONE, phone); }
+        @Override public void setAge(int age) { store.setAge(row, age); }
+
+        @Override
+        public void setSpecialty(String specialty) {
+            store.setSpecialty(row, specialty);
+            notifyListeners();
+        }
+
+        @Override
+        public void setEmail(String email) {
+            store.setField(row, EMAIL, email);
+            notifyListeners();
+        }
+
+        @Override
+        public void setEmployed(boolean employed) {
+            if (store.flipEmployed(row, !employed)) {
+                notifyListeners();
+            }
+        }
+
+        @Override
+        boolean claimEmployed() {
+            return store.flipEmployed(row, false);
+        }
+    }
+}
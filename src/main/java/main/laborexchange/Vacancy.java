@@ -1,24 +1,48 @@
 package main.laborexchange;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
 import java.util.Locale;
 import java.util.Objects;
+import java.util.Set;
 
 public class Vacancy {
+    private static final VarHandle STATUS;
+    // Стани вакансії; зайнята працевлаштуванням, що ще не завершилось, вважається закритою
+    private static final int OPEN = 0;
+    private static final int CLOSED = 1;
+    private static final int CLAIMED = 2;
+    // Зарплата, вище якої вакансія вважається високооплачуваною
+    static final double HIGH_SALARY = 30000.0;
+
+    static {
+        try {
+            STATUS = MethodHandles.lookup().findVarHandle(Vacancy.class, "status", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     private String position;
     private String company;
-    private String requirements;
-    private double salary;
-    private boolean isActive;
+    private volatile String requirements;
+    private volatile double salary;
+    private volatile int status;
     private String id;
+    private volatile Keywords.Tokens requirementTokens;
+    private volatile VacancyListener[] listeners = new VacancyListener[0];
 
     public Vacancy(String id, String position, String company,
                    String requirements, double salary) {
         this.id = id;
-        this.position = position;
-        this.company = company;
-        this.requirements = requirements;
+        // Назви, компанії й вимоги масово повторюються - зберігаємо спільні екземпляри
+        this.position = StringDictionary.intern(position);
+        this.company = StringDictionary.intern(company);
+        this.requirements = StringDictionary.intern(requirements);
+        this.requirementTokens = Keywords.tokensOf(this.requirements);
         this.salary = salary;
-        this.isActive = true;
+        this.status = OPEN;
     }
 
     // Геттери
@@ -27,42 +51,134 @@ public class Vacancy {
     public String getCompany() { return company; }
     public String getRequirements() { return requirements; }
     public double getSalary() { return salary; }
-    public boolean isActive() { return isActive; }
+    public boolean isActive() { return status == OPEN; }
 
     // Сеттери
-    public void setPosition(String position) { this.position = position; }
-    public void setCompany(String company) { this.company = company; }
-    public void setRequirements(String requirements) { this.requirements = requirements; }
-    public void setSalary(double salary) { this.salary = salary; }
-    public void setActive(boolean active) { this.isActive = active; }
+    public void setPosition(String position) { this.position = StringDictionary.intern(position); }
+    public void setCompany(String company) { this.company = StringDictionary.intern(company); }
+    public void setRequirements(String requirements) {
+        String interned = StringDictionary.intern(requirements);
+        this.requirements = interned;
+        this.requirementTokens = Keywords.tokensOf(interned);
+        notifyListeners();
+    }
+    public void setSalary(double salary) {
+        if (Double.compare(this.salary, salary) != 0) {
+            this.salary = salary;
+            notifyListeners();
+        }
+    }
+    public void setActive(boolean active) {
+        int target = active ? OPEN : CLOSED;
+        while (true) {
+            int current = status;
+            if (current == target) {
+                return;
+            }
+            // Сповіщає лише той потік, який справді змінив статус. Зайнята вакансія
+            // переходить у заданий стан, і незавершене працевлаштування її вже не відкриє.
+            if (STATUS.compareAndSet(this, current, target)) {
+                notifyListeners();
+                return;
+            }
+        }
+    }
 
+    /**
+     * Атомарно закриває вакансію. Повертає true лише тому з конкуруючих потоків,
+     * який закрив її першим; для вже закритої вакансії повертає false.
+     */
+    public boolean tryClose() {
+        if (STATUS.compareAndSet(this, OPEN, CLOSED)) {
+            notifyListeners();
+            return true;
+        }
+        return false;
+    }
 
     /**
-     * Перевіряє чи відповідає вакансія спеціальності
+     * Атомарно займає вакансію під працевлаштування, не сповіщаючи слухачів:
+     * для інших вона вже закрита. Після цього треба викликати
+     * {@link #completeClaim()} або {@link #releaseClaim()}.
      */
-    public boolean matchesSpecialty(String specialty) {
-        if (specialty == null || requirements == null) return false;
+    boolean tryClaim() {
+        return STATUS.compareAndSet(this, OPEN, CLAIMED);
+    }
 
-        String specLower = specialty.toLowerCase().trim();
-        String reqLower = requirements.toLowerCase();
+    /**
+     * Закриває зайняту вакансію і сповіщає слухачів
+     */
+    void completeClaim() {
+        STATUS.compareAndSet(this, CLAIMED, CLOSED);
+        // Навіть якщо вакансію тим часом змінив setActive, слухачі звірять поточний стан
+        notifyListeners();
+    }
 
-        // Список ключових слів для пошуку
-        String[] keywords = specLower.split("[,\\s]+");
+    /**
+     * Знову відкриває зайняту вакансію без жодних подій. Якщо її стан тим часом
+     * задав setActive, нічого не змінює.
+     */
+    void releaseClaim() {
+        STATUS.compareAndSet(this, CLAIMED, OPEN);
+    }
 
-        for (String keyword : keywords) {
-            if (keyword.length() < 3) continue; // Ігноруємо короткі слова
+    /**
+     * Лексеми вимог у нижньому регістрі
+     */
+    Set<String> getRequirementTokens() { return requirementTokens.words; }
+
+    /**
+     * Підписує систему на зміни вакансії
+     */
+    synchronized void addListener(VacancyListener listener) {
+        VacancyListener[] updated = Arrays.copyOf(listeners, listeners.length + 1);
+        updated[listeners.length] = listener;
+        listeners = updated;
+    }
 
-            // Шукаємо точне слово у вимогах (з границями слова)
-            if (reqLower.matches(".*\\b" + keyword + "\\b.*")) {
+    /**
+     * Відписує слухача; повертає false, якщо його не було
+     */
+    synchronized boolean removeListener(VacancyListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                VacancyListener[] updated = new VacancyListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, updated, 0, i);
+                System.arraycopy(listeners, i + 1, updated, i, updated.length - i);
+                listeners = updated;
                 return true;
             }
         }
         return false;
     }
 
+    /**
+     * Поточні слухачі (масив не змінюється - підписка створює новий)
+     */
+    VacancyListener[] listeners() {
+        return listeners;
+    }
+
+    private void notifyListeners() {
+        for (VacancyListener listener : listeners) {
+            listener.vacancyChanged(this);
+        }
+    }
+
+
+    /**
+     * Перевіряє чи відповідає вакансія спеціальності
+     */
+    public boolean matchesSpecialty(String specialty) {
+        if (specialty == null || requirements == null) return false;
+
+        // Вимоги розбиті на лексеми заздалегідь, тож це лише пошук у множині
+        return Keywords.of(specialty).matches(requirementTokens, requirements);
+    }
+
 
     public boolean isHighSalary() {
-        return salary > 30000.0;
+        return salary > HIGH_SALARY;
     }
 
     /**
@@ -101,6 +217,6 @@ public class Vacancy {
     public String toString() {
         // Використовуємо Locale.US для гарантованого форматування
         return String.format(Locale.US, "Vacancy{position='%s', company='%s', salary=%.2f, active=%s}",
-                position, company, salary, isActive);
+                position, company, salary, isActive());
     }
 }
\ No newline at end of file
@@ -0,0 +1,121 @@
+package main.laborexchange;
+
+import java.util.Arrays;
+
+/**
+ * Стовпчикове представлення вакансій за позиціями реєстру: зарплати в суцільному
+ * масиві double, статус активності - бітовою множиною. Фільтри проходять лише
+ * встановлені біти (по 64 позиції на слово) і читають зарплати з масиву,
+ * не переходячи за посиланнями на об'єкти.
+ *
+ * Зміни виконуються під монітором; читання не блокуються і бачать кожну позицію
+ * в одному з її недавніх станів, як і індекси системи.
+ */
+final class VacancyColumns {
+    private volatile double[] salaries;
+    private volatile long[] active;
+    private volatile int size;
+
+    VacancyColumns() {
+        this(new double[1024], new long[16], 0);
+    }
+
+    /**
+     * Стовпчики перших size позицій, відновлені зі знімка; масиви переходять у власність
+     */
+    VacancyColumns(double[] salaries, long[] active, int size) {
+        this.salaries = salaries;
+        this.active = active;
+        this.size = size;
+    }
+
+    /**
+     * Записує зарплату й статус вакансії на позиції реєстру
+     */
+    synchronized void set(int position, double salary, boolean isActive) {
+        if (position >= salaries.length) {
+            int capacity = Math.max(salaries.length * 2, position + 1);
+            salaries = Arrays.copyOf(salaries, capacity);
+            active = Arrays.copyOf(active, (capacity + 63) >>> 6);
+        }
+        salaries[position] = salary;
+        long bit = 1L << position;
+        if (isActive) {
+            active[position >>> 6] |= bit;
+        } else {
+            active[position >>> 6] &= ~bit;
+        }
+        if (position >= size) {
+            size = position + 1;
+        }
+    }
+
+    /**
+     * Кількість активних вакансій із зарплатою в межах [min, max]
+     */
+    int countActive(double min, double max) {
+        // Розмір читається першим: масиви, опубліковані до нього, не коротші
+        int n = size;
+        double[] salaries = this.salaries;
+        long[] active = this.active;
+        int count = 0;
+        for (int word = 0; word << 6 < n; word++) {
+            long bits = active[word];
+            int base = word << 6;
+            // Перебираємо лише встановлені біти; перевірка зарплати без розгалужень
+            while (bits != 0) {
+                double salary = salaries[base + Long.numberOfTrailingZeros(bits)];
+                count += (salary >= min) & (salary <= max) ? 1 : 0;
+                bits &= bits - 1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Позиції активних вакансій із зарплатою в межах [min, max] у порядку реєстру
+     */
+    int[] findActive(double min, double max) {
+        int n = size;
+        double[] salaries = this.salaries;
+        long[] active = this.active;
+        int[] result = new int[16];
+        int count = 0;
+        for (int word = 0; word << 6 < n; word++) {
+            long bits = active[word];
+            int base = word << 6;
+            while (bits != 0) {
+                int position = base + Long.numberOfTrailingZeros(bits);
+                double salary = salaries[position];
+                if (salary >= min && salary <= max) {
+                    if (count == result.length) {
+                        result = Arrays.copyOf(result, count * 2);
+                    }
+                    result[count++] = position;
+                }
+                bits &= bits - 1;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Сума зарплат і кількість активних вакансій: {сума, кількість}
+     */
+    double[] sumActive() {
+        int n = size;
+        double[] salaries = this.salaries;
+        long[] active = this.active;
+        double sum = 0;
+        int count = 0;
+        for (int word = 0; word << 6 < n; word++) {
+            long bits = active[word];
+            while (bits != 0) {
+                sum += salaries[(word << 6) + Long.numberOfTrailingZeros(bits)];
+                count++;
+                bits &= bits - 1;
+            }
+        }
+        return new double[]{sum, count};
+    }
+}
@@ -0,0 +1,14 @@
+package main.laborexchange;
+
+/**
+ * Слухач змін вакансії, через який система підтримує свої індекси
+ */
+interface VacancyListener {
+
+    /**
+     * Викликається після зміни статусу активності, вимог або зарплати.
+     * Слухач сам звіряє свій стан з поточним станом вакансії,
+     * тому повторні чи переставлені виклики з різних потоків безпечні.
+     */
+    void vacancyChanged(Vacancy vacancy);
+}
@@ -0,0 +1,227 @@
+package main.laborexchange;
+
+import org.junit.*;
+import org.junit.rules.TemporaryFolder;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.junit.Assert.*;
+
+public class JournalTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path file;
+
+    @Before
+    public void setUp() throws Exception {
+        file = folder.getRoot().toPath().resolve("exchange.journal");
+    }
+
+    @Test
+    public void testReplayRestoresSystem() throws Exception {
+        Clock clock = Clock.fixed(Instant.parse("2024-03-10T09:00:00Z"), ZoneOffset.UTC);
+        Unemployed petro = new Unemployed("Іваненко Петро", "Київ", "0501112233", "Java Developer", 30, "petro@test.com");
+        Vacancy java = new Vacancy("V001", "Java Developer", "IT Company", "Java, Spring", 25000.0);
+        try (LaborExchangeSystem system = LaborExchangeSystem.open(file, Journal.SyncMode.GROUP_COMMIT, clock)) {
+            assertTrue("Реєстрація безробітного", system.addUnemployed(petro));
+            assertTrue("Реєстрація вакансії", system.addVacancy(java));
+            system.addAllUnemployed(Arrays.asList(
+                    new Unemployed("Олена", "Львів", "0672223344", "Python", 25, "olena@test.com"),
+                    new Unemployed("Дублікат", "Львів", "0672223344", "Python", 25, "petro@test.com")));
+            Vacancy closed = new Vacancy("V002", "Tester", "QA Company", "Selenium", 18000.0);
+            closed.setActive(false);
+            system.addAllVacancies(Arrays.asList(closed, new Vacancy("V003", "Python Developer", "Data", "Python", 30000.0)));
+            assertTrue("Додавання менеджера", system.addManager(new Manager("Менеджер Олена", "M001")));
+            assertTrue("Працевлаштування", system.employUnemployed(petro, java));
+            system.generateMonthlyReport("MONTHLY_001");
+        }
+
+        try (LaborExchangeSystem restored = LaborExchangeSystem.open(file, Journal.SyncMode.GROUP_COMMIT,
+                Clock.systemUTC())) {
+            restored.setConsistencyCheck(true);
+            assertEquals("Безробітні відновлені", 2, restored.getTotalUnemployed());
+            assertEquals("Вакансії відновлені", 3, restored.getTotalVacancies());
+            assertEquals("Працевлаштування відновлене", 1, restored.getEmployedCount());
+            assertEquals("Активні вакансії", 1, restored.getActiveVacancies());
+            assertEquals("Менеджер відновлений", 1, restored.getManagerCount());
+            assertEquals("Звіт відновлений", 1, restored.getReportCount());
+            assertEquals("Пошук за спеціальністю після відновлення", "olena@test.com",
+                    restored.findUnemployedForSpecialty("python").get(0).getEmail());
+
+            List<EmploymentEvent> events = restored.getEvents(Instant.parse("2024-03-01T00:00:00Z"),
+                    Instant.parse("2024-04-01T00:00:00Z"));
+            assertEquals("Події зберегли свій час", 2, events.size());
+            assertEquals("Спочатку закривається вакансія", java, events.get(0).getVacancy());
+            assertEquals("Працевлаштований з журналу", petro, events.get(1).getUnemployed());
+        }
+    }
+
+    @Test
+    public void testTornTailIsDiscarded() throws Exception {
+        try (LaborExchangeSystem system = LaborExchangeSystem.open(file)) {
+            for (int i = 0; i < 10; i++) {
+                system.addVacancy(new Vacancy("V" + i, "Position", "Company", "Java", 20000.0));
+            }
+        }
+        // Імітуємо збій посеред останнього запису
+        long size = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 3);
+        }
+
+        try (LaborExchangeSystem restored = LaborExchangeSystem.open(file)) {
+            assertEquals("Відновлено всі цілі записи", 9, restored.getTotalVacancies());
+            assertTrue("Нові записи після відновлення",
+                    restored.addVacancy(new Vacancy("V9", "Position", "Company", "Java", 20000.0)));
+        }
+        try (LaborExchangeSystem restored = LaborExchangeSystem.open(file)) {
+            assertEquals("Дописаний після обрізаного хвоста запис читається", 10, restored.getTotalVacancies());
+        }
+    }
+
+    @Test
+    public void testEveryWriteSyncsEachRecord() throws Exception {
+        try (LaborExchangeSystem system = LaborExchangeSystem.open(file, Journal.SyncMode.EVERY_WRITE,
+                Clock.systemUTC())) {
+            for (int i = 0; i < 20; i++) {
+                system.addVacancy(new Vacancy("V" + i, "Position", "Company", "Java", 20000.0));
+            }
+            assertEquals("Синхронізація на кожен запис", 20, system.getJournal().getSyncCount());
+        }
+    }
+
+    @Test
+    public void testGroupCommitSharesSyncs() throws Exception {
+        int threads = 16;
+        int perThread = 200;
+        try (LaborExchangeSystem system = LaborExchangeSystem.open(file)) {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        system.addVacancy(new Vacancy("V" + thread + "-" + i, "Position", "Company", "Java", 20000.0));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            executor.shutdown();
+
+            long syncs = system.getJournal().getSyncCount();
+            assertTrue("Групова синхронізація: " + syncs + " на " + threads * perThread + " записів",
+                    syncs < threads * perThread);
+        }
+
+        try (LaborExchangeSystem restored = LaborExchangeSystem.open(file)) {
+            assertEquals("Усі записи відновлені", threads * perThread, restored.getTotalVacancies());
+        }
+    }
+
+    @Test
+    public void testConcurrentAddAndEmployReplayed() throws Exception {
+        int pairs = 300;
+        Unemployed[] candidates = new Unemployed[pairs];
+        Vacancy[] vacancies = new Vacancy[pairs];
+        for (int i = 0; i < pairs; i++) {
+            candidates[i] = new Unemployed("Кандидат " + i, "Київ", "050", "Java Developer", 30, "c" + i + "@test.com");
+            vacancies[i] = new Vacancy("V" + i, "Java Developer", "IT", "Java", 20000.0);
+        }
+        try (LaborExchangeSystem system = LaborExchangeSystem.open(file)) {
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            // Працевлаштування пробуємо одразу, поки пара ще реєструється
+            Future<?> employer = executor.submit(() -> {
+                for (int i = 0; i < pairs; i++) {
+                    while (!system.employUnemployed(candidates[i], vacancies[i])) {
+                        Thread.yield();
+                    }
+                }
+                return null;
+            });
+            Future<?> registrar = executor.submit(() -> {
+                for (int i = 0; i < pairs; i++) {
+                    system.addVacancy(vacancies[i]);
+                    system.addUnemployed(candidates[i]);
+                }
+                return null;
+            });
+            registrar.get();
+            employer.get();
+            executor.shutdown();
+        }
+
+        try (LaborExchangeSystem restored = LaborExchangeSystem.open(file)) {
+            restored.setConsistencyCheck(true);
+            assertEquals("Усі працевлаштування відновлені", pairs, restored.getEmployedCount());
+            assertEquals("Усі вакансії закриті", 0, restored.getActiveVacancies());
+        }
+    }
+
+    @Test
+    public void testEmailChangeReplayed() throws Exception {
+        Unemployed first = new Unemployed("Перший", "Київ", "0501112233", "Java Developer", 30, "a@test.com");
+        Vacancy java = new Vacancy("V001", "Java Developer", "IT Company", "Java", 25000.0);
+        try (LaborExchangeSystem system = LaborExchangeSystem.open(file)) {
+            system.addUnemployed(first);
+            system.addVacancy(java);
+            first.setEmail("b@test.com");
+            assertTrue("Працевлаштування після зміни email", system.employUnemployed(first, java));
+            assertTrue("Звільнений email вільний для іншого", system.addUnemployed(
+                    new Unemployed("Другий", "Львів", "0672223344", "Python", 25, "a@test.com")));
+            assertFalse("Новий email зайнятий", system.addUnemployed(
+                    new Unemployed("Третій", "Одеса", "0673334455", "Python", 25, "b@test.com")));
+            system.generateMonthlyReport("MONTHLY_001");
+        }
+
+        try (LaborExchangeSystem restored = LaborExchangeSystem.open(file)) {
+            restored.setConsistencyCheck(true);
+            List<Unemployed> registry = restored.unemployedRegistry();
+            assertEquals("Обидва записи відтворені", 2, registry.size());
+            assertEquals("Email змінено й при відтворенні", "b@test.com", registry.get(0).getEmail());
+            assertTrue("Працевлаштований саме перший", registry.get(0).isEmployed());
+            assertEquals("Другий зберіг свій email", "a@test.com", registry.get(1).getEmail());
+            assertEquals("Працевлаштування відтворене", 1, restored.getEmployedCount());
+            assertEquals("Звіт посилається на перший запис", registry.get(0),
+                    restored.reportList().get(0).getEmployedList().get(0));
+            assertFalse("Дублікати перевіряються за новими email", restored.addUnemployed(
+                    new Unemployed("Четвертий", "Одеса", "0673334455", "Python", 25, "b@test.com")));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testEmploymentOfUnknownRecordIsCorruption() throws Exception {
+        Unemployed petro = new Unemployed("Іваненко Петро", "Київ", "0501112233", "Java Developer", 30, "petro@test.com");
+        Vacancy java = new Vacancy("V001", "Java Developer", "IT Company", "Java, Spring", 25000.0);
+        try (LaborExchangeSystem system = LaborExchangeSystem.open(file)) {
+            system.addUnemployed(petro);
+            system.addVacancy(java);
+            system.employUnemployed(petro, java);
+        }
+        // Вирізаємо перший запис (ADD безробітного): EMPLOY посилається на невідомого
+        byte[] bytes = Files.readAllBytes(file);
+        int first = 8 + ByteBuffer.wrap(bytes).getInt();
+        Files.write(file, Arrays.copyOfRange(bytes, first, bytes.length));
+
+        LaborExchangeSystem.open(file).close();
+    }
+}
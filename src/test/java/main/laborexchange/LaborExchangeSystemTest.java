@@ -1,7 +1,36 @@
 package main.laborexchange;
 
 import org.junit.*;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 import static org.junit.Assert.*;
 
 public class LaborExchangeSystemTest {
@@ -61,6 +90,85 @@ public class LaborExchangeSystemTest {
         assertEquals("Кількість активних вакансій", 1, system.getActiveVacancies());
     }
 
+    @Test
+    public void testAddAllUnemployed() {
+        system.addUnemployed(unemployed);
+        Unemployed python = new Unemployed("Python Розробник", "Адреса", "Тел", "Python", 25, "python@test.com");
+        Unemployed sameEmail = new Unemployed("Інше Ім'я", "Адреса", "Тел", "Python", 40, "python@test.com");
+        Unemployed tooYoung = new Unemployed("Юний", "Адреса", "Тел", "Java", 15, "young@test.com");
+        Unemployed registered = new Unemployed("Дублікат", "Адреса", "Тел", "Java", 30, "test@test.com");
+
+        List<ImportResult> results = system.addAllUnemployed(
+                Arrays.asList(python, sameEmail, tooYoung, null, registered));
+        assertEquals("Результати в порядку пакета", Arrays.asList(ImportResult.ACCEPTED,
+                ImportResult.DUPLICATE, ImportResult.INVALID, ImportResult.INVALID, ImportResult.DUPLICATE), results);
+        assertEquals("Додано одного нового безробітного", 2, system.getTotalUnemployed());
+        assertFalse("Повторне додавання відхиляється", system.addUnemployed(python));
+
+        Vacancy pythonVacancy = new Vacancy("V100", "Python Developer", "Comp", "Python, Django", 20000.0);
+        system.addVacancy(pythonVacancy);
+        assertEquals("Імпортований кандидат знаходиться", Arrays.asList(python),
+                system.findUnemployedForVacancy(pythonVacancy));
+        assertEquals("Імпортований кандидат знаходиться за підрядком", Arrays.asList(python),
+                system.findUnemployedForSpecialty("pyth"));
+        assertTrue("Імпортованого можна працевлаштувати", system.employUnemployed(python, pythonVacancy));
+    }
+
+    @Test
+    public void testAddAllVacancies() {
+        system.addVacancy(vacancy);
+        Vacancy spring = new Vacancy("V002", "Backend", "Comp", "Spring", 30000.0);
+        Vacancy duplicateId = new Vacancy("V002", "Інша", "Comp", "Java", 30000.0);
+        Vacancy noSalary = new Vacancy("V003", "Backend", "Comp", "Java", 0);
+        Vacancy closed = new Vacancy("V004", "Backend", "Comp", "Java", 30000.0);
+        closed.setActive(false);
+
+        List<ImportResult> results = system.addAllVacancies(
+                Arrays.asList(spring, duplicateId, noSalary, closed, vacancy));
+        assertEquals("Результати в порядку пакета", Arrays.asList(ImportResult.ACCEPTED,
+                ImportResult.DUPLICATE, ImportResult.INVALID, ImportResult.ACCEPTED, ImportResult.DUPLICATE), results);
+        assertEquals("Кількість вакансій", 3, system.getTotalVacancies());
+        assertEquals("Закрита вакансія не рахується активною", 2, system.getActiveVacancies());
+
+        Unemployed javaSpring = new Unemployed("Розробник", "Адреса", "Тел", "Java Spring", 30, "js@test.com");
+        assertEquals("Знайдено лише активні вакансії", Arrays.asList(vacancy, spring),
+                system.findVacanciesForUnemployed(javaSpring));
+        closed.setActive(true);
+        assertEquals("Відкрита імпортована вакансія знаходиться", 3,
+                system.findVacanciesForUnemployed(javaSpring).size());
+    }
+
+    @Test(timeout = 5000)
+    public void testAddAllPerformance() {
+        List<Unemployed> candidates = new ArrayList<>();
+        List<Vacancy> vacancies = new ArrayList<>();
+        for (int i = 0; i < 50000; i++) {
+            candidates.add(new Unemployed("Name" + i, "Address", "Phone", "Specialty" + (i % 100),
+                    20 + (i % 50), "email" + i + "@test.com"));
+            vacancies.add(new Vacancy("V" + i, "Position", "Company", "Specialty" + (i % 100), 10000 + i));
+        }
+        candidates.add(candidates.get(0));
+
+        List<ImportResult> results = system.addAllUnemployed(candidates);
+        system.addAllVacancies(vacancies);
+        assertEquals("Останній запис - дублікат", ImportResult.DUPLICATE, results.get(results.size() - 1));
+        assertEquals("Додано 50000 безробітних", 50000, system.getTotalUnemployed());
+        assertEquals("Додано 50000 вакансій", 50000, system.getTotalVacancies());
+        assertEquals("Знайдено вакансії спеціальності", 500,
+                system.findVacanciesForUnemployed(candidates.get(7)).size());
+    }
+
+    @Test
+    public void testDuplicateCheckFollowsEmailChange() {
+        system.addUnemployed(unemployed);
+        unemployed.setEmail("new@test.com");
+
+        Unemployed oldEmail = new Unemployed("Інший", "Адреса", "Тел", "Java", 30, "test@test.com");
+        Unemployed newEmail = new Unemployed("Інший", "Адреса", "Тел", "Java", 30, "new@test.com");
+        assertFalse("Новий email вже зайнятий", system.addUnemployed(newEmail));
+        assertTrue("Старий email звільнився", system.addUnemployed(oldEmail));
+    }
+
     @Test
     public void testAddManager() {
         assertTrue("Додавання менеджера", system.addManager(manager));
@@ -95,6 +203,73 @@ public class LaborExchangeSystemTest {
         assertEquals("Позиція знайденої вакансії", "Java Developer", matches.get(0).getPosition());
     }
 
+    @Test
+    public void testFindVacanciesFollowsVacancyChanges() {
+        Vacancy spring = new Vacancy("V002", "Backend Developer", "Comp", "Spring, Hibernate", 30000.0);
+        Vacancy python = new Vacancy("V003", "Data Scientist", "Comp", "Python, Pandas", 28000.0);
+        system.addUnemployed(unemployed);
+        system.addVacancy(vacancy);
+        system.addVacancy(spring);
+        system.addVacancy(python);
+
+        Unemployed springDeveloper = new Unemployed("Spring Розробник", "Адреса", "Тел",
+                "Java Spring", 30, "spring@test.com");
+        List<Vacancy> matches = system.findVacanciesForUnemployed(springDeveloper);
+        assertEquals("Знайдено дві вакансії", 2, matches.size());
+        assertEquals("Порядок реєстрації зберігається", vacancy, matches.get(0));
+        assertEquals("Порядок реєстрації зберігається", spring, matches.get(1));
+
+        // Закрита вакансія зникає з результатів, повторно відкрита - повертається
+        spring.setActive(false);
+        assertEquals("Закрита вакансія не знаходиться", 1, system.findVacanciesForUnemployed(springDeveloper).size());
+        spring.setActive(true);
+        assertEquals("Відкрита вакансія знаходиться", 2, system.findVacanciesForUnemployed(springDeveloper).size());
+
+        // Зміна вимог враховується одразу
+        python.setRequirements("Python, Spring");
+        assertEquals("Нові вимоги враховуються", 3, system.findVacanciesForUnemployed(springDeveloper).size());
+        spring.setRequirements("Kotlin");
+        assertEquals("Старі вимоги не враховуються", 2, system.findVacanciesForUnemployed(springDeveloper).size());
+
+        // Працевлаштування закриває вакансію
+        assertTrue("Працевлаштування успішне", system.employUnemployed(unemployed, vacancy));
+        List<Vacancy> afterEmployment = system.findVacanciesForUnemployed(springDeveloper);
+        assertEquals("Зайнята вакансія не знаходиться", 1, afterEmployment.size());
+        assertEquals("Залишилась вакансія з новими вимогами", python, afterEmployment.get(0));
+    }
+
+    @Test
+    public void testFindVacanciesSameAsFullScan() {
+        String[] skills = {"Java", "Spring", "SQL", "Python", "Django", "React", "C++", "Розробник", "QA"};
+        Random random = new Random(7);
+        List<Vacancy> vacancies = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            String requirements = skills[random.nextInt(skills.length)] + ", " + skills[random.nextInt(skills.length)];
+            Vacancy v = new Vacancy("V" + i, "Position", "Company", requirements, 10000.0 + i);
+            vacancies.add(v);
+            system.addVacancy(v);
+        }
+
+        for (int i = 0; i < 200; i++) {
+            String specialty = skills[random.nextInt(skills.length)] + " " + skills[random.nextInt(skills.length)];
+            Unemployed candidate = new Unemployed("Name", "Address", "Phone", specialty, 30, "c" + i + "@test.com");
+
+            List<Vacancy> expected = new ArrayList<>();
+            for (Vacancy v : vacancies) {
+                if (v.isActive() && v.matchesSpecialty(specialty)) {
+                    expected.add(v);
+                }
+            }
+            List<Vacancy> found = system.findVacanciesForUnemployed(candidate);
+            assertEquals("Результати індексу збігаються з повним переглядом", expected, found);
+
+            // Частину вакансій закриваємо, щоб індекс змінювався між запитами
+            if (!found.isEmpty()) {
+                found.get(random.nextInt(found.size())).setActive(false);
+            }
+        }
+    }
+
     @Test
     public void testFindUnemployedForVacancy() {
         // Без додавання - немає результатів
@@ -122,6 +297,675 @@ public class LaborExchangeSystemTest {
         assertTrue("Неактивна вакансія не знаходить безробітних", inactiveMatches.isEmpty());
     }
 
+    @Test
+    public void testFindUnemployedFollowsCandidateChanges() {
+        Unemployed springDeveloper = new Unemployed("Spring Розробник", "Адреса", "Тел",
+                "Spring", 30, "spring@test.com");
+        system.addUnemployed(unemployed);
+        system.addUnemployed(springDeveloper);
+        system.addVacancy(vacancy);
+
+        List<Unemployed> matches = system.findUnemployedForVacancy(vacancy);
+        assertEquals("Обидва кандидати підходять", 2, matches.size());
+        assertEquals("Порядок реєстрації зберігається", unemployed, matches.get(0));
+
+        // Зміна спеціальності враховується одразу
+        springDeveloper.setSpecialty("Python");
+        assertEquals("Нова спеціальність не підходить", 1, system.findUnemployedForVacancy(vacancy).size());
+        springDeveloper.setSpecialty("C++, Spring");
+        assertEquals("Спеціальність з 'C++' перевіряється", 2, system.findUnemployedForVacancy(vacancy).size());
+
+        // Працевлаштовані зникають з індексу, звільнені - повертаються
+        springDeveloper.setEmployed(true);
+        assertEquals("Працевлаштований не знаходиться", 1, system.findUnemployedForVacancy(vacancy).size());
+        springDeveloper.setEmployed(false);
+        assertEquals("Звільнений знову знаходиться", 2, system.findUnemployedForVacancy(vacancy).size());
+    }
+
+    @Test
+    public void testFindUnemployedSameAsFullScan() {
+        String[] skills = {"Java", "Spring", "SQL", "Python", "Django", "React", "C++", "Розробник", "QA"};
+        Random random = new Random(11);
+        List<Unemployed> candidates = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            String specialty = skills[random.nextInt(skills.length)] + " " + skills[random.nextInt(skills.length)];
+            Unemployed u = new Unemployed("Name", "Address", "Phone", specialty, 30, "c" + i + "@test.com");
+            candidates.add(u);
+            system.addUnemployed(u);
+        }
+
+        for (int i = 0; i < 200; i++) {
+            String requirements = skills[random.nextInt(skills.length)] + ", " + skills[random.nextInt(skills.length)];
+            Vacancy v = new Vacancy("V" + i, "Position", "Company", requirements, 10000.0);
+
+            List<Unemployed> expected = new ArrayList<>();
+            for (Unemployed u : candidates) {
+                if (!u.isEmployed() && v.matchesSpecialty(u.getSpecialty())) {
+                    expected.add(u);
+                }
+            }
+            List<Unemployed> found = system.findUnemployedForVacancy(v);
+            assertEquals("Результати індексу збігаються з повним переглядом", expected, found);
+
+            // Частину кандидатів працевлаштовуємо, щоб індекс змінювався між запитами
+            if (!found.isEmpty()) {
+                found.get(random.nextInt(found.size())).setEmployed(true);
+            }
+        }
+    }
+
+    @Test
+    public void testFindUnemployedForSpecialtySameAsSubstringScan() {
+        String[] specialties = {"Java Developer", "Senior Java Developer", "Frontend Developer", "DevOps Engineer",
+                "Python Розробник", "Бухгалтер", "Головний бухгалтер", "QA", "Data Scientist"};
+        String[] queries = {"dev", "DEV", "developer", "java", "a", "qa", "", "ops eng", "бухгалтер",
+                "РОЗРОБ", "головний", "scientist", "rust", "er"};
+        Random random = new Random(5);
+        List<Unemployed> candidates = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Unemployed u = new Unemployed("Name", "Address", "Phone",
+                    specialties[random.nextInt(specialties.length)], 30, "c" + i + "@test.com");
+            candidates.add(u);
+            system.addUnemployed(u);
+        }
+
+        for (int round = 0; round < 20; round++) {
+            for (String query : queries) {
+                List<Unemployed> expected = new ArrayList<>();
+                for (Unemployed u : candidates) {
+                    if (!u.isEmployed() && u.getSpecialty().toLowerCase().contains(query.toLowerCase())) {
+                        expected.add(u);
+                    }
+                }
+                assertEquals("Результати для '" + query + "' збігаються з переглядом",
+                        expected, system.findUnemployedForSpecialty(query));
+            }
+            // Змінюємо стан частини кандидатів між раундами
+            for (int i = 0; i < 10; i++) {
+                Unemployed u = candidates.get(random.nextInt(candidates.size()));
+                if (random.nextBoolean()) {
+                    u.setEmployed(!u.isEmployed());
+                } else {
+                    u.setSpecialty(specialties[random.nextInt(specialties.length)]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLazyFindSameAsLists() {
+        // Часті навички переглядаються по реєстру, рідкісні беруться з індексу
+        String[] common = {"Java", "Python", "Developer"};
+        String[] rare = {"Rust", "Haskell", "C++", "Erlang"};
+        Random random = new Random(19);
+        List<Unemployed> candidates = new ArrayList<>();
+        List<Vacancy> vacancies = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            String skill = random.nextInt(400) == 0 ? rare[random.nextInt(rare.length)] : common[random.nextInt(common.length)];
+            candidates.add(new Unemployed("Name", "Address", "Phone", skill + " Engineer", 30, "lazy" + i + "@test.com"));
+            skill = random.nextInt(400) == 0 ? rare[random.nextInt(rare.length)] : common[random.nextInt(common.length)];
+            vacancies.add(new Vacancy("V" + i, "Engineer", "Company", skill + ", Git", 20000.0));
+        }
+        system.addAllUnemployed(candidates);
+        system.addAllVacancies(vacancies);
+        for (int i = 0; i < 300; i++) {
+            candidates.get(random.nextInt(candidates.size())).setEmployed(true);
+            vacancies.get(random.nextInt(vacancies.size())).setActive(false);
+        }
+
+        List<String> skills = new ArrayList<>(Arrays.asList(common));
+        skills.addAll(Arrays.asList(rare));
+        skills.add("Cobol");
+        for (String skill : skills) {
+            Unemployed candidate = new Unemployed("Name", "Address", "Phone", skill, 30, "q@test.com");
+            List<Vacancy> vacancyMatches = system.findVacanciesForUnemployed(candidate);
+            assertEquals("Потік вакансій для " + skill, vacancyMatches,
+                    system.streamVacanciesForUnemployed(candidate).collect(Collectors.toList()));
+            assertEquals("Сторінки вакансій для " + skill, vacancyMatches,
+                    collectPages((token, size) -> system.findVacanciesForUnemployed(candidate, token, size)));
+
+            Vacancy vacancy = new Vacancy("Q", "Engineer", "Company", skill, 20000.0);
+            List<Unemployed> unemployedMatches = system.findUnemployedForVacancy(vacancy);
+            assertEquals("Потік кандидатів для " + skill, unemployedMatches,
+                    system.streamUnemployedForVacancy(vacancy).collect(Collectors.toList()));
+            assertEquals("Сторінки кандидатів для " + skill, unemployedMatches,
+                    collectPages((token, size) -> system.findUnemployedForVacancy(vacancy, token, size)));
+
+            List<Unemployed> specialtyMatches = system.findUnemployedForSpecialty(skill);
+            assertEquals("Потік за спеціальністю " + skill, specialtyMatches,
+                    system.streamUnemployedForSpecialty(skill).collect(Collectors.toList()));
+            assertEquals("Сторінки за спеціальністю " + skill, specialtyMatches,
+                    collectPages((token, size) -> system.findUnemployedForSpecialty(skill, token, size)));
+        }
+
+        Unemployed broad = new Unemployed("Name", "Address", "Phone", "Developer", 30, "broad@test.com");
+        assertEquals("Перші 20 широкого запиту",
+                system.findVacanciesForUnemployed(broad).subList(0, 20),
+                system.streamVacanciesForUnemployed(broad).limit(20).collect(Collectors.toList()));
+        Page<Vacancy> first = system.findVacanciesForUnemployed(broad, null, 20);
+        assertEquals("Повна перша сторінка", 20, first.getItems().size());
+        assertTrue("Є наступна сторінка", first.hasNextPage());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownPageTokenRejected() {
+        system.findUnemployedForSpecialty("java", "не маркер", 10);
+    }
+
+    @Test
+    public void testCloseDetachesRecords() throws Exception {
+        LaborExchangeSystem other = new LaborExchangeSystem();
+        system.addUnemployed(unemployed);
+        system.addVacancy(vacancy);
+        other.addUnemployed(unemployed);
+        other.addVacancy(vacancy);
+        assertEquals("Підписані обидві системи", 2, vacancy.listeners().length);
+
+        system.close();
+        assertEquals("Закрита система відписана від вакансії", 1, vacancy.listeners().length);
+        assertEquals("Закрита система відписана від безробітного", 1, unemployed.listeners().length);
+        vacancy.setActive(false);
+        assertEquals("Відкрита система бачить зміну", 0, other.getActiveVacancies());
+        assertEquals("Закрита система зміну вже не відстежує", 1, system.getActiveVacancies());
+    }
+
+    @Test
+    public void testMatchCacheSharesNormalizedSpecialty() {
+        system.addVacancy(vacancy);
+        Unemployed other = new Unemployed("Інший Користувач", "Львів", "0507778899",
+                "developer,  JAVA", 30, "other@test.com");
+        assertEquals("Перший пошук", 1, system.findVacanciesForUnemployed(unemployed).size());
+        assertEquals("Та сама нормалізована спеціальність", 1, system.findVacanciesForUnemployed(other).size());
+
+        MatchCacheStats stats = system.getMatchCacheStats();
+        assertEquals("Один промах", 1, stats.getMisses());
+        assertEquals("Одне влучання", 1, stats.getHits());
+        assertEquals("Частка влучань", 0.5, stats.getHitRate(), 1e-9);
+    }
+
+    @Test
+    public void testMatchCacheInvalidation() {
+        Vacancy python = new Vacancy("V002", "Python Developer", "IT Company", "Python, Django", 20000.0);
+        system.addVacancy(vacancy);
+        system.addVacancy(python);
+        Unemployed pythonist = new Unemployed("Пітоніст", "Київ", "0501234567",
+                "Python", 28, "python@test.com");
+        assertEquals("Java-вакансія", 1, system.findVacanciesForUnemployed(unemployed).size());
+        assertEquals("Python-вакансія", 1, system.findVacanciesForUnemployed(pythonist).size());
+
+        // Зміна Python-вакансії не зачіпає закешованого "Java Developer"
+        python.setActive(false);
+        assertEquals("Java-результат не змінився", 1, system.findVacanciesForUnemployed(unemployed).size());
+        assertEquals("Закрита вакансія зникає з результату", 0, system.findVacanciesForUnemployed(pythonist).size());
+        assertEquals("Застарів лише Python-запис", 1, system.getMatchCacheStats().getStaleCount());
+
+        vacancy.setRequirements("Kotlin");
+        assertTrue("Зміну вимог видно одразу", system.findVacanciesForUnemployed(unemployed).isEmpty());
+        python.setActive(true);
+        assertEquals("Відкриту вакансію видно одразу", 1, system.findVacanciesForUnemployed(pythonist).size());
+        Vacancy newJava = new Vacancy("V003", "Java Developer", "Other Company", "Java", 30000.0);
+        system.addAllVacancies(Arrays.asList(newJava));
+        assertEquals("Нову вакансію видно одразу", Arrays.asList(newJava), system.findVacanciesForUnemployed(unemployed));
+    }
+
+    @Test
+    public void testMatchCacheEviction() {
+        system.addVacancy(vacancy);
+        system.setMatchCacheCapacity(2);
+        for (String specialty : new String[]{"Java", "Spring", "Kotlin", "Java"}) {
+            system.findVacanciesForUnemployed(new Unemployed("Кандидат", "Київ", "0500000000",
+                    specialty, 30, specialty + "@test.com"));
+        }
+        MatchCacheStats stats = system.getMatchCacheStats();
+        assertEquals("Розмір обмежений місткістю", 2, stats.getSize());
+        assertEquals("Java витіснено найдавнішою", 4, stats.getMisses());
+        assertEquals("Два витіснення", 2, stats.getEvictions());
+
+        system.setMatchCacheCapacity(0);
+        system.findVacanciesForUnemployed(unemployed);
+        assertEquals("Вимкнений кеш порожній", 0, system.getMatchCacheStats().getSize());
+    }
+
+    @Test
+    public void testMatchCacheVersionsBounded() {
+        MatchCache cache = new MatchCache();
+        cache.setCapacity(4);
+        for (int i = 0; i < 1000; i++) {
+            cache.positions("Слово" + i + " Developer", () -> new int[0]);
+        }
+        assertEquals("Лічильники лише для слів закешованих записів", 5, cache.trackedWords());
+
+        int[] first = cache.positions("Java", () -> new int[]{1});
+        cache.invalidate(List.of("java"));
+        assertNotSame("Зміна слова закешованого запису інвалідує його", first,
+                cache.positions("Java", () -> new int[]{2}));
+
+        cache.setCapacity(0);
+        assertEquals("Порожній кеш не тримає лічильників", 0, cache.trackedWords());
+        try {
+            cache.positions("Kotlin", () -> {
+                throw new IllegalStateException("збій");
+            });
+            fail("Виняток обчислення передається");
+        } catch (IllegalStateException expected) {
+            assertEquals("Невдале обчислення звільняє слова", 0, cache.trackedWords());
+        }
+    }
+
+    @Test
+    public void testMetricsDisabledByDefault() {
+        system.addUnemployed(unemployed);
+        system.findVacanciesForUnemployed(unemployed);
+        MetricsSnapshot snapshot = system.getMetricsSnapshot();
+        assertFalse("Вимірювання за замовчуванням вимкнене", snapshot.isEnabled());
+        assertTrue("Без вимірювання статистики немає", snapshot.getOperations().isEmpty());
+    }
+
+    @Test
+    public void testMetricsCountOperations() {
+        system.setMetricsEnabled(true);
+        system.addUnemployed(unemployed);
+        system.addVacancy(vacancy);
+        for (int i = 0; i < 100; i++) {
+            system.findVacanciesForUnemployed(unemployed);
+        }
+        system.employUnemployed(unemployed, vacancy);
+
+        MetricsSnapshot snapshot = system.getMetricsSnapshot();
+        assertEquals("Одне додавання безробітного", 1, snapshot.get("addUnemployed").getCount());
+        assertEquals("Одне працевлаштування", 1, snapshot.get("employUnemployed").getCount());
+        OperationStats find = snapshot.get("findVacanciesForUnemployed");
+        assertEquals("Сто пошуків", 100, find.getCount());
+        assertTrue("Перцентилі не спадають", find.getP50Nanos() <= find.getP99Nanos()
+                && find.getP99Nanos() <= find.getP999Nanos() && find.getP999Nanos() <= find.getMaxNanos());
+        assertTrue("Середнє не більше максимуму", find.getMeanNanos() <= find.getMaxNanos());
+        assertNull("Невиконана операція відсутня", snapshot.get("matchAll"));
+
+        system.setMetricsEnabled(false);
+        system.findVacanciesForUnemployed(unemployed);
+        assertEquals("Вимкнене вимірювання не рахує", 100,
+                system.getMetricsSnapshot().get("findVacanciesForUnemployed").getCount());
+        system.resetMetrics();
+        assertEquals("Після скидання лічильники нульові", 0,
+                system.getMetricsSnapshot().get("findVacanciesForUnemployed").getCount());
+    }
+
+    @Test
+    public void testMetricsMBean() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = system.registerMetricsMBean("test");
+        try {
+            assertTrue("MBean зареєстровано", server.isRegistered(name));
+            assertEquals("Повторна реєстрація під тим самим ім'ям", name, system.registerMetricsMBean("test"));
+            assertTrue("MBean лишається зареєстрованим", server.isRegistered(name));
+            server.setAttribute(name, new Attribute("Enabled", true));
+            assertTrue("Вимірювання вмикається через JMX", system.isMetricsEnabled());
+            system.addVacancy(vacancy);
+
+            CompositeData[] operations = (CompositeData[]) server.getAttribute(name, "Operations");
+            assertEquals("Одна виміряна операція", 1, operations.length);
+            assertEquals("Назва операції", "addVacancy", operations[0].get("operation"));
+            assertEquals("Кількість викликів", 1L, operations[0].get("count"));
+        } finally {
+            system.close();
+        }
+        assertFalse("close знімає реєстрацію", server.isRegistered(name));
+    }
+
+    private interface PageSource<T> {
+        Page<T> fetch(String token, int size);
+    }
+
+    private static <T> List<T> collectPages(PageSource<T> source) {
+        List<T> all = new ArrayList<>();
+        String token = null;
+        do {
+            Page<T> page = source.fetch(token, 7);
+            assertTrue("Сторінка не більша за розмір", page.getItems().size() <= 7);
+            all.addAll(page.getItems());
+            token = page.getNextPageToken();
+        } while (token != null);
+        return all;
+    }
+
+    @Test
+    public void testMatchAllSameAsPerCandidate() {
+        String[] skills = {"Java", "Spring", "SQL", "Python", "Django", "React", "C++", "Розробник", "QA"};
+        Random random = new Random(13);
+        List<Unemployed> candidates = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            String specialty = skills[random.nextInt(skills.length)] + " " + skills[random.nextInt(skills.length)];
+            Unemployed u = new Unemployed("Name", "Address", "Phone", specialty, 30, "c" + i + "@test.com");
+            candidates.add(u);
+            system.addUnemployed(u);
+        }
+        for (int i = 0; i < 400; i++) {
+            String requirements = skills[random.nextInt(skills.length)] + ", " + skills[random.nextInt(skills.length)];
+            Vacancy v = new Vacancy("V" + i, "Position", "Company", requirements, 10000.0);
+            v.setActive(random.nextInt(4) > 0);
+            system.addVacancy(v);
+        }
+
+        MatchAllResult result = system.matchAll(new ForkJoinPool(4));
+        assertEquals("Кожен кандидат має результат", candidates.size(), result.getCandidateCount());
+        long pairs = 0;
+        for (Unemployed candidate : candidates) {
+            List<Vacancy> expected = system.findVacanciesForUnemployed(candidate);
+            assertEquals("Пари збігаються з пошуком для кандидата", expected, result.getMatches().get(candidate));
+            pairs += expected.size();
+        }
+        assertEquals("Кількість пар", pairs, result.getPairCount());
+        assertTrue("Пропускна здатність обчислена", result.getCandidatesPerSecond() > 0);
+    }
+
+    @Test
+    public void testAssignAllBeatsGreedy() {
+        Unemployed javaSpring = new Unemployed("Перший", "Адреса", "Тел", "Java Spring", 30, "first@test.com");
+        Unemployed javaOnly = new Unemployed("Другий", "Адреса", "Тел", "Java", 30, "second@test.com");
+        Vacancy javaVacancy = new Vacancy("V1", "Java Developer", "Comp", "Java", 30000.0);
+        Vacancy springVacancy = new Vacancy("V2", "Spring Developer", "Comp", "Spring", 30000.0);
+        system.addUnemployed(javaSpring);
+        system.addUnemployed(javaOnly);
+        system.addVacancy(javaVacancy);
+        system.addVacancy(springVacancy);
+
+        AssignmentResult result = system.assignAll();
+        assertEquals("Жадібно - лише одна пара", 1, result.getGreedyPlacements());
+        assertEquals("Паросполучення - дві пари", 2, result.getPlacements());
+        assertEquals("Перший отримує Spring вакансію", springVacancy, result.getAssignments().get(javaSpring));
+        assertEquals("Другий отримує Java вакансію", javaVacancy, result.getAssignments().get(javaOnly));
+        assertEquals("Обидва працевлаштовані", 2, system.getEmployedCount());
+        assertEquals("Активних вакансій не залишилось", 0, system.getActiveVacancies());
+    }
+
+    @Test
+    public void testAssignAllFindsMaximumMatching() {
+        String[] skills = {"Java", "Spring", "SQL", "Python", "Django", "React", "Kotlin", "Go", "Rust", "Scala"};
+        Random random = new Random(17);
+        List<Unemployed> candidates = new ArrayList<>();
+        List<Vacancy> vacancies = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Unemployed u = new Unemployed("Name", "Address", "Phone",
+                    skills[random.nextInt(skills.length)] + " " + skills[random.nextInt(skills.length)],
+                    30, "c" + i + "@test.com");
+            candidates.add(u);
+            system.addUnemployed(u);
+        }
+        for (int i = 0; i < 250; i++) {
+            Vacancy v = new Vacancy("V" + i, "Position", "Company", skills[random.nextInt(skills.length)], 10000.0);
+            vacancies.add(v);
+            system.addVacancy(v);
+        }
+        int expected = maximumMatchingSize(candidates, vacancies);
+
+        AssignmentResult result = system.assignAll();
+        assertEquals("Розмір максимального паросполучення", expected, result.getPlacements());
+        assertTrue("Не гірше за жадібний підхід", result.getPlacements() >= result.getGreedyPlacements());
+        Set<Vacancy> used = new HashSet<>();
+        for (Map.Entry<Unemployed, Vacancy> pair : result.getAssignments().entrySet()) {
+            assertTrue("Пара відповідає спеціальності", pair.getValue().matchesSpecialty(pair.getKey().getSpecialty()));
+            assertTrue("Вакансія використана один раз", used.add(pair.getValue()));
+            assertTrue("Кандидат працевлаштований", pair.getKey().isEmployed());
+        }
+        assertEquals("Повторний запуск нічого не додає", 0, system.assignAll().getPlacements());
+    }
+
+    // Проста перевірка розміру паросполучення пошуком збільшуючих шляхів (алгоритм Куна)
+    private static int maximumMatchingSize(List<Unemployed> candidates, List<Vacancy> vacancies) {
+        int[] owner = new int[vacancies.size()];
+        Arrays.fill(owner, -1);
+        int size = 0;
+        for (int u = 0; u < candidates.size(); u++) {
+            if (tryKuhn(u, candidates, vacancies, owner, new boolean[vacancies.size()])) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    private static boolean tryKuhn(int u, List<Unemployed> candidates, List<Vacancy> vacancies,
+                                   int[] owner, boolean[] visited) {
+        for (int v = 0; v < vacancies.size(); v++) {
+            if (!visited[v] && vacancies.get(v).matchesSpecialty(candidates.get(u).getSpecialty())) {
+                visited[v] = true;
+                if (owner[v] < 0 || tryKuhn(owner[v], candidates, vacancies, owner, visited)) {
+                    owner[v] = u;
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Test(timeout = 10000)
+    public void testAssignAllPerformance() {
+        List<Unemployed> candidates = new ArrayList<>();
+        List<Vacancy> vacancies = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            candidates.add(new Unemployed("Name" + i, "Address", "Phone",
+                    "Skill" + (i % 2000) + " Skill" + ((i * 7) % 2000), 30, "email" + i + "@test.com"));
+            vacancies.add(new Vacancy("V" + i, "Position", "Company", "Skill" + ((i * 13) % 2000), 10000.0));
+        }
+        system.addAllUnemployed(candidates);
+        system.addAllVacancies(vacancies);
+
+        AssignmentResult result = system.assignAll();
+        assertEquals("Кандидати в графі", 20000, result.getCandidateCount());
+        assertEquals("Працевлаштовані відповідають парам", result.getPlacements(), system.getEmployedCount());
+        assertTrue("Не гірше за жадібний підхід", result.getPlacements() >= result.getGreedyPlacements());
+    }
+
+    @Test
+    public void testConcurrentEmploymentFillsEachVacancyOnce() throws Exception {
+        List<Unemployed> candidates = new ArrayList<>();
+        List<Vacancy> vacancies = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Unemployed u = new Unemployed("Name" + i, "Address", "Phone", "Java", 30, "c" + i + "@test.com");
+            candidates.add(u);
+            system.addUnemployed(u);
+        }
+        for (int i = 0; i < 50; i++) {
+            Vacancy v = new Vacancy("V" + i, "Java Developer", "Company", "Java", 20000.0);
+            vacancies.add(v);
+            system.addVacancy(v);
+        }
+
+        AtomicInteger placements = new AtomicInteger();
+        runConcurrently(8, thread -> {
+            Random random = new Random(thread);
+            for (int attempt = 0; attempt < 2000; attempt++) {
+                if (system.employUnemployed(candidates.get(random.nextInt(candidates.size())),
+                        vacancies.get(random.nextInt(vacancies.size())))) {
+                    placements.incrementAndGet();
+                }
+            }
+            for (Unemployed u : candidates) {
+                for (Vacancy v : vacancies) {
+                    if (system.employUnemployed(u, v)) {
+                        placements.incrementAndGet();
+                    }
+                }
+            }
+        });
+
+        system.setConsistencyCheck(true);
+        assertEquals("Кожна вакансія заповнена рівно один раз", 50, placements.get());
+        assertEquals("Працевлаштованих стільки ж, скільки вакансій", 50, system.getEmployedCount());
+        assertEquals("Активних вакансій не залишилось", 0, system.getActiveVacancies());
+        assertEquals("Індекс кандидатів містить лише непрацевлаштованих", 150,
+                system.findUnemployedForVacancy(new Vacancy("V999", "Java", "Comp", "Java", 1000.0)).size());
+    }
+
+    @Test
+    public void testContendedClaimsNeverFillVacancyTwice() throws Exception {
+        // Мало вакансій і кандидатів на багато потоків: кожна пара оспорюється
+        for (int round = 0; round < 200; round++) {
+            LaborExchangeSystem exchange = new LaborExchangeSystem();
+            List<Unemployed> candidates = new ArrayList<>();
+            List<Vacancy> vacancies = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                Unemployed u = new Unemployed("Name" + i, "Address", "Phone", "Java", 30, "c" + i + "@test.com");
+                candidates.add(u);
+                exchange.addUnemployed(u);
+            }
+            for (int i = 0; i < 3; i++) {
+                Vacancy v = new Vacancy("V" + i, "Java Developer", "Company", "Java", 20000.0);
+                vacancies.add(v);
+                exchange.addVacancy(v);
+            }
+
+            ConcurrentMap<Vacancy, Unemployed> filledBy = new ConcurrentHashMap<>();
+            ConcurrentMap<Unemployed, Vacancy> employedAt = new ConcurrentHashMap<>();
+            AtomicInteger doubleClaims = new AtomicInteger();
+            runConcurrently(8, thread -> {
+                for (int i = 0; i < candidates.size(); i++) {
+                    Unemployed u = candidates.get((i + thread) % candidates.size());
+                    for (int j = 0; j < vacancies.size(); j++) {
+                        Vacancy v = vacancies.get((j + thread) % vacancies.size());
+                        if (exchange.employUnemployed(u, v)) {
+                            if (filledBy.putIfAbsent(v, u) != null || employedAt.putIfAbsent(u, v) != null) {
+                                doubleClaims.incrementAndGet();
+                            }
+                        }
+                    }
+                }
+            });
+
+            exchange.setConsistencyCheck(true);
+            assertEquals("Жодна вакансія чи кандидат не зайняті двічі", 0, doubleClaims.get());
+            assertEquals("Кожна вакансія заповнена", 3, filledBy.size());
+            assertEquals("Працевлаштованих стільки ж, скільки вакансій", 3, exchange.getEmployedCount());
+            assertEquals("Активних вакансій не залишилось", 0, exchange.getActiveVacancies());
+        }
+    }
+
+    @Test
+    public void testFailedClaimLeavesNoEvents() throws Exception {
+        Instant from = Instant.EPOCH;
+        Instant to = Instant.now().plusSeconds(60);
+        system.addUnemployed(unemployed);
+        system.addVacancy(vacancy);
+        unemployed.setEmployed(true);
+        int before = system.getEvents(from, to).size();
+        assertFalse("Зайнятого кандидата не працевлаштувати", LaborExchangeSystem.claim(unemployed, vacancy));
+        assertTrue("Вакансія лишилась відкритою", vacancy.isActive());
+        assertEquals("Невдала спроба не записує подій", before, system.getEvents(from, to).size());
+        assertEquals("Вакансія лишилась активною й у лічильнику", 1, system.getActiveVacancies());
+
+        // Багато потоків змагаються за одного кандидата на різні вакансії
+        for (int round = 0; round < 200; round++) {
+            LaborExchangeSystem exchange = new LaborExchangeSystem();
+            Unemployed candidate = new Unemployed("Name", "Address", "Phone", "Java", 30, "c@test.com");
+            exchange.addUnemployed(candidate);
+            List<Vacancy> vacancies = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                Vacancy v = new Vacancy("V" + i, "Java Developer", "Company", "Java", 20000.0);
+                vacancies.add(v);
+                exchange.addVacancy(v);
+            }
+            runConcurrently(8, thread -> exchange.employUnemployed(candidate, vacancies.get(thread)));
+
+            exchange.setConsistencyCheck(true);
+            List<EmploymentEvent> events = exchange.getEvents(from, to);
+            assertEquals("Одна подія працевлаштування", 1, events.stream()
+                    .filter(e -> e.getType() == EmploymentEvent.Type.EMPLOYED).count());
+            assertEquals("Одна подія закриття вакансії", 1, events.stream()
+                    .filter(e -> e.getType() == EmploymentEvent.Type.VACANCY_CLOSED).count());
+            assertEquals("Решта вакансій відкриті", 7, exchange.getActiveVacancies());
+            for (EmploymentEvent event : events) {
+                if (event.getType() == EmploymentEvent.Type.VACANCY_CLOSED) {
+                    assertFalse("Подія закриття - про закриту вакансію", event.getVacancy().isActive());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testConcurrentRegistrationAcceptsEachEmailOnce() throws Exception {
+        AtomicInteger accepted = new AtomicInteger();
+        runConcurrently(8, thread -> {
+            for (int i = 0; i < 1000; i++) {
+                if (system.addUnemployed(new Unemployed("Name" + i, "Address", "Phone", "Java Developer",
+                        30, "c" + i + "@test.com"))) {
+                    accepted.incrementAndGet();
+                }
+                system.addVacancy(new Vacancy("V" + i, "Position", "Company", "Java", 20000.0));
+            }
+        });
+
+        system.setConsistencyCheck(true);
+        assertEquals("Кожен email прийнято один раз", 1000, accepted.get());
+        assertEquals("Кількість безробітних", 1000, system.getTotalUnemployed());
+        assertEquals("Кількість вакансій", 1000, system.getTotalVacancies());
+        assertEquals("Усі вакансії активні", 1000, system.getActiveVacancies());
+        assertEquals("Усі кандидати в індексі", 1000, system.findUnemployedForSpecialty("developer").size());
+    }
+
+    @Test
+    public void testEmployRequiresRegisteredRecord() {
+        system.addUnemployed(unemployed);
+        system.addVacancy(vacancy);
+        Unemployed copy = new Unemployed("Двійник", "Київ", "0501112233",
+                "Java Developer", 25, unemployed.getEmail());
+        assertFalse("Незареєстрований об'єкт з тим самим email не працевлаштовується",
+                system.employUnemployed(copy, vacancy));
+        assertFalse("Двійник лишився вільним", copy.isEmployed());
+        assertTrue("Зареєстрований працевлаштовується", system.employUnemployed(unemployed, vacancy));
+    }
+
+    @Test
+    public void testEmploymentDuringRegistrationCounted() throws Exception {
+        int pairs = 2000;
+        Unemployed[] candidates = new Unemployed[pairs];
+        Vacancy[] vacancies = new Vacancy[pairs];
+        for (int i = 0; i < pairs; i++) {
+            candidates[i] = new Unemployed("Кандидат " + i, "Київ", "050", "Java Developer", 30, "race" + i + "@test.com");
+            vacancies[i] = new Vacancy("R" + i, "Java Developer", "IT", "Java", 20000.0);
+        }
+        // Один потік реєструє пари, другий одразу пробує їх працевлаштувати
+        runConcurrently(2, thread -> {
+            for (int i = 0; i < pairs; i++) {
+                if (thread == 0) {
+                    system.addUnemployed(candidates[i]);
+                    system.addVacancy(vacancies[i]);
+                } else {
+                    while (!system.employUnemployed(candidates[i], vacancies[i])) {
+                        Thread.yield();
+                    }
+                }
+            }
+        });
+
+        system.setConsistencyCheck(true);
+        assertEquals("Усі пари працевлаштовані", pairs, system.getEmployedCount());
+        long employedEvents = system.getEvents(Instant.EPOCH, Instant.now().plusSeconds(60)).stream()
+                .filter(e -> e.getType() == EmploymentEvent.Type.EMPLOYED).count();
+        assertEquals("Кожне працевлаштування записане подією", pairs, employedEvents);
+    }
+
+    private interface Worker {
+        void run(int thread) throws Exception;
+    }
+
+    private static void runConcurrently(int threads, Worker worker) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                worker.run(thread);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+    }
+
     @Test
     public void testStatistics() {
         assertEquals("Початкова статистика безробітних", 0, system.getTotalUnemployed());
@@ -143,6 +987,51 @@ public class LaborExchangeSystemTest {
         assertEquals("Статистика звітів", 1, system.getReportCount());
     }
 
+    @Test
+    public void testIncrementalStatisticsMatchScan() {
+        system.setConsistencyCheck(true);
+        Random random = new Random(3);
+        List<Unemployed> candidates = new ArrayList<>();
+        List<Vacancy> vacancies = new ArrayList<>();
+
+        for (int i = 0; i < 2000; i++) {
+            switch (random.nextInt(5)) {
+                case 0:
+                    Unemployed u = new Unemployed("Name", "Address", "Phone", "Java", 30, "c" + i + "@test.com");
+                    u.setEmployed(random.nextBoolean());
+                    candidates.add(u);
+                    system.addUnemployed(u);
+                    break;
+                case 1:
+                    Vacancy v = new Vacancy("V" + i, "Position", "Company", "Java", 10000.0);
+                    v.setActive(random.nextBoolean());
+                    vacancies.add(v);
+                    system.addVacancy(v);
+                    break;
+                case 2:
+                    if (!candidates.isEmpty()) {
+                        candidates.get(random.nextInt(candidates.size())).setEmployed(random.nextBoolean());
+                    }
+                    break;
+                case 3:
+                    if (!vacancies.isEmpty()) {
+                        vacancies.get(random.nextInt(vacancies.size())).setActive(random.nextBoolean());
+                    }
+                    break;
+                default:
+                    if (!candidates.isEmpty() && !vacancies.isEmpty()) {
+                        system.employUnemployed(candidates.get(random.nextInt(candidates.size())),
+                                vacancies.get(random.nextInt(vacancies.size())));
+                    }
+                    break;
+            }
+            // Перевірка повним переглядом кидає виняток при розбіжності
+            system.getEmployedCount();
+            system.getActiveVacancies();
+        }
+        assertNotNull("Статистика формується", system.getSystemStatistics());
+    }
+
     @Test
     public void testGetSystemStatistics() {
         String statistics = system.getSystemStatistics();
@@ -167,6 +1056,301 @@ public class LaborExchangeSystemTest {
         assertEquals("Кількість закритих вакансій у звіті", 1, monthlyReport.getClosedVacancies().size());
     }
 
+    @Test(timeout = 10000)
+    public void testGenerateMonthlyReportPerformance() {
+        // Раніше кожне додавання до звіту перевіряло список повністю - квадратичний час
+        List<Unemployed> candidates = new ArrayList<>();
+        List<Vacancy> vacancies = new ArrayList<>();
+        for (int i = 0; i < 100000; i++) {
+            candidates.add(new Unemployed("Name" + i, "Address", "Phone", "Java", 30, "c" + i + "@test.com"));
+            vacancies.add(new Vacancy("V" + i, "Java Developer", "Company", "Java", 20000.0));
+        }
+        system.addAllUnemployed(candidates);
+        system.addAllVacancies(vacancies);
+        for (int i = 0; i < 100000; i += 2) {
+            candidates.get(i).setEmployed(true);
+            vacancies.get(i).setActive(false);
+        }
+
+        Report monthlyReport = system.generateMonthlyReport("MONTHLY_BIG");
+        assertEquals("Кількість працевлаштованих у звіті", 50000, monthlyReport.getEmployedList().size());
+        assertEquals("Кількість закритих вакансій у звіті", 50000, monthlyReport.getClosedVacancies().size());
+        assertEquals("Порядок реєстрації збережено", candidates.get(2), monthlyReport.getEmployedList().get(1));
+        assertEquals("Успішність 50%", 50.0, monthlyReport.getSuccessRate(), 0.001);
+    }
+
+    @Test
+    public void testPeriodReportCountsOnlyEventsOfPeriod() {
+        TestClock clock = new TestClock(Instant.parse("2024-01-15T10:00:00Z"));
+        LaborExchangeSystem exchange = new LaborExchangeSystem(clock);
+        Unemployed alreadyEmployed = new Unemployed("Ready", "Address", "Phone", "Java", 30, "ready@test.com");
+        alreadyEmployed.setEmployed(true);
+        exchange.addUnemployed(alreadyEmployed);
+
+        List<Unemployed> candidates = new ArrayList<>();
+        List<Vacancy> vacancies = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Unemployed u = new Unemployed("Name" + i, "Address", "Phone", "Java", 30, "c" + i + "@test.com");
+            Vacancy v = new Vacancy("V" + i, "Java Developer", "Company", "Java", 20000.0);
+            candidates.add(u);
+            vacancies.add(v);
+            exchange.addUnemployed(u);
+            exchange.addVacancy(v);
+        }
+
+        for (int i = 0; i < 6; i++) {
+            // Січень, лютий, березень - по дві пари
+            clock.set(Instant.parse("2024-0" + (1 + i / 2) + "-20T12:00:00Z"));
+            assertTrue("Працевлаштування", exchange.employUnemployed(candidates.get(i), vacancies.get(i)));
+        }
+        clock.set(Instant.parse("2024-02-21T12:00:00Z"));
+        Vacancy withdrawn = new Vacancy("V100", "Java Developer", "Company", "Java", 20000.0);
+        exchange.addVacancy(withdrawn);
+        withdrawn.setActive(false);
+
+        Report february = exchange.generateMonthlyReport("FEB", YearMonth.of(2024, 2));
+        assertEquals("Працевлаштовані лютого", Arrays.asList(candidates.get(2), candidates.get(3)),
+                february.getEmployedList());
+        assertEquals("Вакансії, закриті в лютому", Arrays.asList(vacancies.get(2), vacancies.get(3), withdrawn),
+                february.getClosedVacancies());
+        assertTrue("Звіт доданий до системи", exchange.getReportCount() > 0);
+
+        Report january = exchange.generateMonthlyReport("JAN", YearMonth.of(2024, 1));
+        assertEquals("Зареєстрований уже працевлаштованим не має події", 2, january.getEmployedList().size());
+
+        List<EmploymentEvent> events = exchange.getEvents(Instant.parse("2024-03-01T00:00:00Z"),
+                Instant.parse("2024-04-01T00:00:00Z"));
+        assertEquals("Події березня", 4, events.size());
+        assertEquals("Час події", Instant.parse("2024-03-20T12:00:00Z"), events.get(0).getTime());
+
+        // Скасоване працевлаштування не потрапляє до звіту, як і в Report.addEmployed
+        candidates.get(4).setEmployed(false);
+        Report march = exchange.generatePeriodReport("MAR", Instant.parse("2024-03-01T00:00:00Z"),
+                Instant.parse("2024-04-01T00:00:00Z"));
+        assertEquals("Лише ті, хто досі працевлаштований", Arrays.asList(candidates.get(5)), march.getEmployedList());
+    }
+
+    @Test
+    public void testPeriodReportScansOnlyItsEvents() {
+        TestClock clock = new TestClock(Instant.parse("2024-01-10T00:00:00Z"));
+        LaborExchangeSystem exchange = new LaborExchangeSystem(clock);
+        List<Unemployed> candidates = new ArrayList<>();
+        for (int i = 0; i < 50000; i++) {
+            candidates.add(new Unemployed("Name" + i, "Address", "Phone", "Java", 30, "c" + i + "@test.com"));
+        }
+        exchange.addAllUnemployed(candidates);
+        for (int i = 0; i < 49990; i++) {
+            candidates.get(i).setEmployed(true);
+        }
+        clock.set(Instant.parse("2024-02-10T00:00:00Z"));
+        for (int i = 49990; i < 50000; i++) {
+            candidates.get(i).setEmployed(true);
+        }
+
+        Report february = exchange.generateMonthlyReport("FEB", YearMonth.of(2024, 2));
+        assertEquals("Лише працевлаштовані лютого", 10, february.getEmployedList().size());
+        assertEquals("Перший працевлаштований лютого", candidates.get(49990), february.getEmployedList().get(0));
+        assertEquals("Повний звіт рахує всіх", 50000,
+                exchange.generateMonthlyReport("ALL").getEmployedList().size());
+    }
+
+    /**
+     * Годинник, час якого задає тест
+     */
+    private static final class TestClock extends Clock {
+        private volatile Instant now;
+
+        TestClock(Instant now) {
+            this.now = now;
+        }
+
+        void set(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    @Test
+    public void testSalaryColumnsSameAsObjectScan() {
+        Random random = new Random(16);
+        List<Vacancy> vacancies = new ArrayList<>();
+        List<Unemployed> candidates = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            vacancies.add(new Vacancy("V" + i, "Developer", "Company", "Java", 5000.0 + random.nextInt(60000)));
+            candidates.add(new Unemployed("Name" + i, "Address", "Phone", "Java", 30, "c" + i + "@test.com"));
+        }
+        system.addAllVacancies(vacancies.subList(0, 2000));
+        system.addAllUnemployed(candidates);
+        for (Vacancy vacancy : vacancies.subList(2000, 3000)) {
+            system.addVacancy(vacancy);
+        }
+        for (int step = 0; step < 3000; step++) {
+            Vacancy vacancy = vacancies.get(random.nextInt(vacancies.size()));
+            switch (random.nextInt(3)) {
+                case 0:
+                    vacancy.setSalary(5000.0 + random.nextInt(60000));
+                    break;
+                case 1:
+                    vacancy.setActive(random.nextBoolean());
+                    break;
+                default:
+                    system.employUnemployed(candidates.get(random.nextInt(candidates.size())), vacancy);
+            }
+        }
+
+        system.setConsistencyCheck(true);
+        for (int i = 0; i < 20; i++) {
+            double min = random.nextInt(70000);
+            double max = min + random.nextInt(30000);
+            system.countActiveVacanciesInSalaryRange(min, max);
+        }
+        assertEquals("Межі включно", vacancies.stream().filter(v -> v.isActive() && v.getSalary() == 30000.0).count(),
+                system.countActiveVacanciesInSalaryRange(30000.0, 30000.0));
+        assertEquals("Високооплачувані вакансії",
+                vacancies.stream().filter(v -> v.isActive() && v.isHighSalary()).collect(Collectors.toList()),
+                system.getHighSalaryVacancies());
+        assertEquals("Середня зарплата активних",
+                vacancies.stream().filter(Vacancy::isActive).mapToDouble(Vacancy::getSalary).average().orElse(0.0),
+                system.getAverageActiveSalary(), 0.001);
+    }
+
+    @Test
+    public void testSalaryQueriesSameAsSortedScan() {
+        String[] skills = {"Java", "Python", "SQL", "Node.js", "React"};
+        Random random = new Random(17);
+        List<Vacancy> vacancies = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            // Небагато різних зарплат, щоб були рівні
+            vacancies.add(new Vacancy("V" + i, "Developer", "Company",
+                    skills[random.nextInt(skills.length)] + ", " + skills[random.nextInt(skills.length)],
+                    1000.0 * (5 + random.nextInt(50))));
+        }
+        system.addAllVacancies(vacancies.subList(0, 1500));
+        for (Vacancy vacancy : vacancies.subList(1500, 2000)) {
+            system.addVacancy(vacancy);
+        }
+        for (int step = 0; step < 2000; step++) {
+            Vacancy vacancy = vacancies.get(random.nextInt(vacancies.size()));
+            if (random.nextBoolean()) {
+                vacancy.setSalary(1000.0 * (5 + random.nextInt(50)));
+            } else {
+                vacancy.setActive(random.nextInt(3) != 0);
+            }
+        }
+
+        Comparator<Vacancy> bySalary = Comparator.comparingDouble(Vacancy::getSalary).reversed();
+        for (int i = 0; i < 20; i++) {
+            double min = 1000.0 * random.nextInt(60);
+            double max = min + 1000.0 * random.nextInt(20);
+            List<Vacancy> expected = vacancies.stream()
+                    .filter(v -> v.isActive() && v.getSalary() >= min && v.getSalary() <= max)
+                    .sorted(bySalary)
+                    .collect(Collectors.toList());
+            assertEquals("Діапазон зарплат " + min + ".." + max, expected, system.findVacanciesBySalaryRange(min, max));
+        }
+        assertTrue("Порожній діапазон", system.findVacanciesBySalaryRange(10000.0, 5000.0).isEmpty());
+
+        for (String skill : skills) {
+            Unemployed candidate = new Unemployed("Name", "Address", "Phone", skill + " Developer", 30, "top@test.com");
+            List<Vacancy> expected = vacancies.stream()
+                    .filter(v -> v.isActive() && v.matchesSpecialty(candidate.getSpecialty()))
+                    .sorted(bySalary)
+                    .limit(10)
+                    .collect(Collectors.toList());
+            assertEquals("Найкраще оплачувані для " + skill, expected,
+                    system.findTopPayingVacanciesForUnemployed(candidate, 10));
+        }
+        assertTrue("k = 0", system.findTopPayingVacanciesForUnemployed(unemployed, 0).isEmpty());
+    }
+
+    @Test
+    public void testRankedVacanciesSameAsBruteForce() {
+        String[] skills = {"Java", "Python", "SQL", "Node.js", "React", "C++", "Kotlin", "Go"};
+        Random random = new Random(18);
+        List<Vacancy> vacancies = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            // Частота навичок різна, тож різні й ваги слів
+            vacancies.add(new Vacancy("V" + i, "Developer", "Company",
+                    skills[random.nextInt(1 + random.nextInt(skills.length))] + ", "
+                            + skills[random.nextInt(skills.length)], 20000.0));
+        }
+        system.addAllVacancies(vacancies.subList(0, 1000));
+        for (Vacancy vacancy : vacancies.subList(1000, 1500)) {
+            system.addVacancy(vacancy);
+        }
+        for (int step = 0; step < 500; step++) {
+            vacancies.get(random.nextInt(vacancies.size())).setActive(random.nextInt(3) != 0);
+        }
+
+        for (int i = 0; i < 30; i++) {
+            String specialty = skills[random.nextInt(skills.length)] + " " + skills[random.nextInt(skills.length)]
+                    + " " + skills[random.nextInt(skills.length)];
+            Unemployed candidate = new Unemployed("Name", "Address", "Phone", specialty, 30, "rank@test.com");
+            int k = 1 + random.nextInt(20);
+            List<RankedVacancy> ranked = system.rankVacanciesForUnemployed(candidate, k);
+            List<RankedVacancy> expected = bruteForceRanking(vacancies, specialty, k);
+            assertEquals("Кількість для " + specialty, expected.size(), ranked.size());
+            for (int j = 0; j < expected.size(); j++) {
+                assertSame("Вакансія " + j + " для " + specialty, expected.get(j).getVacancy(), ranked.get(j).getVacancy());
+                assertEquals("Оцінка " + j + " для " + specialty, expected.get(j).getScore(), ranked.get(j).getScore(), 1e-9);
+            }
+        }
+        assertTrue("k = 0", system.rankVacanciesForUnemployed(unemployed, 0).isEmpty());
+        assertTrue("Без безробітного", system.rankVacanciesForUnemployed(null, 5).isEmpty());
+    }
+
+    // Повний перебір: частоти рахуються заново за всіма активними вакансіями
+    private static List<RankedVacancy> bruteForceRanking(List<Vacancy> vacancies, String specialty, int k) {
+        Keywords keywords = Keywords.of(specialty);
+        List<String> words = new ArrayList<>(new LinkedHashSet<>(keywords.getWords()));
+        List<Vacancy> active = vacancies.stream().filter(Vacancy::isActive).collect(Collectors.toList());
+        double[] weights = new double[words.size() + keywords.getPatternCount()];
+        for (int w = 0; w < weights.length; w++) {
+            int frequency = 0;
+            for (Vacancy vacancy : active) {
+                if (bruteForceHit(keywords, words, w, vacancy)) {
+                    frequency++;
+                }
+            }
+            weights[w] = frequency == 0 ? 0.0 : Math.log(1 + (double) active.size() / frequency);
+        }
+        List<RankedVacancy> result = new ArrayList<>();
+        for (Vacancy vacancy : active) {
+            if (vacancy.matchesSpecialty(specialty)) {
+                double score = 0;
+                for (int w = 0; w < weights.length; w++) {
+                    if (bruteForceHit(keywords, words, w, vacancy)) {
+                        score += weights[w];
+                    }
+                }
+                result.add(new RankedVacancy(vacancy, score));
+            }
+        }
+        // Стабільне сортування зберігає порядок реєстрації для рівних оцінок
+        result.sort(Comparator.comparingDouble(RankedVacancy::getScore).reversed());
+        return result.subList(0, Math.min(k, result.size()));
+    }
+
+    private static boolean bruteForceHit(Keywords keywords, List<String> words, int w, Vacancy vacancy) {
+        return w < words.size()
+                ? vacancy.getRequirementTokens().contains(words.get(w))
+                : keywords.matchesPattern(w - words.size(), vacancy.getRequirements());
+    }
+
     @Test
     public void testIntegrationScenario() {
         // Комплексний сценарій роботи системи
@@ -0,0 +1,48 @@
+package main.laborexchange;
+
+import org.junit.*;
+import java.util.Arrays;
+import java.util.Random;
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBucketBounds() {
+        long previous = -1;
+        for (long value : new long[]{0, 1, 7, 8, 9, 15, 16, 1000, 123_456_789L, Long.MAX_VALUE}) {
+            long upper = LatencyHistogram.upperBound(LatencyHistogram.bucket(value));
+            assertTrue("Значення не більше межі кошика: " + value, value <= upper);
+            assertTrue("Похибка межі не більше 12,5%: " + value, upper - value <= value / 8);
+            assertTrue("Кошики впорядковані", upper > previous);
+            previous = upper;
+        }
+    }
+
+    @Test
+    public void testPercentilesCloseToExact() {
+        Random random = new Random(42);
+        long[] values = new long[10_000];
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < values.length; i++) {
+            // Логнормальний розподіл, схожий на затримки
+            values[i] = (long) Math.exp(10 + 1.5 * random.nextGaussian());
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        OperationStats stats = histogram.snapshot("op");
+        assertEquals("Кількість записів", values.length, stats.getCount());
+        assertEquals("Максимум точний", values[values.length - 1], stats.getMaxNanos());
+        assertClose("p50", values[4999], stats.getP50Nanos());
+        assertClose("p99", values[9899], stats.getP99Nanos());
+        assertClose("p99.9", values[9989], stats.getP999Nanos());
+
+        histogram.reset();
+        assertEquals("Після скидання порожньо", 0, histogram.snapshot("op").getCount());
+    }
+
+    private static void assertClose(String what, long exact, long estimate) {
+        assertTrue(what + ": " + estimate + " проти " + exact,
+                estimate >= exact && estimate - exact <= exact / 8);
+    }
+}
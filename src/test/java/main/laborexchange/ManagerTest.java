@@ -1,7 +1,18 @@
 package main.laborexchange;
 
 import org.junit.*;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import static org.junit.Assert.*;
 
 public class ManagerTest {
@@ -85,6 +96,85 @@ public class ManagerTest {
     }
 
 
+    @Test
+    public void testMatchingVacanciesPages() {
+        manager.registerUnemployed(unemployed);
+        for (int i = 0; i < 25; i++) {
+            Vacancy v = new Vacancy("V" + i, "Developer", "Company", i % 3 == 0 ? "Python" : "Java", 20000.0);
+            v.setActive(i % 5 != 0);
+            manager.registerVacancy(v);
+        }
+        List<Vacancy> all = manager.findMatchingVacancies(unemployed);
+        assertEquals("Потік дає ті самі вакансії", all, manager.streamMatchingVacancies(unemployed).collect(Collectors.toList()));
+
+        Page<Vacancy> first = manager.findMatchingVacancies(unemployed, null, 5);
+        assertEquals("Перша сторінка", all.subList(0, 5), first.getItems());
+        assertTrue("Є наступна сторінка", first.hasNextPage());
+        Page<Vacancy> second = manager.findMatchingVacancies(unemployed, first.getNextPageToken(), 10);
+        assertEquals("Друга сторінка - решта", all.subList(5, all.size()), second.getItems());
+        assertFalse("Сторінок більше немає", second.hasNextPage());
+
+        Unemployed unregistered = new Unemployed("Інший", "Адреса", "Тел", "Java", 25, "other@test.com");
+        assertTrue("Незареєстрований не отримує сторінок",
+                manager.findMatchingVacancies(unregistered, null, 5).getItems().isEmpty());
+    }
+
+    @Test
+    public void testMatchCache() {
+        manager.registerVacancy(vacancy);
+        assertEquals("Перший пошук", 1, manager.findMatchingVacanciesForAny("Java Developer").size());
+        assertEquals("Другий пошук з кешу", 1, manager.findMatchingVacanciesForAny("developer java").size());
+        assertEquals("Одне влучання", 1, manager.getMatchCacheStats().getHits());
+
+        vacancy.setActive(false);
+        assertTrue("Закрита вакансія зникає з результату", manager.findMatchingVacanciesForAny("Java Developer").isEmpty());
+        vacancy.setActive(true);
+        Vacancy other = new Vacancy("V002", "Java Developer", "Other", "Java", 20000.0);
+        manager.registerVacancy(other);
+        assertEquals("Нову вакансію видно одразу", 2, manager.findMatchingVacanciesForAny("Java Developer").size());
+    }
+
+    @Test
+    public void testCloseDetachesVacancies() {
+        manager.registerVacancy(vacancy);
+        assertEquals("Менеджер підписаний на вакансію", 1, vacancy.listeners().length);
+        manager.close();
+        assertEquals("Після close вакансія не тримає менеджера", 0, vacancy.listeners().length);
+        vacancy.setActive(false);
+        assertTrue("Без підписки кеш не віддає застарілих результатів",
+                manager.findMatchingVacanciesForAny("Java Developer").isEmpty());
+    }
+
+    @Test
+    public void testMetrics() {
+        manager.registerUnemployed(unemployed);
+        assertTrue("Вимірювання за замовчуванням вимкнене", manager.getMetricsSnapshot().getOperations().isEmpty());
+
+        manager.setMetricsEnabled(true);
+        manager.registerVacancy(vacancy);
+        manager.findMatchingVacancies(unemployed);
+        manager.findMatchingVacancies(unemployed);
+        manager.employUnemployed(unemployed, vacancy);
+
+        MetricsSnapshot snapshot = manager.getMetricsSnapshot();
+        assertNull("Реєстрація до ввімкнення не врахована", snapshot.get("registerUnemployed"));
+        assertEquals("Одна реєстрація вакансії", 1, snapshot.get("registerVacancy").getCount());
+        assertEquals("Два пошуки", 2, snapshot.get("findMatchingVacancies").getCount());
+        assertEquals("Одне працевлаштування", 1, snapshot.get("employUnemployed").getCount());
+    }
+
+    @Test
+    public void testMetricsMBeanRenameAndClose() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName first = manager.registerMetricsMBean("manager-test");
+        ObjectName second = manager.registerMetricsMBean("manager-test-2");
+        assertFalse("Старе ім'я звільнено", server.isRegistered(first));
+        assertTrue("Нове ім'я зареєстровано", server.isRegistered(second));
+
+        manager.close();
+        assertFalse("close знімає реєстрацію", server.isRegistered(second));
+    }
+
     @Test
     public void testFindMatchingVacanciesForAny() {
         // Цей метод працює для будь-якої спеціальності без реєстрації
@@ -159,6 +249,66 @@ public class ManagerTest {
         assertTrue("Не знайдено Python розробників", pythonDevs.isEmpty());
     }
 
+    @Test
+    public void testEmployAlreadyEmployedKeepsVacancyOpen() {
+        manager.registerUnemployed(unemployed);
+        manager.registerVacancy(vacancy);
+        Vacancy other = new Vacancy("V002", "Java Developer", "Other Company", "Java", 30000.0);
+        manager.registerVacancy(other);
+
+        assertTrue("Перше працевлаштування", manager.employUnemployed(unemployed, vacancy));
+        assertFalse("Працевлаштований кандидат не займає другу вакансію", manager.employUnemployed(unemployed, other));
+        assertTrue("Друга вакансія залишається відкритою", other.isActive());
+
+        // Кандидата, працевлаштованого іншим менеджером, не займає й цей
+        Manager colleague = new Manager("Колега", "M002");
+        Unemployed shared = new Unemployed("Спільний", "Київ", "050", "Java Developer", 30, "shared@test.com");
+        Vacancy third = new Vacancy("V003", "Java Developer", "Third Company", "Java", 30000.0);
+        assertTrue(colleague.employUnemployed(shared, other));
+        assertFalse("Працевлаштований колегою кандидат зайнятий", manager.employUnemployed(shared, third));
+        assertTrue("Третя вакансія відкрита", third.isActive());
+    }
+
+    @Test
+    public void testConcurrentEmploymentOfOneCandidate() throws Exception {
+        for (int round = 0; round < 200; round++) {
+            Unemployed candidate = new Unemployed("Кандидат", "Київ", "050", "Java Developer", 30, "race@test.com");
+            Manager[] managers = new Manager[4];
+            Vacancy[] vacancies = new Vacancy[managers.length];
+            for (int i = 0; i < managers.length; i++) {
+                managers[i] = new Manager("Менеджер " + i, "M" + i);
+                vacancies[i] = new Vacancy("V" + i, "Java Developer", "Company", "Java", 30000.0);
+                managers[i].registerVacancy(vacancies[i]);
+            }
+
+            ExecutorService executor = Executors.newFixedThreadPool(managers.length);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < managers.length; i++) {
+                int index = i;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return managers[index].employUnemployed(candidate, vacancies[index]);
+                }));
+            }
+            start.countDown();
+            int placements = 0;
+            int closed = 0;
+            for (int i = 0; i < managers.length; i++) {
+                if (results.get(i).get(30, TimeUnit.SECONDS)) {
+                    placements++;
+                    assertFalse("Вакансія вдалої спроби закрита", vacancies[i].isActive());
+                }
+                if (!vacancies[i].isActive()) {
+                    closed++;
+                }
+            }
+            executor.shutdown();
+            assertEquals("Кандидата працевлаштовано рівно один раз", 1, placements);
+            assertEquals("Закрита лише одна вакансія", 1, closed);
+        }
+    }
+
     @Test
     public void testUnemploy() {
         manager.registerUnemployed(unemployed);
@@ -1,7 +1,15 @@
 package main.laborexchange;
 
 import org.junit.*;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.Random;
 import static org.junit.Assert.*;
 
 public class ReportTest {
@@ -135,6 +143,89 @@ public class ReportTest {
         assertEquals("Не додає активних вакансій", 0, report.getClosedVacancies().size());
     }
 
+    @Test
+    public void testBuilderSameAsIncrementalReport() {
+        Random random = new Random(11);
+        List<Unemployed> candidates = new ArrayList<>();
+        List<Vacancy> vacancies = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            // Повтори email та id, null і записи, що не підходять до звіту
+            Unemployed u = random.nextInt(20) == 0 ? null : new Unemployed("Name" + i, "Адреса", "Тел",
+                    "Спеціальність", 30, random.nextInt(10) == 0 ? null : "c" + random.nextInt(800) + "@test.com");
+            if (u != null) {
+                u.setEmployed(random.nextBoolean());
+            }
+            candidates.add(u);
+            Vacancy v = random.nextInt(20) == 0 ? null : new Vacancy("V" + random.nextInt(800), "Позиція",
+                    "Компанія", "Вимоги", 25000.0);
+            if (v != null) {
+                v.setActive(random.nextBoolean());
+            }
+            vacancies.add(v);
+        }
+
+        Report incremental = new Report("R002");
+        candidates.forEach(incremental::addEmployed);
+        vacancies.forEach(incremental::addClosedVacancy);
+
+        for (boolean parallel : new boolean[]{false, true}) {
+            Report built = new ReportBuilder("R002").parallel(parallel)
+                    .addAllEmployed(candidates)
+                    .addAllClosedVacancies(vacancies)
+                    .build();
+            assertEquals("Ті самі працевлаштовані в тому ж порядку", incremental.getEmployedList(), built.getEmployedList());
+            assertEquals("Ті самі закриті вакансії в тому ж порядку", incremental.getClosedVacancies(), built.getClosedVacancies());
+            assertEquals("Та сама кількість оброблених", incremental.getTotalProcessed(), built.getTotalProcessed());
+            assertEquals("Та сама успішність", incremental.getSuccessRate(), built.getSuccessRate(), 0.0);
+            assertEquals("Те саме зведення", incremental.generateSummary(), built.generateSummary());
+        }
+    }
+
+    @Test
+    public void testBuilderSingleAdds() {
+        Report built = new ReportBuilder("R003")
+                .addEmployed(employed)
+                .addEmployed(employed)
+                .addClosedVacancy(closedVacancy)
+                .addClosedVacancy(new Vacancy("V002", "Активна", "Компанія", "Вимоги", 30000.0))
+                .build();
+        assertEquals("Дублікати не додаються", 1, built.getEmployedList().size());
+        assertEquals("Активні вакансії не додаються", 1, built.getClosedVacancies().size());
+        assertEquals("Успішність 50%", 50.0, built.getSuccessRate(), 0.1);
+        assertTrue("Звіт валідний", built.isValid());
+    }
+
+    @Test
+    public void testWriteDetailedReportSameAsString() throws IOException {
+        report.addEmployed(employed);
+        report.addClosedVacancy(closedVacancy);
+        String expected = report.generateDetailedReport();
+
+        StringWriter writer = new StringWriter();
+        report.writeDetailedReport(writer);
+        assertEquals("Запис у Writer збігається з рядком", expected, writer.toString());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        report.writeDetailedReport(Channels.newChannel(bytes));
+        assertEquals("Запис у канал збігається з рядком", expected, bytes.toString(StandardCharsets.UTF_8.name()));
+    }
+
+    @Test
+    public void testWriteLargeDetailedReportToChannel() throws IOException {
+        ReportBuilder builder = new ReportBuilder("R004");
+        for (int i = 0; i < 20000; i++) {
+            Unemployed u = new Unemployed("Працівник " + i, "Адреса", "Тел", "Спеціальність", 30, "e" + i + "@test.com");
+            u.setEmployed(true);
+            builder.addEmployed(u);
+        }
+        Report large = builder.build();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        large.writeDetailedReport(Channels.newChannel(bytes));
+        assertEquals("Великий звіт записано повністю", large.generateDetailedReport(),
+                bytes.toString(StandardCharsets.UTF_8.name()));
+    }
+
     @Test
     public void testToString() {
         String toString = report.toString();
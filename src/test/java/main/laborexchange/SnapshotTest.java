@@ -0,0 +1,368 @@
+package main.laborexchange;
+
+import org.junit.*;
+import org.junit.rules.TemporaryFolder;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import static org.junit.Assert.*;
+
+public class SnapshotTest {
+    private static final String[] SKILLS = {"Java", "Spring", "Python", "Django", "SQL", "React", "Node.js", "Тестувальник"};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Clock clock;
+    private LaborExchangeSystem system;
+    private List<Unemployed> candidates;
+    private List<Vacancy> vacancies;
+
+    @Before
+    public void setUp() {
+        clock = Clock.fixed(Instant.parse("2024-05-15T12:00:00Z"), ZoneOffset.UTC);
+        system = new LaborExchangeSystem(clock);
+        candidates = new ArrayList<>();
+        vacancies = new ArrayList<>();
+        Random random = new Random(5);
+        for (int i = 0; i < 300; i++) {
+            candidates.add(new Unemployed("Кандидат " + i, "Адреса " + i, "050" + i,
+                    skill(random) + " " + skill(random), 20 + random.nextInt(40), "c" + i + "@test.com"));
+            Vacancy vacancy = new Vacancy("V" + i, "Позиція " + i, "Компанія", skill(random) + ", " + skill(random),
+                    10000.0 + random.nextInt(50000));
+            vacancy.setActive(random.nextInt(10) != 0);
+            vacancies.add(vacancy);
+        }
+        system.addAllUnemployed(candidates);
+        system.addAllVacancies(vacancies);
+        for (int i = 0; i < 300; i += 3) {
+            system.employUnemployed(candidates.get(i), vacancies.get(random.nextInt(300)));
+        }
+
+        Manager manager = new Manager("Менеджер Олена", "M001");
+        manager.registerUnemployed(candidates.get(1));
+        manager.registerVacancy(vacancies.get(2));
+        // Запис, відомий лише менеджерові
+        manager.registerUnemployed(new Unemployed("Поза системою", "Адреса", "Тел", "Java", 30, "outside@test.com"));
+        system.addManager(manager);
+        system.addManager(new Manager("Менеджер Іван", "M002"));
+        system.generateMonthlyReport("MONTHLY_001");
+    }
+
+    private static String skill(Random random) {
+        return SKILLS[random.nextInt(SKILLS.length)];
+    }
+
+    @Test
+    public void testRoundTripKeepsStatisticsAndMatching() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("exchange.snapshot");
+        system.writeSnapshot(file);
+        LaborExchangeSystem loaded = LaborExchangeSystem.loadSnapshot(file, clock);
+        loaded.setConsistencyCheck(true);
+
+        assertEquals("Та сама статистика", system.getSystemStatistics(), loaded.getSystemStatistics());
+        assertEquals("Ті самі активні вакансії", system.getActiveVacancies(), loaded.getActiveVacancies());
+        assertEquals("Ті самі працевлаштовані", system.getEmployedCount(), loaded.getEmployedCount());
+        assertEquals("Ті самі пари для всіх кандидатів",
+                describe(system.matchAll().getMatches()), describe(loaded.matchAll().getMatches()));
+        for (Vacancy vacancy : vacancies) {
+            assertEquals("Ті самі кандидати для вакансії " + vacancy.getId(),
+                    system.findUnemployedForVacancy(vacancy), loaded.findUnemployedForVacancy(vacancy));
+        }
+        for (String query : new String[]{"java", "Тест", "node", "sq"}) {
+            assertEquals("Той самий пошук за спеціальністю " + query,
+                    system.findUnemployedForSpecialty(query), loaded.findUnemployedForSpecialty(query));
+        }
+
+        Report original = system.generateMonthlyReport("MAY", YearMonth.of(2024, 5));
+        Report restored = loaded.generateMonthlyReport("MAY", YearMonth.of(2024, 5));
+        assertEquals("Ті самі події місяця", original.getEmployedList(), restored.getEmployedList());
+        assertEquals("Ті самі закриті вакансії місяця", original.getClosedVacancies(), restored.getClosedVacancies());
+    }
+
+    @Test
+    public void testRoundTripKeepsManagersAndReports() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("exchange.snapshot");
+        system.writeSnapshot(file);
+        LaborExchangeSystem loaded = LaborExchangeSystem.loadSnapshot(file);
+
+        List<Manager> managers = loaded.managerList();
+        assertEquals("Менеджери відновлені", 2, managers.size());
+        assertEquals("Ім'я менеджера", "Менеджер Олена", managers.get(0).getName());
+        assertEquals("Записи менеджера відновлені",
+                system.managerList().get(0).getProcessedUnemployed(), managers.get(0).getProcessedUnemployed());
+        assertEquals("Вакансії менеджера відновлені",
+                system.managerList().get(0).getProcessedVacancies(), managers.get(0).getProcessedVacancies());
+        assertEquals("Запис поза системою не реєструється", system.getTotalUnemployed(), loaded.getTotalUnemployed());
+
+        Report original = system.reportList().get(0);
+        Report restored = loaded.reportList().get(0);
+        assertEquals("Той самий детальний звіт", original.generateDetailedReport(), restored.generateDetailedReport());
+        assertEquals("Та сама дата звіту", original.getReportDate(), restored.getReportDate());
+    }
+
+    @Test
+    public void testRestoredRecordsFollowChanges() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("exchange.snapshot");
+        system.writeSnapshot(file);
+        LaborExchangeSystem loaded = LaborExchangeSystem.loadSnapshot(file, clock);
+        loaded.setConsistencyCheck(true);
+        system.setConsistencyCheck(true);
+        // Записи зі знімка завантажуються лише тоді, коли до них звертаються
+        List<Unemployed> restoredCandidates = loaded.unemployedRegistry();
+        List<Vacancy> restoredVacancies = loaded.vacancyRegistry();
+
+        for (int i = 1; i < 120; i += 7) {
+            List<Vacancy> matches = system.findVacanciesForUnemployed(candidates.get(i));
+            if (!matches.isEmpty()) {
+                int v = vacancies.indexOf(matches.get(0));
+                assertEquals("Те саме працевлаштування кандидата " + i,
+                        system.employUnemployed(candidates.get(i), vacancies.get(v)),
+                        loaded.employUnemployed(restoredCandidates.get(i), restoredVacancies.get(v)));
+            }
+        }
+        for (int i = 0; i < 290; i += 11) {
+            vacancies.get(i).setSalary(5000.0 + 300 * i);
+            restoredVacancies.get(i).setSalary(5000.0 + 300 * i);
+            vacancies.get(i + 5).setRequirements("Python, Django");
+            restoredVacancies.get(i + 5).setRequirements("Python, Django");
+            vacancies.get(i + 7).setActive(!vacancies.get(i + 7).isActive());
+            restoredVacancies.get(i + 7).setActive(!restoredVacancies.get(i + 7).isActive());
+            candidates.get(i + 2).setSpecialty("React");
+            restoredCandidates.get(i + 2).setSpecialty("React");
+        }
+        candidates.get(5).setEmail("moved@test.com");
+        restoredCandidates.get(5).setEmail("moved@test.com");
+
+        Unemployed reused = new Unemployed("Новий", "Київ", "0501112233", "Java", 30, "c5@test.com");
+        Unemployed duplicate = new Unemployed("Дубль", "Київ", "0501112233", "Java", 30, "c6@test.com");
+        assertTrue("Звільнений email запису зі знімка вільний", loaded.addUnemployed(reused));
+        assertFalse("Email запису зі знімка зайнятий", loaded.addUnemployed(duplicate));
+        assertFalse("Новий email запису зі знімка зайнятий", loaded.addUnemployed(
+                new Unemployed("Дубль", "Київ", "0501112233", "Java", 30, "moved@test.com")));
+        assertFalse("Id вакансії зі знімка зайнятий", loaded.addVacancy(
+                new Vacancy("V10", "Позиція", "Компанія", "Java", 20000.0)));
+        system.addUnemployed(new Unemployed("Новий", "Київ", "0501112233", "Java", 30, "c5@test.com"));
+
+        assertEquals("Та сама статистика після змін", system.getSystemStatistics(), loaded.getSystemStatistics());
+        assertEquals("Ті самі вакансії за зарплатою",
+                ids(system.findVacanciesBySalaryRange(12000, 40000)), ids(loaded.findVacanciesBySalaryRange(12000, 40000)));
+        assertEquals("Та сама кількість за зарплатою", system.countActiveVacanciesInSalaryRange(12000, 40000),
+                loaded.countActiveVacanciesInSalaryRange(12000, 40000));
+        assertEquals("Ті самі високооплачувані", ids(system.getHighSalaryVacancies()), ids(loaded.getHighSalaryVacancies()));
+        assertEquals("Та сама середня зарплата", system.getAverageActiveSalary(), loaded.getAverageActiveSalary(), 1e-9);
+        for (int i = 0; i < 300; i++) {
+            assertEquals("Ті самі кандидати для вакансії " + i, system.findUnemployedForVacancy(vacancies.get(i)),
+                    loaded.findUnemployedForVacancy(restoredVacancies.get(i)));
+        }
+        for (String query : new String[]{"java", "react", "node", "sq"}) {
+            assertEquals("Той самий пошук за спеціальністю " + query,
+                    system.findUnemployedForSpecialty(query), loaded.findUnemployedForSpecialty(query));
+        }
+        assertEquals("Ті самі пари для всіх кандидатів",
+                describe(system.matchAll().getMatches()), describe(loaded.matchAll().getMatches()));
+    }
+
+    @Test
+    public void testConcurrentFirstAccessSharesRecords() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("exchange.snapshot");
+        system.writeSnapshot(file);
+        LaborExchangeSystem loaded = LaborExchangeSystem.loadSnapshot(file, clock);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<List<Vacancy>>> results = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            results.add(executor.submit(() -> loaded.findVacanciesBySalaryRange(0, Double.MAX_VALUE)));
+        }
+        List<Vacancy> first = results.get(0).get();
+        for (Future<List<Vacancy>> result : results) {
+            List<Vacancy> found = result.get();
+            assertEquals("Ті самі вакансії", first.size(), found.size());
+            for (int i = 0; i < found.size(); i++) {
+                assertSame("Запис, завантажений одночасно кількома потоками, один", first.get(i), found.get(i));
+            }
+        }
+        executor.shutdown();
+
+        loaded.setConsistencyCheck(true);
+        Vacancy vacancy = first.get(0);
+        vacancy.setActive(false);
+        assertEquals("Зміна завантаженого запису врахована один раз",
+                system.getActiveVacancies() - 1, loaded.getActiveVacancies());
+    }
+
+    @Test
+    public void testWriteReplacesSnapshotAtomically() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("exchange.snapshot");
+        system.writeSnapshot(file);
+        system.addVacancy(new Vacancy("V_NEW", "Позиція", "Компанія", "Java", 20000.0));
+        system.writeSnapshot(file);
+
+        assertEquals("Завантажено новий знімок", system.getTotalVacancies(),
+                LaborExchangeSystem.loadSnapshot(file).getTotalVacancies());
+        try (Stream<Path> files = Files.list(folder.getRoot().toPath())) {
+            assertEquals("Тимчасових файлів не лишилось", 1, files.count());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectsForeignFile() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("foreign.snapshot");
+        Files.write(file, new byte[200]);
+        LaborExchangeSystem.loadSnapshot(file);
+    }
+
+    @Test
+    public void testOpenReplaysJournalAfterSnapshot() throws IOException {
+        Path journal = folder.getRoot().toPath().resolve("exchange.journal");
+        Path file = folder.getRoot().toPath().resolve("exchange.snapshot");
+        Unemployed early = new Unemployed("Ранній", "Київ", "0509998800", "Java", 30, "early@test.com");
+        Unemployed late = new Unemployed("Пізній", "Київ", "0509998877", "Java", 30, "late@test.com");
+        Vacancy lateVacancy = new Vacancy("V_LATE", "Java Developer", "Компанія", "Java", 40000.0);
+        try (LaborExchangeSystem journaled = LaborExchangeSystem.open(journal, Journal.SyncMode.GROUP_COMMIT, clock)) {
+            journaled.addAllUnemployed(candidates);
+            journaled.addAllVacancies(vacancies);
+            journaled.addUnemployed(early);
+            journaled.writeSnapshot(file);
+
+            journaled.addUnemployed(late);
+            journaled.addVacancy(lateVacancy);
+            journaled.addManager(new Manager("Менеджер Іван", "M002"));
+            assertTrue("Працевлаштування запису зі знімка", journaled.employUnemployed(early, lateVacancy));
+            journaled.generateMonthlyReport("MONTHLY_LATE");
+        }
+
+        try {
+            LaborExchangeSystem.open(file, folder.getRoot().toPath().resolve("other.journal"));
+            fail("Знімок не відкривається з журналом, коротшим за його позицію");
+        } catch (IOException expected) {
+            // Порожній журнал коротший за позицію знімка
+        }
+
+        LaborExchangeSystem full;
+        try (LaborExchangeSystem replayed = LaborExchangeSystem.open(journal, Journal.SyncMode.GROUP_COMMIT, clock)) {
+            full = replayed;
+        }
+        try (LaborExchangeSystem opened = LaborExchangeSystem.open(file, journal, Journal.SyncMode.GROUP_COMMIT, clock)) {
+            opened.setConsistencyCheck(true);
+            assertEquals("Та сама статистика, що й після повного відтворення",
+                    full.getSystemStatistics(), opened.getSystemStatistics());
+            assertEquals("Записи після знімка відтворені", full.getTotalUnemployed(), opened.getTotalUnemployed());
+            assertEquals("Працевлаштування до й після знімка", full.getEmployedCount(), opened.getEmployedCount());
+            assertEquals("Менеджер після знімка", 1, opened.getManagerCount());
+            assertEquals("Ті самі події", eventCount(full), eventCount(opened));
+
+            assertTrue("Відкрита система пише до журналу", opened.addUnemployed(
+                    new Unemployed("Новий", "Київ", "0501230000", "Python", 25, "new@test.com")));
+        }
+        try (LaborExchangeSystem reopened = LaborExchangeSystem.open(file, journal, Journal.SyncMode.GROUP_COMMIT, clock)) {
+            assertEquals("Нова операція відтворена разом із рештою", full.getTotalUnemployed() + 1,
+                    reopened.getTotalUnemployed());
+        }
+    }
+
+    @Test
+    public void testOpenReplaysEmailChangeAfterSnapshot() throws IOException {
+        Path journal = folder.getRoot().toPath().resolve("exchange.journal");
+        Path file = folder.getRoot().toPath().resolve("exchange.snapshot");
+        Unemployed moved = new Unemployed("Перший", "Київ", "0501112233", "Java", 30, "old@test.com");
+        Vacancy java = new Vacancy("V_JAVA", "Java Developer", "Компанія", "Java", 30000.0);
+        try (LaborExchangeSystem journaled = LaborExchangeSystem.open(journal, Journal.SyncMode.GROUP_COMMIT, clock)) {
+            journaled.addUnemployed(moved);
+            journaled.addVacancy(java);
+            journaled.writeSnapshot(file);
+
+            moved.setEmail("new@test.com");
+            assertTrue(journaled.employUnemployed(moved, java));
+            assertTrue(journaled.addUnemployed(new Unemployed("Другий", "Львів", "0672223344", "Java", 25, "old@test.com")));
+        }
+
+        try (LaborExchangeSystem opened = LaborExchangeSystem.open(file, journal, Journal.SyncMode.GROUP_COMMIT, clock)) {
+            opened.setConsistencyCheck(true);
+            List<Unemployed> registry = opened.unemployedRegistry();
+            assertEquals("Обидва записи є", 2, registry.size());
+            assertEquals("Зміна email після знімка відтворена", "new@test.com", registry.get(0).getEmail());
+            assertTrue("Запис зі знімка працевлаштований за ключем", registry.get(0).isEmployed());
+            assertEquals("Старий email дістався іншому", "old@test.com", registry.get(1).getEmail());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testOpenRejectsSnapshotWithoutJournal() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("exchange.snapshot");
+        system.writeSnapshot(file);
+        LaborExchangeSystem.open(file, folder.getRoot().toPath().resolve("exchange.journal"));
+    }
+
+    @Test
+    public void testSnapshotDuringOperationsMatchesJournal() throws Exception {
+        Path journal = folder.getRoot().toPath().resolve("exchange.journal");
+        Path file = folder.getRoot().toPath().resolve("exchange.snapshot");
+        List<Unemployed> people = new ArrayList<>();
+        List<Vacancy> jobs = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            people.add(new Unemployed("Кандидат " + i, "Київ", "050" + i, "Java Developer", 30, "p" + i + "@test.com"));
+            jobs.add(new Vacancy("J" + i, "Java Developer", "Компанія", "Java, Spring", 20000.0 + i));
+        }
+        try (LaborExchangeSystem journaled = LaborExchangeSystem.open(journal)) {
+            journaled.addAllVacancies(jobs);
+            ExecutorService executor = Executors.newFixedThreadPool(3);
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < 3; t++) {
+                int thread = t;
+                writers.add(executor.submit(() -> {
+                    for (int i = thread; i < people.size(); i += 3) {
+                        journaled.addUnemployed(people.get(i));
+                        journaled.employUnemployed(people.get(i), jobs.get(i));
+                    }
+                }));
+            }
+            for (int i = 0; i < 5; i++) {
+                journaled.writeSnapshot(file);
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+            executor.shutdown();
+        }
+
+        LaborExchangeSystem full;
+        try (LaborExchangeSystem replayed = LaborExchangeSystem.open(journal)) {
+            full = replayed;
+        }
+        try (LaborExchangeSystem opened = LaborExchangeSystem.open(file, journal)) {
+            opened.setConsistencyCheck(true);
+            assertEquals("Жодна операція не загубилась і не повторилась",
+                    full.getSystemStatistics(), opened.getSystemStatistics());
+            assertEquals("Ті самі працевлаштування", full.getEmployedCount(), opened.getEmployedCount());
+            assertEquals("Ті самі події", eventCount(full), eventCount(opened));
+        }
+    }
+
+    private static int eventCount(LaborExchangeSystem system) {
+        return system.getEvents(Instant.EPOCH, Instant.parse("3000-01-01T00:00:00Z")).size();
+    }
+
+    private static List<String> ids(List<Vacancy> vacancies) {
+        return vacancies.stream().map(Vacancy::getId).collect(Collectors.toList());
+    }
+
+    private static Map<String, List<String>> describe(Map<Unemployed, List<Vacancy>> matches) {
+        return matches.entrySet().stream().collect(Collectors.toMap(
+                e -> e.getKey().getEmail(),
+                e -> e.getValue().stream().map(Vacancy::getId).collect(Collectors.toList())));
+    }
+}
@@ -0,0 +1,170 @@
+package main.laborexchange;
+
+import org.junit.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.*;
+
+public class UnemployedStoreTest {
+    private UnemployedStore store;
+    private Unemployed petro;
+
+    @Before
+    public void setUp() {
+        store = new UnemployedStore();
+        petro = new Unemployed("Іваненко Петро Сидорович", "Київ, вул. Хрещатик, 1", "+380501234567",
+                "Java Developer", 30, "petro@test.com");
+    }
+
+    @Test
+    public void testRowKeepsAllFields() {
+        int row = store.add(petro);
+        Unemployed view = store.get(row);
+        assertEquals("Ім'я", petro.getFullName(), view.getFullName());
+        assertEquals("Адреса", petro.getAddress(), view.getAddress());
+        assertEquals("Телефон", petro.getPhone(), view.getPhone());
+        assertEquals("Спеціальність", petro.getSpecialty(), view.getSpecialty());
+        assertEquals("Вік", petro.getAge(), view.getAge());
+        assertEquals("Email", petro.getEmail(), view.getEmail());
+        assertFalse("Не працевлаштований", view.isEmployed());
+        assertTrue("Валідний", view.isValid());
+        assertEquals("Ініціали", petro.getInitials(), view.getInitials());
+        assertEquals("Той самий опис", petro.toString(), view.toString());
+        assertEquals("Представлення одного рядка рівні", view, store.get(row));
+        assertEquals("Представлення рівне звичайному об'єкту", petro, view);
+        assertEquals("Рівність симетрична", view, petro);
+        assertEquals("Однаковий хеш", petro.hashCode(), view.hashCode());
+        assertNotEquals("Інший email - інший запис", view,
+                new Unemployed("Іваненко Петро Сидорович", "Київ", "050", "Java Developer", 30, "other@test.com"));
+    }
+
+    @Test
+    public void testMissingFieldsStayNull() {
+        Unemployed empty = new Unemployed(null, "", null, null, 15, "invalid");
+        Unemployed view = store.get(store.add(empty));
+        assertNull("Немає імені", view.getFullName());
+        assertEquals("Порожня адреса", "", view.getAddress());
+        assertNull("Немає спеціальності", view.getSpecialty());
+        assertFalse("Невалідний", view.isValid());
+    }
+
+    @Test
+    public void testSettersWriteThrough() {
+        for (int i = 0; i < 1000; i++) {
+            store.add("Кандидат " + i, "Львів", "050" + i, "Python", 25, "c" + i + "@test.com");
+        }
+        Unemployed view = store.get(500);
+        view.setAddress("Одеса, вул. Дерибасівська, 10");
+        view.setSpecialty("Data Scientist");
+        view.setAge(41);
+        view.setEmail("new@test.com");
+
+        Unemployed again = store.get(500);
+        assertEquals("Нова адреса", "Одеса, вул. Дерибасівська, 10", again.getAddress());
+        assertEquals("Ім'я не змінилось", "Кандидат 500", again.getFullName());
+        assertEquals("Нова спеціальність", "Data Scientist", again.getSpecialty());
+        assertEquals("Новий вік", 41, again.getAge());
+        assertEquals("Новий email", "new@test.com", again.getEmail());
+        assertEquals("Сусідній рядок не змінився", "c501@test.com", store.get(501).getEmail());
+        store.trimToSize();
+        store.add(petro);
+        assertEquals("Запис після звільнення запасу", petro.getEmail(), store.get(1000).getEmail());
+    }
+
+    @Test
+    public void testEmploymentFlags() {
+        petro.setEmployed(true);
+        store.add(petro);
+        for (int i = 0; i < 200; i++) {
+            store.add("Кандидат " + i, "Львів", "050" + i, "Python", 25, "c" + i + "@test.com");
+        }
+        assertTrue("Стан працевлаштування скопійовано", store.get(0).isEmployed());
+        assertTrue("Перша спроба вдається", store.get(130).tryEmploy());
+        assertFalse("Повторна спроба не вдається", store.get(130).tryEmploy());
+        store.get(64).setEmployed(true);
+        assertFalse("Сусідні біти не зачеплені", store.get(65).isEmployed());
+        assertEquals("Кількість працевлаштованих", 3, store.getEmployedCount());
+        store.get(0).setEmployed(false);
+        assertEquals("Після звільнення", 2, store.getEmployedCount());
+    }
+
+    @Test
+    public void testConcurrentClaimsEmployOnce() throws Exception {
+        int rows = 1000;
+        for (int i = 0; i < rows; i++) {
+            store.add("Кандидат " + i, "Львів", "050" + i, "Python", 25, "c" + i + "@test.com");
+        }
+        AtomicInteger claimed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                for (int row = 0; row < rows; row++) {
+                    if (store.get(row).tryEmploy()) {
+                        claimed.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertEquals("Кожен рядок зайнято рівно один раз", rows, claimed.get());
+        assertEquals("Усі працевлаштовані", rows, store.getEmployedCount());
+    }
+
+    @Test
+    public void testViewWorksInSystem() {
+        LaborExchangeSystem system = new LaborExchangeSystem();
+        Unemployed view = store.get(store.add(petro));
+        Vacancy vacancy = new Vacancy("V001", "Java Developer", "IT Company", "Java, Spring", 25000.0);
+        assertTrue("Представлення реєструється", system.addUnemployed(view));
+        system.addVacancy(vacancy);
+        assertEquals("Кандидат знайдений", 1, system.findUnemployedForVacancy(vacancy).size());
+
+        assertTrue("Працевлаштування", system.employUnemployed(view, vacancy));
+        assertTrue("Біт у сховищі встановлено", store.get(0).isEmployed());
+        assertEquals("Система врахувала працевлаштування", 1, system.getEmployedCount());
+        assertTrue("Працевлаштований виходить з пошуку",
+                system.findUnemployedForSpecialty("java").isEmpty());
+    }
+
+    @Test
+    public void testChangesThroughAnotherViewReachSystem() throws Exception {
+        LaborExchangeSystem system = new LaborExchangeSystem();
+        system.setConsistencyCheck(true);
+        int row = store.add(petro);
+        store.add("Коваленко Ольга", "Львів", "0501112233", "Java Developer", 27, "olga@test.com");
+        assertTrue("Реєстрація через одне представлення", system.addUnemployed(store.get(row)));
+        assertEquals("Реєстрація списком", List.of(ImportResult.ACCEPTED),
+                system.addAllUnemployed(store.asList().subList(1, 2)));
+        Vacancy vacancy = new Vacancy("V001", "Java Developer", "IT Company", "Java, Spring", 25000.0);
+        system.addVacancy(vacancy);
+
+        store.get(row).setEmployed(true);
+        assertEquals("Працевлаштування через інше представлення враховано", 1, system.getEmployedCount());
+        assertEquals("Працевлаштований виходить з пошуку", 1, system.findUnemployedForVacancy(vacancy).size());
+
+        store.get(row).setEmployed(false);
+        store.get(row).setSpecialty("Python Developer");
+        assertEquals("Зміна спеціальності переіндексована", 1,
+                system.findUnemployedForSpecialty("python").size());
+        assertTrue("Працевлаштування системою через третє представлення",
+                system.employUnemployed(store.get(1), vacancy));
+        assertTrue("Біт у сховищі встановлено", store.get(1).isEmployed());
+        assertEquals("Лічильник працевлаштованих", 1, system.getEmployedCount());
+
+        system.close();
+        assertEquals("Закрита система відписана від рядків", 0, store.get(row).listeners().length);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testUnknownRow() {
+        store.get(0);
+    }
+}
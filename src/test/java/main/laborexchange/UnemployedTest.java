@@ -56,6 +56,34 @@ public class UnemployedTest {
         assertTrue("Після встановлення статусу - працевлаштований", unemployed.isEmployed());
     }
 
+    @Test
+    public void testTryEmploy() {
+        assertTrue("Перша спроба працевлаштувати вдається", unemployed.tryEmploy());
+        assertTrue("Після спроби - працевлаштований", unemployed.isEmployed());
+        assertFalse("Повторна спроба не вдається", unemployed.tryEmploy());
+    }
+
+    @Test
+    public void testRepeatedSpecialtyShared() {
+        Unemployed other = new Unemployed("Інший", "Київ", "0501112233", new String("Java Developer"), 30, "o@test.com");
+        assertSame("Спільна спеціальність", unemployed.getSpecialty(), other.getSpecialty());
+        other.setSpecialty(new String("Python Developer"));
+        assertEquals("Сеттер зберігає значення", "Python Developer", other.getSpecialty());
+    }
+
+    @Test
+    public void testReplacedSpecialtyReleased() throws InterruptedException {
+        String specialty = "Спеціальність " + System.nanoTime();
+        Unemployed other = new Unemployed("Інший", "Київ", "0501112233", new String(specialty), 30, "o@test.com");
+        assertNotNull("Спеціальність у словнику", StringDictionary.find(specialty));
+        other.setSpecialty("Python Developer");
+        for (int i = 0; i < 50 && StringDictionary.find(specialty) != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull("Замінене значення не тримається словником", StringDictionary.find(specialty));
+    }
+
     @Test
     public void testCanRetire() {
         Unemployed young = new Unemployed("Молодий", "Адреса", "Тел", "Спец", 25, "email@test.com");
@@ -2,6 +2,8 @@ package main.laborexchange;
 
 import org.junit.*;
 import java.util.Locale;
+import java.util.Random;
+import java.util.regex.Pattern;
 import static org.junit.Assert.*;
 
 public class VacancyTest {
@@ -39,6 +41,62 @@ public class VacancyTest {
         assertFalse("Не має співпадати з null", vacancy.matchesSpecialty(null));
     }
 
+    @Test
+    public void testMatchesSpecialtyAfterSetRequirements() {
+        vacancy.setRequirements("Python, Django");
+        assertTrue("Нові вимоги враховуються", vacancy.matchesSpecialty("Python"));
+        assertFalse("Старі вимоги не враховуються", vacancy.matchesSpecialty("Java"));
+
+        vacancy.setRequirements(null);
+        assertFalse("Null вимоги не збігаються", vacancy.matchesSpecialty("Python"));
+    }
+
+    @Test
+    public void testMatchesSpecialtySameAsRegexMatcher() {
+        String[] words = {"java", "Java", "spring", "SQL", "python", "django", "react", "js", "c++",
+                "node.js", "front-end", "c#", "1c", "розробник", "Розробник", "тестувальник",
+                "бухгалтер", "досвід", "java8", "spring_boot", "qa", "devops", "ux/ui",
+                "nai\u0308ve", "crème", "x\u2168", "\u2168java", "a\u203Fb", "дев\u200Dопс"};
+        String[] separators = {" ", ", ", ",", ". ", " - ", "/", "; ", " (", ") ", "\t", "\n"};
+        String[] specialtySeparators = {" ", ", ", ",", "/", "-", "\t"};
+        Random random = new Random(42);
+
+        for (int i = 0; i < 20000; i++) {
+            String requirements = randomText(random, words, separators, 1 + random.nextInt(8));
+            String specialty = randomText(random, words, specialtySeparators, 1 + random.nextInt(3));
+            Vacancy v = new Vacancy("V" + i, "Position", "Company", requirements, 1000.0);
+
+            assertEquals("Результат для '" + specialty + "' у '" + requirements + "'",
+                    regexMatches(requirements, specialty), v.matchesSpecialty(specialty));
+        }
+    }
+
+    private static String randomText(Random random, String[] words, String[] separators, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0 || random.nextInt(10) == 0) {
+                sb.append(separators[random.nextInt(separators.length)]);
+            }
+            sb.append(words[random.nextInt(words.length)]);
+        }
+        return sb.toString();
+    }
+
+    // Попередня реалізація зіставлення на регулярних виразах; \b задано явно за Unicode,
+    // бо без прапорця його значення залежить від версії JDK
+    private static boolean regexMatches(String requirements, String specialty) {
+        String specLower = specialty.toLowerCase().trim();
+        String reqLower = requirements.toLowerCase();
+        for (String keyword : specLower.split("[,\\s]+")) {
+            if (keyword.length() < 3) continue;
+            Pattern pattern = Pattern.compile(".*\\b" + keyword + "\\b.*", Pattern.UNICODE_CHARACTER_CLASS);
+            if (pattern.matcher(reqLower).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Test
     public void testVacancyStatus() {
         assertTrue("Спочатку активна", vacancy.isActive());
@@ -46,6 +104,67 @@ public class VacancyTest {
         assertFalse("Після деактивації - неактивна", vacancy.isActive());
     }
 
+    @Test
+    public void testTryClose() {
+        assertTrue("Перша спроба закрити вдається", vacancy.tryClose());
+        assertFalse("Після закриття - неактивна", vacancy.isActive());
+        assertFalse("Повторна спроба не вдається", vacancy.tryClose());
+        vacancy.setActive(true);
+        assertTrue("Знову відкриту вакансію можна закрити", vacancy.tryClose());
+    }
+
+    @Test
+    public void testClaim() {
+        assertTrue("Відкриту вакансію можна зайняти", vacancy.tryClaim());
+        assertFalse("Зайнята вакансія вважається закритою", vacancy.isActive());
+        assertFalse("Зайняту вакансію не закрити вдруге", vacancy.tryClose());
+        vacancy.releaseClaim();
+        assertTrue("Звільнена вакансія знову відкрита", vacancy.isActive());
+
+        assertTrue(vacancy.tryClaim());
+        vacancy.setActive(false);
+        vacancy.releaseClaim();
+        assertFalse("Звільнення не відкриває вакансію, закриту кимось іншим", vacancy.isActive());
+
+        vacancy.setActive(true);
+        assertTrue(vacancy.tryClaim());
+        vacancy.completeClaim();
+        assertFalse("Завершене зайняття закриває вакансію", vacancy.isActive());
+        vacancy.releaseClaim();
+        assertFalse("Закриту вакансію звільнення не відкриває", vacancy.isActive());
+    }
+
+    @Test
+    public void testRepeatedStringsShared() {
+        Vacancy first = new Vacancy("V1", new String("Java Developer"), new String("IT Company"),
+                new String("Java, Spring"), 20000.0);
+        Vacancy second = new Vacancy("V2", new String("Java Developer"), new String("IT Company"),
+                new String("Java, Spring"), 30000.0);
+        assertSame("Спільна назва позиції", first.getPosition(), second.getPosition());
+        assertSame("Спільна компанія", first.getCompany(), second.getCompany());
+        assertSame("Спільні вимоги", first.getRequirements(), second.getRequirements());
+        assertSame("Спільні лексеми вимог", first.getRequirementTokens(), second.getRequirementTokens());
+
+        second.setCompany(new String("Other Company"));
+        second.setRequirements(new String("Python"));
+        assertEquals("Сеттер зберігає значення", "Other Company", second.getCompany());
+        assertTrue("Зіставлення після зміни вимог", second.matchesSpecialty("Python Developer"));
+        assertFalse("Старі вимоги більше не збігаються", second.matchesSpecialty("Spring"));
+        assertTrue("Перша вакансія не змінилась", first.matchesSpecialty("Spring"));
+    }
+
+    @Test
+    public void testQueryWordsNotAddedToDictionary() {
+        String word = "запит" + System.nanoTime();
+        assertFalse("Невідоме слово не збігається", vacancy.matchesSpecialty(word + " Developer"));
+        assertNull("Слово запиту не додано до словника", StringDictionary.find(word));
+
+        // Слово, що з'явилося у вимогах після запиту, знаходиться тим самим розбором
+        Vacancy later = new Vacancy("V9", "Developer", "IT Company", "Java, " + word, 20000.0);
+        assertTrue("Нове слово вимог збігається", later.matchesSpecialty(word + " Developer"));
+        assertFalse("Інша вакансія не збігається", vacancy.matchesSpecialty(word + " Developer"));
+    }
+
     @Test
     public void testIsHighSalary() {
         assertFalse("Зарплата 25000 не вважається високою", vacancy.isHighSalary());